@@ -5,11 +5,13 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaAuditing
 @EntityScan("com.bintobloom.entity")
 @EnableJpaRepositories("com.bintobloom.repository")
+@EnableScheduling
 public class BintobloomBackendApplication {
 
 	public static void main(String[] args) {
@@ -1,8 +1,10 @@
 package com.bintobloom.config;
 
+import com.bintobloom.dto.KeysetPage;
 import com.bintobloom.security.JwtAuthenticationEntryPoint;
 import com.bintobloom.security.JwtAuthenticationFilter;
 import com.bintobloom.service.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -68,8 +70,11 @@ public class SecurityConfig {
             .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> 
-                auth.requestMatchers("/api/auth/**", "/api/health", "/api/test/**", "/api/contact/submit").permitAll()
+                // Async dispatches (tracking streams completing) belong to a request that was already authorized
+                auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                    .requestMatchers("/api/auth/**", "/api/health", "/api/test/**", "/api/contact/submit").permitAll()
                     .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                    .requestMatchers("/api/ngo/export/**").hasAnyRole("NGO", "ADMIN")
                     .requestMatchers("/api/payment/**").authenticated()
                     .requestMatchers("/api/household/**", "/api/business/**", "/api/collector/**", "/api/ngo/**").authenticated()
                     .requestMatchers("/api/**").authenticated()
@@ -88,6 +93,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(Arrays.asList(allowedOrigins.split(",")));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList(KeysetPage.NEXT_CURSOR_HEADER));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
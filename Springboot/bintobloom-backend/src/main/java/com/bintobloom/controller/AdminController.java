@@ -1,20 +1,42 @@
 package com.bintobloom.controller;
 
+import com.bintobloom.dto.PickupView;
 import com.bintobloom.entity.User;
 import com.bintobloom.entity.ContactMessage;
+import com.bintobloom.entity.EcoPointRule;
 import com.bintobloom.entity.PickupRequest;
-import com.bintobloom.entity.WasteLog;
 import com.bintobloom.repository.UserRepository;
 import com.bintobloom.repository.ContactMessageRepository;
 import com.bintobloom.repository.PickupRequestRepository;
-import com.bintobloom.repository.WasteLogRepository;
+import com.bintobloom.security.PrincipalCache;
+import com.bintobloom.service.AssignmentEngineService;
+import com.bintobloom.service.DashboardMetricsService;
+import com.bintobloom.service.DataExportService;
+import com.bintobloom.service.EcoPointRescoreService;
+import com.bintobloom.service.EcoPointRules;
 import com.bintobloom.service.EmailService;
+import com.bintobloom.service.LeaderboardSnapshotService;
+import com.bintobloom.service.LocationIngestionService;
+import com.bintobloom.service.PaymentFulfilmentService;
+import com.bintobloom.service.PaymentGatewayClient;
+import com.bintobloom.service.PaymentHistoryService;
+import com.bintobloom.service.PaymentReconciliationService;
+import com.bintobloom.service.PickupScheduleService;
+import com.bintobloom.service.RoutePlannerService;
+import com.bintobloom.service.TrackingStreamService;
+import com.bintobloom.service.WasteAnalyticsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 
@@ -33,7 +55,7 @@ public class AdminController {
     private ContactMessageRepository contactMessageRepository;
     
     @Autowired
-    private WasteLogRepository wasteLogRepository;
+    private DashboardMetricsService dashboardMetricsService;
     
     @Autowired
     private PasswordEncoder passwordEncoder;
@@ -41,53 +63,96 @@ public class AdminController {
     @Autowired
     private EmailService emailService;
     
+    @Autowired
+    private WasteAnalyticsService wasteAnalyticsService;
+    
+    @Autowired
+    private LeaderboardSnapshotService leaderboardSnapshotService;
+    
+    @Autowired
+    private PrincipalCache principalCache;
+    
+    @Autowired
+    private LocationIngestionService locationIngestionService;
+    
+    @Autowired
+    private TrackingStreamService trackingStreamService;
+    
+    @Autowired
+    private RoutePlannerService routePlannerService;
+    
+    @Autowired
+    private AssignmentEngineService assignmentEngineService;
+    
+    @Autowired
+    private EcoPointRules ecoPointRules;
+    
+    @Autowired
+    private EcoPointRescoreService ecoPointRescoreService;
+    
+    @Autowired
+    private DataExportService dataExportService;
+
+    @Autowired
+    private PaymentGatewayClient paymentGatewayClient;
+
+    @Autowired
+    private PaymentFulfilmentService paymentFulfilmentService;
+
+    @Autowired
+    private PaymentReconciliationService paymentReconciliationService;
+
+    @Autowired
+    private PaymentHistoryService paymentHistoryService;
+    
+    @Autowired
+    private PickupScheduleService pickupScheduleService;
+    
     @GetMapping("/dashboard")
     public ResponseEntity<?> getDashboard() {
         try {
-            List<User> allUsers = userRepository.findAll();
-            List<PickupRequest> allPickups = pickupRequestRepository.findAll();
-            List<WasteLog> allWasteLogs = wasteLogRepository.findAll();
-            
-            System.out.println("=== ADMIN DASHBOARD DEBUG ===");
-            System.out.println("Total users: " + allUsers.size());
-            System.out.println("Total pickups: " + allPickups.size());
-            System.out.println("Total waste logs: " + allWasteLogs.size());
-            
-            long totalCollectors = allUsers.stream().filter(u -> u.getRole() == User.UserRole.COLLECTOR).count();
-            long totalNGOs = allUsers.stream().filter(u -> u.getRole() == User.UserRole.NGO).count();
-            long pendingPickups = allPickups.stream().filter(p -> p.getPickupStatus() == PickupRequest.PickupStatus.PENDING).count();
-            long completedPickups = allPickups.stream().filter(p -> p.getPickupStatus() == PickupRequest.PickupStatus.COMPLETED).count();
-            
-            System.out.println("Completed pickups: " + completedPickups);
-            
-            double totalWasteCollected = 0.0;
-            for (WasteLog wl : allWasteLogs) {
-                if (wl.getWeightKg() != null) {
-                    totalWasteCollected += wl.getWeightKg().doubleValue();
-                    System.out.println("WasteLog weight: " + wl.getWeightKg());
-                }
-            }
-            
-            System.out.println("Total waste collected: " + totalWasteCollected);
-            System.out.println("=== END DEBUG ===");
-            
-            Map<String, Object> dashboard = new HashMap<>();
-            dashboard.put("totalUsers", allUsers.size());
-            dashboard.put("totalCollectors", totalCollectors);
-            dashboard.put("totalNGOs", totalNGOs);
-            dashboard.put("pendingPickups", pendingPickups);
-            dashboard.put("completedPickups", completedPickups);
-            dashboard.put("totalWasteCollected", totalWasteCollected);
-            dashboard.put("wasteLogCount", allWasteLogs.size());
-            dashboard.put("pickupCount", allPickups.size());
-            
-            return ResponseEntity.ok(dashboard);
+            return ResponseEntity.ok(dashboardMetricsService.getDashboard());
         } catch (Exception e) {
-            e.printStackTrace();
             return ResponseEntity.badRequest().body("Failed to fetch dashboard: " + e.getMessage());
         }
     }
     
+    @GetMapping("/dashboard/reconcile")
+    public ResponseEntity<?> getDashboardReconciliation() {
+        return ResponseEntity.ok(dashboardMetricsService.getReconciliationStatus());
+    }
+    
+    @PostMapping("/dashboard/reconcile")
+    public ResponseEntity<?> reconcileDashboard() {
+        try {
+            Map<String, Object> drift = dashboardMetricsService.reconcile();
+            return ResponseEntity.ok(Map.of("drift", drift, "dashboard", dashboardMetricsService.getDashboard()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to reconcile dashboard: " + e.getMessage());
+        }
+    }
+    
+    @PostMapping("/analytics/rebuild")
+    public ResponseEntity<?> rebuildAnalytics() {
+        try {
+            int rows = wasteAnalyticsService.rebuildRollups();
+            return ResponseEntity.ok(Map.of("message", "Analytics rollups rebuilt", "rows", rows));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to rebuild analytics: " + e.getMessage());
+        }
+    }
+    
+    @PostMapping("/leaderboard/snapshot")
+    public ResponseEntity<?> snapshotLeaderboard(@RequestParam(required = false) String month) {
+        try {
+            YearMonth yearMonth = month != null ? YearMonth.parse(month) : YearMonth.now().minusMonths(1);
+            int rows = leaderboardSnapshotService.snapshot(yearMonth);
+            return ResponseEntity.ok(Map.of("message", "Leaderboard snapshot written", "month", yearMonth.toString(), "rows", rows));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to snapshot leaderboard: " + e.getMessage());
+        }
+    }
+    
     @GetMapping("/users")
     public ResponseEntity<?> getAllUsers() {
         try {
@@ -114,6 +179,149 @@ public class AdminController {
         }
     }
     
+    @GetMapping("/auth/principal-cache")
+    public ResponseEntity<?> getPrincipalCacheStats() {
+        return ResponseEntity.ok(principalCache.getStats());
+    }
+    
+    @GetMapping("/tracking/ingestion")
+    public ResponseEntity<?> getTrackingIngestionStats() {
+        return ResponseEntity.ok(locationIngestionService.getStats());
+    }
+    
+    @GetMapping("/routes")
+    public ResponseEntity<?> getRoutes(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            return ResponseEntity.ok(routePlannerService.getPlan(date != null ? date : LocalDate.now()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to plan routes: " + e.getMessage());
+        }
+    }
+    
+    @GetMapping("/tracking/streams")
+    public ResponseEntity<?> getTrackingStreamStats() {
+        return ResponseEntity.ok(trackingStreamService.getStats());
+    }
+    
+    @GetMapping("/payment-gateway")
+    public ResponseEntity<?> getPaymentGatewayStats() {
+        return ResponseEntity.ok(paymentGatewayClient.getStats());
+    }
+    
+    @GetMapping("/payment-fulfilment")
+    public ResponseEntity<?> getPaymentFulfilmentStats() {
+        return ResponseEntity.ok(paymentFulfilmentService.getStats());
+    }
+    
+    @GetMapping("/payment-summary-cache")
+    public ResponseEntity<?> getPaymentSummaryCacheStats() {
+        return ResponseEntity.ok(paymentHistoryService.getStats());
+    }
+    
+    @PostMapping("/payment-reconciliation")
+    public ResponseEntity<?> reconcilePayments() {
+        try {
+            return ResponseEntity.accepted().body(paymentReconciliationService.start());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/payment-reconciliation")
+    public ResponseEntity<?> getPaymentReconciliationStatus() {
+        return ResponseEntity.ok(paymentReconciliationService.getStatus());
+    }
+    
+    @GetMapping("/pickup-schedules")
+    public ResponseEntity<?> getPickupScheduleStats() {
+        return ResponseEntity.ok(pickupScheduleService.getStats());
+    }
+    
+    @GetMapping("/assignment")
+    public ResponseEntity<?> getAssignmentStats() {
+        return ResponseEntity.ok(assignmentEngineService.getLastRun());
+    }
+    
+    @PostMapping("/assignment/run")
+    public ResponseEntity<?> runAssignment() {
+        try {
+            return ResponseEntity.ok(assignmentEngineService.run());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to assign pickups: " + e.getMessage());
+        }
+    }
+    
+    @GetMapping("/eco-point-rules")
+    public ResponseEntity<?> getEcoPointRules() {
+        return ResponseEntity.ok(Map.of("rules", ecoPointRules.getRules(), "snapshot", ecoPointRules.getStats()));
+    }
+    
+    // With rescore=true, past rewards the change can affect are re-scored in the background
+    @PostMapping("/eco-point-rules")
+    public ResponseEntity<?> createEcoPointRule(@RequestBody EcoPointRule rule,
+                                                @RequestParam(defaultValue = "false") boolean rescore) {
+        try {
+            rule.setRuleId(null);
+            EcoPointRule saved = ecoPointRules.saveRule(rule);
+            return ResponseEntity.ok(ruleChanged(saved, rescore ? List.of(saved) : List.of()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    @PutMapping("/eco-point-rules/{ruleId}")
+    public ResponseEntity<?> updateEcoPointRule(@PathVariable Long ruleId, @RequestBody EcoPointRule rule,
+                                                @RequestParam(defaultValue = "false") boolean rescore) {
+        try {
+            EcoPointRule existing = ecoPointRules.getRule(ruleId);
+            rule.setRuleId(ruleId);
+            rule.setCreatedAt(existing.getCreatedAt());
+            EcoPointRule saved = ecoPointRules.saveRule(rule);
+            return ResponseEntity.ok(ruleChanged(saved, rescore ? List.of(existing, saved) : List.of()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    @DeleteMapping("/eco-point-rules/{ruleId}")
+    public ResponseEntity<?> deleteEcoPointRule(@PathVariable Long ruleId,
+                                                @RequestParam(defaultValue = "false") boolean rescore) {
+        try {
+            EcoPointRule existing = ecoPointRules.getRule(ruleId);
+            ecoPointRules.deleteRule(ruleId);
+            return ResponseEntity.ok(ruleChanged(existing, rescore ? List.of(existing) : List.of()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/eco-point-rules/rescore")
+    public ResponseEntity<?> rescoreEcoPoints(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until) {
+        try {
+            return ResponseEntity.accepted().body(ecoPointRescoreService.start(from, until));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/eco-point-rules/rescore")
+    public ResponseEntity<?> getEcoPointRescoreStatus() {
+        return ResponseEntity.ok(ecoPointRescoreService.getStatus());
+    }
+    
+    private Map<String, Object> ruleChanged(EcoPointRule rule, List<EcoPointRule> rescoreFor) {
+        if (rescoreFor.isEmpty()) {
+            return Map.of("rule", rule);
+        }
+        try {
+            return Map.of("rule", rule, "rescore", ecoPointRescoreService.startFor(rescoreFor));
+        } catch (IllegalStateException e) {
+            return Map.of("rule", rule, "rescore", Map.of("status", "NOT_STARTED", "message", e.getMessage()));
+        }
+    }
+    
     @PostMapping("/create-admin")
     public ResponseEntity<?> createAdmin() {
         try {
@@ -148,13 +356,37 @@ public class AdminController {
     @GetMapping("/pickups")
     public ResponseEntity<?> getAllPickups() {
         try {
-            List<PickupRequest> pickups = pickupRequestRepository.findAll();
-            return ResponseEntity.ok(pickups);
+            List<PickupRequest> pickups = pickupRequestRepository.findAllWithParties();
+            return ResponseEntity.ok(pickups.stream().map(PickupView::of).toList());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Failed to fetch pickups: " + e.getMessage());
         }
     }
     
+    // Written on the request thread straight to the response, so no async timeout caps a large export
+    @GetMapping("/export/pickups")
+    public ResponseEntity<?> exportPickups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) PickupRequest.PickupStatus status,
+            @RequestParam(required = false) String format,
+            HttpServletResponse response) throws IOException {
+        DataExportService.Format exportFormat;
+        try {
+            exportFormat = DataExportService.Format.parse(format);
+            if (from != null && to != null && from.isAfter(to)) {
+                throw new IllegalArgumentException("from must not be after to");
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+        response.setContentType(exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"pickups." + exportFormat.getExtension() + "\"");
+        dataExportService.exportPickups(from, to, city, status, exportFormat, response.getOutputStream());
+        return null;
+    }
+    
     @GetMapping("/messages")
     public ResponseEntity<?> getAllMessages() {
         try {
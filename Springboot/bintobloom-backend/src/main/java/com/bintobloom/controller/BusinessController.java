@@ -2,16 +2,18 @@ package com.bintobloom.controller;
 
 import com.bintobloom.entity.PickupRequest;
 import com.bintobloom.entity.User;
-import com.bintobloom.entity.EcoReward;
 import com.bintobloom.entity.BusinessDetails;
-import com.bintobloom.entity.WasteLog;
 import com.bintobloom.repository.PickupRequestRepository;
 import com.bintobloom.repository.UserRepository;
 import com.bintobloom.repository.EcoRewardRepository;
 import com.bintobloom.repository.BusinessDetailsRepository;
 import com.bintobloom.repository.WasteLogRepository;
 import com.bintobloom.security.UserPrincipal;
+import com.bintobloom.service.PickupBatchService;
+import com.bintobloom.service.PickupScheduleService;
+import com.bintobloom.service.PickupService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -29,6 +31,15 @@ import java.util.Optional;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class BusinessController {
 
+    @Autowired
+    private PickupService pickupService;
+
+    @Autowired
+    private PickupBatchService pickupBatchService;
+
+    @Autowired
+    private PickupScheduleService pickupScheduleService;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -149,12 +160,55 @@ public class BusinessController {
         }
     }
 
+    @PostMapping("/pickups/bulk")
+    public ResponseEntity<?> createPickupRequests(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestBody Map<String, List<Map<String, Object>>> request) {
+        try {
+            List<Long> pickupIds = pickupBatchService.createBulk(userPrincipal.getId(), request.get("pickups"));
+            return ResponseEntity.ok(Map.of(
+                    "message", pickupIds.size() + " pickups scheduled successfully",
+                    "pickupIds", pickupIds));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Failed to schedule pickups: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/schedules")
+    public ResponseEntity<?> createSchedule(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestBody Map<String, Object> request) {
+        try {
+            return ResponseEntity.ok(pickupScheduleService.create(userPrincipal.getId(), request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Failed to schedule pickups: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/schedules")
+    public ResponseEntity<?> getSchedules(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return ResponseEntity.ok(pickupScheduleService.list(userPrincipal.getId()));
+    }
+
+    @DeleteMapping("/schedules/{scheduleId}")
+    public ResponseEntity<?> cancelSchedule(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable Long scheduleId) {
+        Integer removed = pickupScheduleService.cancel(userPrincipal.getId(), scheduleId);
+        if (removed == null) {
+            return ResponseEntity.status(404).body(Map.of("message", "Schedule not found"));
+        }
+        return ResponseEntity.ok(Map.of("message", "Schedule cancelled", "pickupsRemoved", removed));
+    }
+
     @GetMapping("/pickups")
-    public ResponseEntity<?> getMyPickups(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+    public ResponseEntity<?> getMyPickups(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
         try {
-            List<PickupRequest> pickups = pickupRequestRepository
-                    .findByUserUserIdOrderByCreatedAtDesc(userPrincipal.getId());
-            return ResponseEntity.ok(pickups);
+            return pickupService.getUserFeed(userPrincipal.getId(), cursor, size).toResponse();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.ok(List.of());
         }
@@ -221,19 +275,16 @@ public class BusinessController {
     @GetMapping("/eco-points")
     public ResponseEntity<?> getEcoPoints(@AuthenticationPrincipal UserPrincipal userPrincipal) {
         try {
-            List<EcoReward> rewards = ecoRewardRepository.findByUserUserIdOrderByEarnedAtDesc(userPrincipal.getId());
-
-            int totalPoints = rewards.stream().mapToInt(EcoReward::getPointsEarned).sum();
-
-            List<WasteLog> userLogs = wasteLogRepository.findByUserId(userPrincipal.getId());
-            BigDecimal totalWaste = userLogs.stream()
-                    .map(WasteLog::getWeightKg)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            long totalPoints = ecoRewardRepository.getTotalPointsByUserId(userPrincipal.getId());
+            BigDecimal totalWaste = wasteLogRepository.sumWeightKgByUserId(userPrincipal.getId());
+            long completedPickups = pickupRequestRepository.countByUserIdAndStatus(userPrincipal.getId(),
+                    PickupRequest.PickupStatus.COMPLETED);
 
             return ResponseEntity.ok(Map.of(
                     "totalPoints", totalPoints,
                     "totalWaste", totalWaste,
-                    "recentRewards", rewards.stream().limit(10).toList()));
+                    "completedPickups", completedPickups,
+                    "recentRewards", ecoRewardRepository.findRecentByUserId(userPrincipal.getId(), PageRequest.of(0, 10))));
         } catch (Exception e) {
             return ResponseEntity.ok(Map.of(
                     "totalPoints", 0,
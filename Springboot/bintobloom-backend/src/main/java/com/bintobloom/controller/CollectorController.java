@@ -1,5 +1,6 @@
 package com.bintobloom.controller;
 
+import com.bintobloom.dto.LocationPingBatch;
 import com.bintobloom.entity.PickupRequest;
 import com.bintobloom.entity.User;
 import com.bintobloom.entity.WasteLog;
@@ -9,19 +10,24 @@ import com.bintobloom.repository.PickupRequestRepository;
 import com.bintobloom.repository.UserRepository;
 import com.bintobloom.repository.WasteLogRepository;
 import com.bintobloom.repository.EcoRewardRepository;
-import com.bintobloom.repository.HouseholdDetailsRepository;
-import com.bintobloom.repository.BusinessDetailsRepository;
 import com.bintobloom.repository.PaymentRepository;
 import com.bintobloom.security.UserPrincipal;
+import com.bintobloom.service.LocationIngestionService;
+import com.bintobloom.service.PickupCompletionService;
+import com.bintobloom.service.PickupGeoIndexService;
+import com.bintobloom.service.PickupService;
+import com.bintobloom.service.RoutePlannerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.math.BigDecimal;
 
 @RestController
@@ -30,22 +36,31 @@ import java.math.BigDecimal;
 public class CollectorController {
 
     @Autowired
-    private UserRepository userRepository;
+    private PickupService pickupService;
 
     @Autowired
-    private PickupRequestRepository pickupRequestRepository;
+    private PickupCompletionService pickupCompletionService;
 
     @Autowired
-    private WasteLogRepository wasteLogRepository;
+    private PickupGeoIndexService pickupGeoIndexService;
 
     @Autowired
-    private EcoRewardRepository ecoRewardRepository;
+    private LocationIngestionService locationIngestionService;
+
+    @Autowired
+    private RoutePlannerService routePlannerService;
+
+    @Autowired
+    private UserRepository userRepository;
 
     @Autowired
-    private HouseholdDetailsRepository householdDetailsRepository;
+    private PickupRequestRepository pickupRequestRepository;
 
     @Autowired
-    private BusinessDetailsRepository businessDetailsRepository;
+    private WasteLogRepository wasteLogRepository;
+
+    @Autowired
+    private EcoRewardRepository ecoRewardRepository;
 
     @Autowired
     private PaymentRepository paymentRepository;
@@ -98,46 +113,75 @@ public class CollectorController {
     }
 
     @GetMapping("/requests")
-    public ResponseEntity<?> getAllRequests(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+    public ResponseEntity<?> getAllRequests(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
         try {
-            List<PickupRequest> requests = pickupRequestRepository
-                    .findByPickupStatusOrderByCreatedAtDesc(PickupRequest.PickupStatus.PENDING);
-            return ResponseEntity.ok(requests);
+            return pickupService.getStatusFeed(PickupRequest.PickupStatus.PENDING, cursor, size).toResponse();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.ok(List.of());
         }
     }
 
+    @GetMapping("/requests/nearby")
+    public ResponseEntity<?> getNearbyRequests(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestParam(required = false) BigDecimal latitude, @RequestParam(required = false) BigDecimal longitude,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            // Defaults to the collector's last reported location
+            if (latitude == null || longitude == null) {
+                User collector = userRepository.findById(userPrincipal.getId())
+                        .orElseThrow(() -> new RuntimeException("Collector not found"));
+                latitude = collector.getLatitude();
+                longitude = collector.getLongitude();
+            }
+            if (latitude == null || longitude == null) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("message", "Location is not set. Update your location or pass latitude and longitude"));
+            }
+
+            return ResponseEntity.ok(pickupGeoIndexService.findNearby(
+                    latitude.doubleValue(), longitude.doubleValue(), radiusKm, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Failed to fetch nearby requests: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/my-requests")
-    public ResponseEntity<?> getMyRequests(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+    public ResponseEntity<?> getMyRequests(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
         try {
-            List<PickupRequest> requests = pickupRequestRepository
-                    .findByCollectorUserIdOrderByCreatedAtDesc(userPrincipal.getId());
-            return ResponseEntity.ok(requests);
+            return pickupService.getCollectorFeed(userPrincipal.getId(), cursor, size).toResponse();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.ok(List.of());
         }
     }
 
+    @GetMapping("/route")
+    public ResponseEntity<?> getRoute(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            return ResponseEntity.ok(routePlannerService.getRoute(date != null ? date : LocalDate.now(), userPrincipal.getId()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Failed to plan route: " + e.getMessage()));
+        }
+    }
+
     @PutMapping("/requests/{requestId}/accept")
     public ResponseEntity<?> acceptRequest(@PathVariable Long requestId,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
         try {
-            PickupRequest request = pickupRequestRepository.findById(requestId)
-                    .orElseThrow(() -> new RuntimeException("Request not found"));
-
-            if (request.getPickupStatus() != PickupRequest.PickupStatus.PENDING) {
-                return ResponseEntity.badRequest().body(Map.of("message", "Request is no longer available"));
-            }
-
-            User collector = userRepository.findById(userPrincipal.getId())
-                    .orElseThrow(() -> new RuntimeException("Collector not found"));
-
-            request.setCollector(collector);
-            request.setPickupStatus(PickupRequest.PickupStatus.ASSIGNED);
-            pickupRequestRepository.save(request);
+            pickupService.acceptPickup(requestId, userPrincipal.getId());
 
             return ResponseEntity.ok(Map.of("message", "Request accepted successfully"));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("message", "Failed to accept request: " + e.getMessage()));
         }
@@ -255,141 +299,71 @@ public class CollectorController {
     public ResponseEntity<?> completeRequest(@PathVariable Long requestId,
             @RequestBody Map<String, Object> completionData, @AuthenticationPrincipal UserPrincipal userPrincipal) {
         try {
-            PickupRequest request = pickupRequestRepository.findById(requestId)
-                    .orElseThrow(() -> new RuntimeException("Request not found"));
+            PickupCompletionService.Completed completed = pickupCompletionService.complete(
+                    userPrincipal.getId(), toCompletion(requestId, completionData));
 
-            // Verify the collector is assigned to this request
-            if (request.getCollector() == null || !request.getCollector().getUserId().equals(userPrincipal.getId())) {
-                return ResponseEntity.badRequest().body(Map.of("message", "You are not assigned to this request"));
-            }
-
-            User customer = request.getUser();
-            WasteLog wasteLog = null;
-            double weight = 0.0;
-
-            if (customer.getRole() == User.UserRole.HOUSEHOLD) {
-                // Household flow: No payment required, allow from ASSIGNED
-                if (request.getPickupStatus() != PickupRequest.PickupStatus.ASSIGNED) {
-                    return ResponseEntity.badRequest()
-                            .body(Map.of("message", "Request must be in ASSIGNED status to complete (Household)"));
-                }
+            return ResponseEntity.ok(Map.of(
+                    "message", "Pickup completed successfully",
+                    "weight", completed.weightKg(),
+                    "pointsAwarded", completed.pointsAwarded()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Failed to complete pickup: " + e.getMessage()));
+        }
+    }
 
-                // Create new WasteLog from input
-                if (completionData.get("weight") == null) {
-                    return ResponseEntity.badRequest().body(Map.of("message", "Weight is required for completion"));
-                }
-                weight = Double.parseDouble(completionData.get("weight").toString());
-
-                wasteLog = new WasteLog();
-                wasteLog.setPickupRequest(request);
-                wasteLog.setWasteType(request.getWasteType());
-                wasteLog.setWeightKg(BigDecimal.valueOf(weight));
-                wasteLog.setNotes(completionData.get("notes") != null ? completionData.get("notes").toString() : "");
-                wasteLog.setCollectedAt(LocalDateTime.now());
-                wasteLogRepository.save(wasteLog);
-
-            } else if (customer.getRole() == User.UserRole.BUSINESS) {
-                // Business flow: Payment required
-                if (request.getPickupStatus() != PickupRequest.PickupStatus.PAID) {
-                    return ResponseEntity.badRequest()
-                            .body(Map.of("message", "Payment must be completed before marking as complete (Business)"));
-                }
-                // Get weight from existing WasteLog
-                Optional<WasteLog> wasteLogOpt = wasteLogRepository.findByPickupRequest(request);
-                if (!wasteLogOpt.isPresent()) {
-                    return ResponseEntity.badRequest()
-                            .body(Map.of("message", "No weight data found. Please generate bill first."));
-                }
-                wasteLog = wasteLogOpt.get();
-                weight = wasteLog.getWeightKg().doubleValue();
-
-                // Update notes if provided
-                String notes = (String) completionData.get("notes");
-                if (notes != null) {
-                    wasteLog.setNotes(notes);
-                    wasteLogRepository.save(wasteLog);
+    // Completes several pickups, e.g. the end of a route, in one transaction: all of them or none
+    @PutMapping("/requests/complete")
+    public ResponseEntity<?> completeRequests(@RequestBody List<Map<String, Object>> completionData,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        try {
+            List<PickupCompletionService.Completion> completions = new ArrayList<>();
+            for (Map<String, Object> item : completionData) {
+                if (item.get("requestId") == null) {
+                    return ResponseEntity.badRequest().body(Map.of("message", "requestId is required for each pickup"));
                 }
-            } else {
-                return ResponseEntity.badRequest().body(Map.of("message", "Unsupported user role"));
+                completions.add(toCompletion(Long.parseLong(item.get("requestId").toString()), item));
             }
-
-            // Calculate formatted points
-            int pointsEarned = calculatePoints(request.getWasteType(), weight);
-
-            final double finalWeight = weight;
-
-            // Update User Statistics (Total Waste and Points)
-            if (customer.getRole() == User.UserRole.HOUSEHOLD) {
-                householdDetailsRepository.findByUser(customer).ifPresent(details -> {
-                    details.setTotalWasteKg(details.getTotalWasteKg().add(BigDecimal.valueOf(finalWeight)));
-                    details.setEcoPoints(details.getEcoPoints() + pointsEarned);
-                    householdDetailsRepository.save(details);
-                });
-            } else if (customer.getRole() == User.UserRole.BUSINESS) {
-                businessDetailsRepository.findByUser(customer).ifPresent(details -> {
-                    details.setTotalWasteKg(details.getTotalWasteKg().add(BigDecimal.valueOf(finalWeight)));
-                    businessDetailsRepository.save(details);
-                });
-            }
-
-            // Award EcoPoints
-            EcoReward reward = new EcoReward();
-            reward.setUser(customer);
-            reward.setPointsEarned(pointsEarned);
-            reward.setEarnedAt(LocalDateTime.now());
-            reward.setRewardType(EcoReward.RewardType.PICKUP_COMPLETED);
-            ecoRewardRepository.save(reward);
-
-            // Update Request Status
-            request.setPickupStatus(PickupRequest.PickupStatus.COMPLETED);
-            pickupRequestRepository.save(request);
+            List<PickupCompletionService.Completed> completed =
+                    pickupCompletionService.completeAll(userPrincipal.getId(), completions);
 
             return ResponseEntity.ok(Map.of(
-                    "message", "Pickup completed successfully",
-                    "weight", weight,
-                    "pointsAwarded", pointsEarned));
+                    "message", completed.size() + " pickups completed successfully",
+                    "completed", completed));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("message", "Failed to complete pickup: " + e.getMessage()));
+            return ResponseEntity.badRequest().body(Map.of("message", "Failed to complete pickups: " + e.getMessage()));
         }
     }
 
+    private PickupCompletionService.Completion toCompletion(Long requestId, Map<String, Object> completionData) {
+        Object weight = completionData.get("weight");
+        Object notes = completionData.get("notes");
+        Object photoUrl = completionData.get("photoUrl");
+        return new PickupCompletionService.Completion(requestId,
+                weight != null ? Double.parseDouble(weight.toString()) : null,
+                notes != null ? notes.toString() : null,
+                photoUrl != null ? photoUrl.toString() : null);
+    }
+
     @PutMapping("/location")
     public ResponseEntity<?> updateLocation(@AuthenticationPrincipal UserPrincipal userPrincipal,
-            @RequestBody Map<String, BigDecimal> locationData) {
+            @RequestBody LocationPingBatch locationData) {
         try {
-            User collector = userRepository.findById(userPrincipal.getId())
-                    .orElseThrow(() -> new RuntimeException("Collector not found"));
-
-            BigDecimal latitude = locationData.get("latitude");
-            BigDecimal longitude = locationData.get("longitude");
+            // A single {latitude, longitude} ping or an array of them, buffered and written to tracking logs in batches
+            int accepted = locationIngestionService.ingest(userPrincipal.getId(), locationData.getPings());
 
-            if (latitude == null || longitude == null) {
-                return ResponseEntity.badRequest().body(Map.of("message", "Latitude and longitude are required"));
-            }
-
-            collector.setLatitude(latitude);
-            collector.setLongitude(longitude);
-            userRepository.save(collector);
-
-            return ResponseEntity.ok(Map.of("message", "Location updated successfully"));
+            return ResponseEntity.ok(Map.of("message", "Location updated successfully", "accepted", accepted));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("message", "Failed to update location: " + e.getMessage()));
         }
     }
-
-    int calculatePoints(PickupRequest.WasteType wasteType, double weight) {
-        double ecoFactor = switch (wasteType) {
-            case BIODEGRADABLE -> 1.0;
-            case NON_BIODEGRADABLE -> 0.5;
-            case ORGANIC_WASTE -> 1.0;
-            case RECYCLABLE_WASTE -> 1.5;
-            case E_WASTE -> 2.0;
-            case CHEMICAL_WASTE -> 2.5;
-            case HAZARDOUS_WASTE -> 3.0;
-            case CONSTRUCTION_WASTE -> 1.8;
-            case NON_RECYCLABLE_COMMERCIAL -> 0.8;
-            default -> 1.0;
-        };
-        return (int) Math.round(weight * ecoFactor);
-    }
-}
\ No newline at end of file
+}
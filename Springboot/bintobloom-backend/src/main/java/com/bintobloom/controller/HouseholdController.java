@@ -2,15 +2,14 @@ package com.bintobloom.controller;
 
 import com.bintobloom.entity.PickupRequest;
 import com.bintobloom.entity.User;
-import com.bintobloom.entity.EcoReward;
-import com.bintobloom.entity.HouseholdDetails;
 import com.bintobloom.repository.PickupRequestRepository;
 import com.bintobloom.repository.UserRepository;
 import com.bintobloom.repository.EcoRewardRepository;
-import com.bintobloom.repository.HouseholdDetailsRepository;
 import com.bintobloom.repository.WasteLogRepository;
 import com.bintobloom.security.UserPrincipal;
+import com.bintobloom.service.PickupService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -28,6 +27,9 @@ import java.util.Map;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class HouseholdController {
 
+    @Autowired
+    private PickupService pickupService;
+
     @Autowired
     private PickupRequestRepository pickupRequestRepository;
 
@@ -37,9 +39,6 @@ public class HouseholdController {
     @Autowired
     private EcoRewardRepository ecoRewardRepository;
 
-    @Autowired
-    private HouseholdDetailsRepository householdDetailsRepository;
-
     @PostMapping("/pickup")
     public ResponseEntity<?> createPickupRequest(@AuthenticationPrincipal UserPrincipal userPrincipal,
             @RequestBody Map<String, Object> request) {
@@ -129,11 +128,12 @@ public class HouseholdController {
     }
 
     @GetMapping("/pickups")
-    public ResponseEntity<?> getMyPickups(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+    public ResponseEntity<?> getMyPickups(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
         try {
-            List<PickupRequest> pickups = pickupRequestRepository
-                    .findByUserUserIdOrderByCreatedAtDesc(userPrincipal.getId());
-            return ResponseEntity.ok(pickups);
+            return pickupService.getUserFeed(userPrincipal.getId(), cursor, size).toResponse();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.ok(List.of());
         }
@@ -145,40 +145,17 @@ public class HouseholdController {
     @GetMapping("/eco-points")
     public ResponseEntity<?> getEcoPoints(@AuthenticationPrincipal UserPrincipal userPrincipal) {
         try {
-            System.out.println("Getting eco points for user: " + userPrincipal.getId());
-            List<EcoReward> rewards = ecoRewardRepository.findByUserUserIdOrderByEarnedAtDesc(userPrincipal.getId());
-
-            // Calculate total points dynamically
-            int totalPoints = rewards.stream()
-                    .mapToInt(reward -> reward.getPointsEarned() != null ? reward.getPointsEarned() : 0).sum();
-
-            // Calculate total waste dynamically
-            List<com.bintobloom.entity.WasteLog> userLogs = wasteLogRepository.findByUserId(userPrincipal.getId());
-            BigDecimal totalWaste = userLogs.stream()
-                    .map(com.bintobloom.entity.WasteLog::getWeightKg)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            // SELF-HEALING: Update stored details to fix Leaderboard
-            householdDetailsRepository.findByUserUserId(userPrincipal.getId()).ifPresent(details -> {
-                boolean needsUpdate = false;
-                if (details.getTotalWasteKg().compareTo(totalWaste) != 0) {
-                    details.setTotalWasteKg(totalWaste);
-                    needsUpdate = true;
-                }
-                if (details.getEcoPoints() != totalPoints) {
-                    details.setEcoPoints(totalPoints);
-                    needsUpdate = true;
-                }
-                if (needsUpdate) {
-                    householdDetailsRepository.save(details);
-                    System.out.println("Self-healed household details for user " + userPrincipal.getId());
-                }
-            });
+            // Totals are aggregated in the database so the cost does not grow with the user's history
+            long totalPoints = ecoRewardRepository.getTotalPointsByUserId(userPrincipal.getId());
+            BigDecimal totalWaste = wasteLogRepository.sumWeightKgByUserId(userPrincipal.getId());
+            long completedPickups = pickupRequestRepository.countByUserIdAndStatus(userPrincipal.getId(),
+                    PickupRequest.PickupStatus.COMPLETED);
 
             return ResponseEntity.ok(Map.of(
                     "totalPoints", totalPoints,
                     "totalWaste", totalWaste,
-                    "recentRewards", rewards.stream().limit(10).toList()));
+                    "completedPickups", completedPickups,
+                    "recentRewards", ecoRewardRepository.findRecentByUserId(userPrincipal.getId(), PageRequest.of(0, 10))));
         } catch (Exception e) {
             System.err.println("Error getting eco points: " + e.getMessage());
             e.printStackTrace();
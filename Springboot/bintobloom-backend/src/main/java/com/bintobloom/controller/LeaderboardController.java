@@ -1,13 +1,21 @@
 package com.bintobloom.controller;
 
-import com.bintobloom.entity.HouseholdDetails;
-import com.bintobloom.entity.BusinessDetails;
+import com.bintobloom.dto.BusinessStanding;
+import com.bintobloom.dto.HouseholdStanding;
+import com.bintobloom.entity.User;
+import com.bintobloom.security.UserPrincipal;
+import com.bintobloom.service.LeaderboardIndexService;
 import com.bintobloom.service.LeaderboardService;
+import com.bintobloom.service.LeaderboardSnapshotService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/leaderboard")
@@ -17,27 +25,92 @@ public class LeaderboardController {
     @Autowired
     private LeaderboardService leaderboardService;
     
+    @Autowired
+    private LeaderboardIndexService leaderboardIndexService;
+    
+    @Autowired
+    private LeaderboardSnapshotService leaderboardSnapshotService;
+    
     @GetMapping("/household")
-    public ResponseEntity<List<HouseholdDetails>> getHouseholdLeaderboard() {
-        List<HouseholdDetails> leaderboard = leaderboardService.getHouseholdLeaderboard();
+    public ResponseEntity<List<HouseholdStanding>> getHouseholdLeaderboard() {
+        List<HouseholdStanding> leaderboard = leaderboardService.getHouseholdLeaderboard();
         return ResponseEntity.ok(leaderboard);
     }
     
     @GetMapping("/household/city/{city}")
-    public ResponseEntity<List<HouseholdDetails>> getHouseholdLeaderboardByCity(@PathVariable String city) {
-        List<HouseholdDetails> leaderboard = leaderboardService.getHouseholdLeaderboardByCity(city);
+    public ResponseEntity<List<HouseholdStanding>> getHouseholdLeaderboardByCity(@PathVariable String city) {
+        List<HouseholdStanding> leaderboard = leaderboardService.getHouseholdLeaderboardByCity(city);
         return ResponseEntity.ok(leaderboard);
     }
     
     @GetMapping("/business")
-    public ResponseEntity<List<BusinessDetails>> getBusinessLeaderboard() {
-        List<BusinessDetails> leaderboard = leaderboardService.getBusinessLeaderboard();
+    public ResponseEntity<List<BusinessStanding>> getBusinessLeaderboard() {
+        List<BusinessStanding> leaderboard = leaderboardService.getBusinessLeaderboard();
         return ResponseEntity.ok(leaderboard);
     }
     
     @GetMapping("/business/city/{city}")
-    public ResponseEntity<List<BusinessDetails>> getBusinessLeaderboardByCity(@PathVariable String city) {
-        List<BusinessDetails> leaderboard = leaderboardService.getBusinessLeaderboardByCity(city);
+    public ResponseEntity<List<BusinessStanding>> getBusinessLeaderboardByCity(@PathVariable String city) {
+        List<BusinessStanding> leaderboard = leaderboardService.getBusinessLeaderboardByCity(city);
         return ResponseEntity.ok(leaderboard);
     }
-}
\ No newline at end of file
+    
+    @GetMapping("/ranked/{role}")
+    public ResponseEntity<?> getRankedPage(@PathVariable User.UserRole role,
+                                           @RequestParam(required = false) String city,
+                                           @RequestParam(defaultValue = "0") int offset,
+                                           @RequestParam(defaultValue = "10") int limit) {
+        if (!LeaderboardIndexService.RANKED_ROLES.contains(role)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Leaderboard is only available for households and businesses"));
+        }
+        if (offset < 0 || limit < 1 || limit > 100) {
+            return ResponseEntity.badRequest().body(Map.of("message", "offset must be >= 0 and limit between 1 and 100"));
+        }
+        return ResponseEntity.ok(Map.of(
+                "total", leaderboardIndexService.size(role, city),
+                "offset", offset,
+                "entries", leaderboardIndexService.getPage(role, city, offset, limit)));
+    }
+    
+    @GetMapping("/ranked/{role}/users/{userId}")
+    public ResponseEntity<?> getUserRank(@PathVariable User.UserRole role, @PathVariable Long userId,
+                                         @RequestParam(required = false) String city,
+                                         @RequestParam(defaultValue = "2") int neighbours) {
+        if (!LeaderboardIndexService.RANKED_ROLES.contains(role)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Leaderboard is only available for households and businesses"));
+        }
+        Map<String, Object> rank = leaderboardIndexService.getRankWithNeighbours(role, city, userId, Math.max(0, Math.min(neighbours, 50)));
+        if (rank.isEmpty()) {
+            return ResponseEntity.status(404).body(Map.of("message", "User is not ranked on this leaderboard"));
+        }
+        return ResponseEntity.ok(rank);
+    }
+    
+    @GetMapping("/ranked/me")
+    public ResponseEntity<?> getMyRank(@AuthenticationPrincipal UserPrincipal userPrincipal,
+                                       @RequestParam(required = false) String city,
+                                       @RequestParam(defaultValue = "2") int neighbours) {
+        return getUserRank(userPrincipal.getRole(), userPrincipal.getId(), city, neighbours);
+    }
+    
+    @GetMapping("/monthly/{month}")
+    public ResponseEntity<?> getMonthlyLeaderboard(@PathVariable String month,
+                                                   @RequestParam(required = false) String city,
+                                                   @RequestParam(defaultValue = "0") int page,
+                                                   @RequestParam(defaultValue = "50") int size) {
+        YearMonth yearMonth;
+        try {
+            yearMonth = YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Month must be in YYYY-MM format"));
+        }
+        if (page < 0 || size < 1 || size > 200) {
+            return ResponseEntity.badRequest().body(Map.of("message", "page must be >= 0 and size between 1 and 200"));
+        }
+        return ResponseEntity.ok(Map.of(
+                "month", yearMonth.toString(),
+                "total", leaderboardSnapshotService.countMonth(yearMonth, city),
+                "page", page,
+                "entries", leaderboardSnapshotService.getMonth(yearMonth, city, page, size)));
+    }
+}
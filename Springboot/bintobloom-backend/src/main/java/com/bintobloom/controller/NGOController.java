@@ -1,21 +1,21 @@
 package com.bintobloom.controller;
 
-import com.bintobloom.entity.PickupRequest;
 import com.bintobloom.entity.User;
-import com.bintobloom.entity.WasteLog;
-import com.bintobloom.repository.PickupRequestRepository;
 import com.bintobloom.repository.UserRepository;
-import com.bintobloom.repository.WasteLogRepository;
 import com.bintobloom.security.UserPrincipal;
+import com.bintobloom.service.DataExportService;
+import com.bintobloom.service.WasteAnalyticsService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
-import java.util.List;
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/ngo")
@@ -26,10 +26,10 @@ public class NGOController {
     private UserRepository userRepository;
     
     @Autowired
-    private PickupRequestRepository pickupRequestRepository;
+    private WasteAnalyticsService wasteAnalyticsService;
     
     @Autowired
-    private WasteLogRepository wasteLogRepository;
+    private DataExportService dataExportService;
     
     @GetMapping("/profile")
     public ResponseEntity<?> getProfile(@AuthenticationPrincipal UserPrincipal userPrincipal) {
@@ -72,75 +72,48 @@ public class NGOController {
         }
     }
     
+    // Written on the request thread straight to the response, so no async timeout caps a large export
+    @GetMapping("/export/waste-logs")
+    public ResponseEntity<?> exportWasteLogs(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String format,
+            HttpServletResponse response) throws IOException {
+        DataExportService.Format exportFormat;
+        try {
+            exportFormat = DataExportService.Format.parse(format);
+            if (from != null && to != null && from.isAfter(to)) {
+                throw new IllegalArgumentException("from must not be after to");
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+        response.setContentType(exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"waste-logs." + exportFormat.getExtension() + "\"");
+        dataExportService.exportWasteLogs(from, to, city, exportFormat, response.getOutputStream());
+        return null;
+    }
+    
     @GetMapping("/analytics")
-    public ResponseEntity<?> getAnalytics() {
+    public ResponseEntity<?> getAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         try {
-            List<WasteLog> wasteLogs = wasteLogRepository.findAll();
-            List<PickupRequest> pickupRequests = pickupRequestRepository.findAll();
-            
-            // Calculate total waste collected
-            BigDecimal totalWaste = wasteLogs.stream()
-                .map(WasteLog::getWeightKg)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            // Calculate waste by type
-            Map<String, BigDecimal> wasteByType = wasteLogs.stream()
-                .collect(Collectors.groupingBy(
-                    log -> log.getWasteType().toString(),
-                    Collectors.reducing(BigDecimal.ZERO, WasteLog::getWeightKg, BigDecimal::add)
-                ));
-            
-            // Calculate city-wise data
-            Map<String, Long> cityWisePickups = pickupRequests.stream()
-                .filter(req -> req.getPickupStatus() == PickupRequest.PickupStatus.COMPLETED)
-                .collect(Collectors.groupingBy(
-                    req -> req.getUser().getCity(),
-                    Collectors.counting()
-                ));
-            
-            Map<String, BigDecimal> cityWiseWaste = wasteLogs.stream()
-                .collect(Collectors.groupingBy(
-                    log -> log.getPickupRequest().getUser().getCity(),
-                    Collectors.reducing(BigDecimal.ZERO, WasteLog::getWeightKg, BigDecimal::add)
-                ));
-            
-            return ResponseEntity.ok(Map.of(
-                "totalWaste", totalWaste,
-                "totalPickups", pickupRequests.size(),
-                "completedPickups", pickupRequests.stream().mapToLong(req -> req.getPickupStatus() == PickupRequest.PickupStatus.COMPLETED ? 1 : 0).sum(),
-                "wasteByType", wasteByType,
-                "cityWisePickups", cityWisePickups,
-                "cityWiseWaste", cityWiseWaste
-            ));
+            return ResponseEntity.ok(wasteAnalyticsService.getAnalytics(from, to));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("message", "Failed to fetch analytics"));
         }
     }
     
     @GetMapping("/analytics/city/{city}")
-    public ResponseEntity<?> getCityAnalytics(@PathVariable String city) {
+    public ResponseEntity<?> getCityAnalytics(@PathVariable String city,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         try {
-            List<PickupRequest> cityPickups = pickupRequestRepository.findByCityAndStatus(city, PickupRequest.PickupStatus.COMPLETED);
-            List<WasteLog> cityWasteLogs = wasteLogRepository.findByPickupRequestUserCity(city);
-            
-            BigDecimal totalWaste = cityWasteLogs.stream()
-                .map(WasteLog::getWeightKg)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            Map<String, BigDecimal> wasteByType = cityWasteLogs.stream()
-                .collect(Collectors.groupingBy(
-                    log -> log.getWasteType().toString(),
-                    Collectors.reducing(BigDecimal.ZERO, WasteLog::getWeightKg, BigDecimal::add)
-                ));
-            
-            return ResponseEntity.ok(Map.of(
-                "city", city,
-                "totalWaste", totalWaste,
-                "totalPickups", cityPickups.size(),
-                "wasteByType", wasteByType
-            ));
+            return ResponseEntity.ok(wasteAnalyticsService.getCityAnalytics(city, from, to));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("message", "Failed to fetch city analytics"));
         }
     }
-}
\ No newline at end of file
+}
@@ -3,20 +3,17 @@ package com.bintobloom.controller;
 import com.bintobloom.entity.Payment;
 import com.bintobloom.entity.User;
 import com.bintobloom.entity.PickupRequest;
-import com.bintobloom.entity.WasteLog;
-import com.bintobloom.entity.EcoReward;
+import com.bintobloom.event.PaymentChangedEvent;
 import com.bintobloom.repository.PaymentRepository;
 import com.bintobloom.repository.UserRepository;
 import com.bintobloom.repository.PickupRequestRepository;
-import com.bintobloom.repository.WasteLogRepository;
-import com.bintobloom.repository.EcoRewardRepository;
 import com.bintobloom.security.UserPrincipal;
-import com.razorpay.Order;
-import com.razorpay.RazorpayClient;
-import com.razorpay.RazorpayException;
-import org.json.JSONObject;
+import com.bintobloom.service.PaymentFulfilmentService;
+import com.bintobloom.service.PaymentGateway;
+import com.bintobloom.service.PaymentHistoryService;
+import com.bintobloom.service.PaymentGatewayClient;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -24,7 +21,7 @@ import org.springframework.web.bind.annotation.*;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/payment")
@@ -41,176 +38,151 @@ public class PaymentController {
     private PickupRequestRepository pickupRequestRepository;
 
     @Autowired
-    private WasteLogRepository wasteLogRepository;
+    private PaymentGatewayClient paymentGatewayClient;
 
     @Autowired
-    private EcoRewardRepository ecoRewardRepository;
+    private PaymentFulfilmentService paymentFulfilmentService;
 
-    @Value("${razorpay.key.id}")
-    private String razorpayKeyId;
+    @Autowired
+    private PaymentHistoryService paymentHistoryService;
 
-    @Value("${razorpay.key.secret}")
-    private String razorpayKeySecret;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
+    // Orders are created on the gateway pool; the request thread only validates and is released while it waits
     @PostMapping("/create-order")
-    public ResponseEntity<?> createOrder(@RequestBody Map<String, Object> data,
+    public CompletableFuture<ResponseEntity<?>> createOrder(@RequestBody Map<String, Object> data,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        if (userPrincipal == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(401).body("User not authenticated"));
+        }
+
+        int amount;
         try {
-            System.out.println("Payment create-order called by user: "
-                    + (userPrincipal != null ? userPrincipal.getEmail() : "null"));
-            System.out.println("User role: " + (userPrincipal != null ? userPrincipal.getRole() : "null"));
-
-            if (userPrincipal == null) {
-                return ResponseEntity.status(401).body("User not authenticated");
-            }
-
-            RazorpayClient razorpay = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
-
-            JSONObject orderRequest = new JSONObject();
-            orderRequest.put("amount", Integer.parseInt(data.get("amount").toString()) * 100); // amount in paise
-            orderRequest.put("currency", "INR");
-            orderRequest.put("receipt", "order_" + System.currentTimeMillis());
-
-            Order order = razorpay.orders.create(orderRequest);
-
-            // Save payment record
-            User user = userRepository.findById(userPrincipal.getId()).orElse(null);
-            if (user != null) {
-                Payment payment = new Payment();
-                payment.setUser(user);
-                payment.setBusinessId(user.getUserId()); // Set business_id to user_id
-                payment.setAmount(Double.parseDouble(data.get("amount").toString()));
-                payment.setRazorpayOrderId(order.get("id"));
-                payment.setStatus(Payment.PaymentStatus.PENDING);
-                paymentRepository.save(payment);
-            }
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("orderId", order.get("id"));
-            response.put("amount", order.get("amount"));
-            response.put("currency", order.get("currency"));
-            response.put("keyId", razorpayKeyId);
-
-            return ResponseEntity.ok(response);
-        } catch (RazorpayException e) {
-            return ResponseEntity.badRequest().body("Error creating order: " + e.getMessage());
+            amount = Integer.parseInt(String.valueOf(data.get("amount")));
+        } catch (NumberFormatException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(
+                    Map.of("message", "Amount must be a whole number of rupees")));
+        }
+        if (amount <= 0) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(
+                    Map.of("message", "Amount must be positive")));
         }
+        User user = userRepository.findById(userPrincipal.getId()).orElse(null);
+
+        return paymentGatewayClient.createOrder(amount * 100L, "INR", "order_" + System.currentTimeMillis())
+                .<ResponseEntity<?>>thenApply(order -> {
+                    // Save payment record
+                    if (user != null) {
+                        Payment payment = new Payment();
+                        payment.setUser(user);
+                        payment.setBusinessId(user.getUserId()); // Set business_id to user_id
+                        payment.setAmount((double) amount);
+                        payment.setRazorpayOrderId(order.id());
+                        payment.setOrderCreatedAt(LocalDateTime.now());
+                        payment.setStatus(Payment.PaymentStatus.PENDING);
+                        paymentRepository.save(payment);
+                    }
+                    return ResponseEntity.ok(orderResponse(order));
+                })
+                .exceptionally(this::gatewayError);
     }
 
     @PostMapping("/pay-bill/{pickupId}")
-    public ResponseEntity<?> payBill(@PathVariable Long pickupId,
+    public CompletableFuture<ResponseEntity<?>> payBill(@PathVariable Long pickupId,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        try {
-            PickupRequest request = pickupRequestRepository.findById(pickupId)
-                    .orElseThrow(() -> new RuntimeException("Request not found"));
-
-            Payment payment = paymentRepository.findByPickupRequest(request);
-            if (payment == null) {
-                return ResponseEntity.badRequest().body("No bill generated for this request");
-            }
-
-            if (payment.getStatus() == Payment.PaymentStatus.COMPLETED) {
-                return ResponseEntity.badRequest().body("Bill already paid");
-            }
-
-            RazorpayClient razorpay = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
+        PickupRequest request = pickupRequestRepository.findById(pickupId).orElse(null);
+        if (request == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Error creating order: Request not found"));
+        }
 
-            JSONObject orderRequest = new JSONObject();
-            orderRequest.put("amount", (int) (payment.getAmount() * 100)); // amount in paise
-            orderRequest.put("currency", "INR");
-            orderRequest.put("receipt", "pickup_" + pickupId + "_" + System.currentTimeMillis());
+        Payment payment = paymentRepository.findByPickupRequest(request);
+        if (payment == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("No bill generated for this request"));
+        }
 
-            Order order = razorpay.orders.create(orderRequest);
+        if (payment.getStatus() == Payment.PaymentStatus.COMPLETED) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Bill already paid"));
+        }
 
-            payment.setRazorpayOrderId(order.get("id"));
-            paymentRepository.save(payment);
+        Long paymentId = payment.getPaymentId();
+        Long payerId = payment.getUser() != null ? payment.getUser().getUserId() : null;
+        long amountPaise = Math.round(payment.getAmount() * 100);
+        return paymentGatewayClient.createOrder(amountPaise, "INR", "pickup_" + pickupId + "_" + System.currentTimeMillis())
+                .<ResponseEntity<?>>thenApply(order -> {
+                    // A bill whose earlier checkout was abandoned (FAILED) is pending again under the new order.
+                    // The row is updated in place rather than saving the copy read above, which a verify or the
+                    // reconciliation job may have moved on since.
+                    if (paymentRepository.reopenWithOrder(paymentId, order.id(), LocalDateTime.now()) == 0) {
+                        return ResponseEntity.badRequest().body("Bill already paid");
+                    }
+                    eventPublisher.publishEvent(new PaymentChangedEvent(paymentId, payerId));
+                    return ResponseEntity.ok(orderResponse(order));
+                })
+                .exceptionally(this::gatewayError);
+    }
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("orderId", order.get("id"));
-            response.put("amount", order.get("amount"));
-            response.put("currency", order.get("currency"));
-            response.put("keyId", razorpayKeyId);
+    private Map<String, Object> orderResponse(PaymentGateway.Order order) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("orderId", order.id());
+        response.put("amount", order.amount());
+        response.put("currency", order.currency());
+        response.put("keyId", paymentGatewayClient.getKeyId());
+        return response;
+    }
 
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body("Error creating order: " + e.getMessage());
+    // Refused or timed-out calls are worth retrying (503); anything else is reported as before
+    private ResponseEntity<?> gatewayError(Throwable error) {
+        Throwable cause = PaymentGatewayClient.unwrap(error);
+        if (cause instanceof PaymentGatewayClient.UnavailableException) {
+            return ResponseEntity.status(503).body(Map.of("message", cause.getMessage()));
         }
+        return ResponseEntity.badRequest().body("Error creating order: " + cause.getMessage());
     }
 
+    // Records the payment for the fulfilment workers and answers at once; a retried verify is a no-op
     @PostMapping("/verify")
     public ResponseEntity<?> verifyPayment(@RequestBody Map<String, String> data,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
         try {
             String orderId = data.get("razorpay_order_id");
-            String paymentId = data.get("razorpay_payment_id");
-            String signature = data.get("razorpay_signature");
-
-            // Update payment status
-            Payment payment = paymentRepository.findByRazorpayOrderId(orderId);
-            if (payment != null) {
-                payment.setRazorpayPaymentId(paymentId);
-                payment.setRazorpaySignature(signature);
-                payment.setStatus(Payment.PaymentStatus.COMPLETED);
-                paymentRepository.save(payment);
-
-                // Update Pickup Request Status to COMPLETED and Award Eco Points
-                if (payment.getPickupRequest() != null) {
-                    PickupRequest pickup = payment.getPickupRequest();
-                    pickup.setPickupStatus(PickupRequest.PickupStatus.COMPLETED);
-                    pickupRequestRepository.save(pickup);
-
-                    // Award eco-points based on actual weight from WasteLog
-                    Optional<WasteLog> wasteLogOpt = wasteLogRepository.findByPickupRequest(pickup);
-                    if (wasteLogOpt.isPresent()) {
-                        WasteLog wasteLog = wasteLogOpt.get();
-                        double weight = wasteLog.getWeightKg().doubleValue();
-                        int points = calculateEcoPoints(pickup.getWasteType(), weight);
-
-                        // Create eco reward
-                        EcoReward reward = new EcoReward();
-                        reward.setUser(pickup.getUser());
-                        reward.setPickupRequest(pickup);
-                        reward.setPointsEarned(points);
-                        reward.setWasteWeight(weight);
-                        reward.setRewardType(EcoReward.RewardType.PICKUP_COMPLETED);
-                        reward.setEarnedAt(LocalDateTime.now());
-                        ecoRewardRepository.save(reward);
-                    }
-                }
-            }
-
-            return ResponseEntity.ok(Map.of("message", "Payment verified successfully"));
+            String status = paymentFulfilmentService.enqueue(orderId, data.get("razorpay_payment_id"),
+                    data.get("razorpay_signature"));
+            return ResponseEntity.accepted().body(Map.of(
+                    "message", "Payment received, verification in progress",
+                    "orderId", orderId,
+                    "status", status));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Payment verification failed: " + e.getMessage());
         }
     }
 
+    @GetMapping("/verify/{orderId}")
+    public ResponseEntity<?> getVerificationStatus(@PathVariable String orderId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        String status = paymentFulfilmentService.getStatus(orderId, userPrincipal.getId());
+        if (status == null) {
+            return ResponseEntity.status(404).body(Map.of("message", "No verification found for this order"));
+        }
+        return ResponseEntity.ok(Map.of("orderId", orderId, "status", status));
+    }
+
     @GetMapping("/history")
-    public ResponseEntity<?> getPaymentHistory(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+    public ResponseEntity<?> getPaymentHistory(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
         try {
-            User user = userRepository.findById(userPrincipal.getId()).orElse(null);
-            if (user != null) {
-                return ResponseEntity.ok(paymentRepository.findByUserOrderByCreatedAtDesc(user));
-            }
-            return ResponseEntity.badRequest().body("User not found");
+            return paymentHistoryService.getHistory(userPrincipal.getId(), cursor, size).toResponse();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching payment history: " + e.getMessage());
         }
     }
 
-    private int calculateEcoPoints(PickupRequest.WasteType wasteType, double weight) {
-        double ecoFactor = switch (wasteType) {
-            case BIODEGRADABLE -> 1.0;
-            case NON_BIODEGRADABLE -> 0.5;
-            case ORGANIC_WASTE -> 1.0;
-            case RECYCLABLE_WASTE -> 1.5;
-            case E_WASTE -> 2.0;
-            case CHEMICAL_WASTE -> 2.5;
-            case HAZARDOUS_WASTE -> 3.0;
-            case CONSTRUCTION_WASTE -> 1.8;
-            case NON_RECYCLABLE_COMMERCIAL -> 0.8;
-            default -> 1.0;
-        };
-        return (int) Math.round(weight * ecoFactor);
+    @GetMapping("/summary")
+    public ResponseEntity<?> getPaymentSummary(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return ResponseEntity.ok(paymentHistoryService.getSummary(userPrincipal.getId()));
     }
-}
\ No newline at end of file
+}
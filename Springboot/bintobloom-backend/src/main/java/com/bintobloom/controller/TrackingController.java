@@ -5,10 +5,14 @@ import com.bintobloom.entity.User;
 import com.bintobloom.repository.PickupRequestRepository;
 import com.bintobloom.repository.UserRepository;
 import com.bintobloom.security.UserPrincipal;
+import com.bintobloom.service.LocationIngestionService;
+import com.bintobloom.service.TrackingStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -25,6 +29,12 @@ public class TrackingController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private LocationIngestionService locationIngestionService;
+
+    @Autowired
+    private TrackingStreamService trackingStreamService;
+
     @GetMapping("/{pickupId}")
     public ResponseEntity<?> getTrackingInfo(@PathVariable Long pickupId,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
@@ -36,10 +46,7 @@ public class TrackingController {
 
             PickupRequest pickup = pickupOptional.get();
 
-            // Only the user who requested or the collector assigned can track
-            if (!pickup.getUser().getUserId().equals(userPrincipal.getId()) &&
-                    (pickup.getCollector() == null
-                            || !pickup.getCollector().getUserId().equals(userPrincipal.getId()))) {
+            if (!canTrack(pickup, userPrincipal)) {
                 return ResponseEntity.status(403).body(Map.of("message", "Access denied"));
             }
 
@@ -52,9 +59,15 @@ public class TrackingController {
 
             if (pickup.getCollector() != null) {
                 User collector = pickup.getCollector();
-                trackingInfo.put("collectorLocation", Map.of(
-                        "lat", collector.getLatitude() != null ? collector.getLatitude() : 0,
-                        "lng", collector.getLongitude() != null ? collector.getLongitude() : 0));
+                LocationIngestionService.Position latest = locationIngestionService.getLatestPosition(collector.getUserId());
+                if (latest != null) {
+                    trackingInfo.put("collectorLocation", Map.of("lat", latest.latitude(), "lng", latest.longitude()));
+                    trackingInfo.put("collectorLocationAt", latest.recordedAt());
+                } else {
+                    trackingInfo.put("collectorLocation", Map.of(
+                            "lat", collector.getLatitude() != null ? collector.getLatitude() : 0,
+                            "lng", collector.getLongitude() != null ? collector.getLongitude() : 0));
+                }
                 trackingInfo.put("collectorName", collector.getName());
                 trackingInfo.put("collectorPhone", collector.getPhone());
             }
@@ -65,4 +78,32 @@ public class TrackingController {
                     .body(Map.of("message", "Failed to get tracking info: " + e.getMessage()));
         }
     }
+
+    /**
+     * Server-sent events carrying the same body as GET /{pickupId}: one "tracking" event immediately and one
+     * per collector movement or status change, ending when the pickup is completed or cancelled. Failures are
+     * reported by status only (404, 403, 503), since the response is typed as an event stream.
+     */
+    @GetMapping(value = "/{pickupId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTrackingInfo(@PathVariable Long pickupId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Optional<PickupRequest> pickupOptional = pickupRequestRepository.findById(pickupId);
+        if (pickupOptional.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!canTrack(pickupOptional.get(), userPrincipal)) {
+            return ResponseEntity.status(403).build();
+        }
+        try {
+            return ResponseEntity.ok(trackingStreamService.subscribe(pickupOptional.get()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).build();
+        }
+    }
+
+    // Only the user who requested or the collector assigned can track
+    private boolean canTrack(PickupRequest pickup, UserPrincipal userPrincipal) {
+        return pickup.getUser().getUserId().equals(userPrincipal.getId()) ||
+                (pickup.getCollector() != null && pickup.getCollector().getUserId().equals(userPrincipal.getId()));
+    }
 }
@@ -3,10 +3,12 @@ package com.bintobloom.controller;
 import com.bintobloom.entity.WasteLog;
 import com.bintobloom.entity.PickupRequest;
 import com.bintobloom.repository.PickupRequestRepository;
+import com.bintobloom.security.UserPrincipal;
 import com.bintobloom.service.WasteLogService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -28,13 +30,18 @@ public class WasteLogController {
     public ResponseEntity<?> createWasteLog(@RequestParam Long pickupId,
                                            @RequestParam BigDecimal weight,
                                            @RequestParam(required = false) String photoUrl,
-                                           @RequestParam(required = false) String notes) {
+                                           @RequestParam(required = false) String notes,
+                                           @AuthenticationPrincipal UserPrincipal userPrincipal) {
         try {
             PickupRequest pickupRequest = pickupRequestRepository.findById(pickupId)
                     .orElseThrow(() -> new RuntimeException("Pickup request not found"));
             
-            WasteLog wasteLog = wasteLogService.createWasteLog(pickupRequest, weight, photoUrl, notes);
+            WasteLog wasteLog = wasteLogService.createWasteLog(pickupRequest, userPrincipal.getId(), weight, photoUrl, notes);
             return ResponseEntity.ok(wasteLog);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error creating waste log: " + e.getMessage());
         }
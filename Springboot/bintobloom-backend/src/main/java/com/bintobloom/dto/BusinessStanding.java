@@ -0,0 +1,28 @@
+package com.bintobloom.dto;
+
+import com.bintobloom.entity.BusinessDetails;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+// Business leaderboard row, projected straight from business_details joined to users
+@Data
+public class BusinessStanding {
+    private Long businessId;
+    private UserSummary user;
+    private String businessType;
+    private BusinessDetails.PickupFrequency pickupFrequency;
+    private BigDecimal sustainabilityScore;
+    private BigDecimal totalWasteKg;
+    
+    public BusinessStanding(Long businessId, Long userId, String name, String email, String city, String businessType,
+                            BusinessDetails.PickupFrequency pickupFrequency, BigDecimal sustainabilityScore,
+                            BigDecimal totalWasteKg) {
+        this.businessId = businessId;
+        this.user = new UserSummary(userId, name, email, null, null, city, null);
+        this.businessType = businessType;
+        this.pickupFrequency = pickupFrequency;
+        this.sustainabilityScore = sustainabilityScore;
+        this.totalWasteKg = totalWasteKg;
+    }
+}
@@ -0,0 +1,21 @@
+package com.bintobloom.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CollectorRoute {
+    // null for the route through the day's unassigned (PENDING) pickups
+    private Long collectorId;
+    private LocalDate date;
+    private Double distanceKm;
+    private List<RouteStop> stops;
+    // Pickups on the day without coordinates, which cannot be placed on the route
+    private List<Long> unroutedPickupIds;
+    private LocalDateTime plannedAt;
+}
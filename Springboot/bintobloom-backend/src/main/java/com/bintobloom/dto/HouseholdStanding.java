@@ -0,0 +1,26 @@
+package com.bintobloom.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+// Household leaderboard row, projected straight from household_details joined to users
+@Data
+public class HouseholdStanding {
+    private Long householdId;
+    private UserSummary user;
+    private BigDecimal totalWasteKg;
+    private Integer ecoPoints;
+    private Integer leaderboardRank;
+    private Integer familySize;
+    
+    public HouseholdStanding(Long householdId, Long userId, String name, String email, String city,
+                             BigDecimal totalWasteKg, Integer ecoPoints, Integer leaderboardRank, Integer familySize) {
+        this.householdId = householdId;
+        this.user = new UserSummary(userId, name, email, null, null, city, null);
+        this.totalWasteKg = totalWasteKg;
+        this.ecoPoints = ecoPoints;
+        this.leaderboardRank = leaderboardRank;
+        this.familySize = familySize;
+    }
+}
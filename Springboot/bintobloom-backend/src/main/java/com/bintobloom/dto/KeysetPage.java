@@ -0,0 +1,29 @@
+package com.bintobloom.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated feed. The body stays a plain JSON array; the cursor for the next page,
+ * if there is one, travels in the {@value #NEXT_CURSOR_HEADER} response header.
+ */
+@Data
+@AllArgsConstructor
+public class KeysetPage<T> {
+    
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
+    private List<T> items;
+    private String nextCursor;
+    
+    public ResponseEntity<List<T>> toResponse() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.body(items);
+    }
+}
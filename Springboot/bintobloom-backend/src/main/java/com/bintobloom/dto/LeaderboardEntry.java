@@ -0,0 +1,14 @@
+package com.bintobloom.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class LeaderboardEntry {
+    private Integer rank;
+    private Long userId;
+    private String name;
+    private String city;
+    private Long points;
+}
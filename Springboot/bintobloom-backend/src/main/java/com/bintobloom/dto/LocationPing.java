@@ -0,0 +1,19 @@
+package com.bintobloom.dto;
+
+import lombok.Data;
+
+/**
+ * One collector position report. recordedAt is epoch millis on the device and defaults to the arrival time;
+ * a ping without a pickupId applies to every pickup the collector is working on.
+ */
+@Data
+public class LocationPing {
+    
+    private Double latitude;
+    
+    private Double longitude;
+    
+    private Long pickupId;
+    
+    private Long recordedAt;
+}
@@ -0,0 +1,38 @@
+package com.bintobloom.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Body of PUT /collector/location: a JSON array of pings, or a single ping object as the dashboard sends.
+ */
+@Data
+@AllArgsConstructor
+@JsonDeserialize(using = LocationPingBatch.Deserializer.class)
+public class LocationPingBatch {
+
+    private List<LocationPing> pings;
+
+    static class Deserializer extends StdDeserializer<LocationPingBatch> {
+
+        Deserializer() {
+            super(LocationPingBatch.class);
+        }
+
+        @Override
+        public LocationPingBatch deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.isExpectedStartArrayToken()) {
+                return new LocationPingBatch(context.readValue(parser,
+                        context.getTypeFactory().constructCollectionType(List.class, LocationPing.class)));
+            }
+            return new LocationPingBatch(List.of(context.readValue(parser, LocationPing.class)));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.bintobloom.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class MonthlyLeaderboardEntry {
+    private Integer rank;
+    private Long userId;
+    private String name;
+    private String city;
+    private BigDecimal totalWaste;
+}
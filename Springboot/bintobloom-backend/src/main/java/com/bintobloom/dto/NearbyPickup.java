@@ -0,0 +1,19 @@
+package com.bintobloom.dto;
+
+import com.bintobloom.entity.PickupRequest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class NearbyPickup {
+    private Long pickupId;
+    private Long userId;
+    private PickupRequest.WasteType wasteType;
+    private LocalDate scheduledDate;
+    private Double latitude;
+    private Double longitude;
+    private Double distanceKm;
+}
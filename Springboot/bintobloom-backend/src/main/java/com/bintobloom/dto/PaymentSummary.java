@@ -0,0 +1,17 @@
+package com.bintobloom.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Billing overview for one customer: what has been paid, what is still owed, and when they last paid
+@Data
+@AllArgsConstructor
+public class PaymentSummary {
+    private Double totalPaid;
+    private Long paidCount;
+    private Double totalPending;
+    private Long pendingCount;
+    private LocalDateTime lastPaidAt;
+}
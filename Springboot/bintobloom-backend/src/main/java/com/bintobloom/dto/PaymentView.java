@@ -0,0 +1,30 @@
+package com.bintobloom.dto;
+
+import com.bintobloom.entity.Payment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// A payment in a customer's history, with the pickup it paid for
+@Data
+@AllArgsConstructor
+public class PaymentView {
+    private Long paymentId;
+    private Long businessId;
+    private PickupView pickupRequest;
+    private Double amount;
+    private Payment.PaymentStatus status;
+    private String razorpayOrderId;
+    private String razorpayPaymentId;
+    private LocalDateTime paymentDate;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    
+    public static PaymentView of(Payment payment) {
+        return new PaymentView(payment.getPaymentId(), payment.getBusinessId(),
+                payment.getPickupRequest() != null ? PickupView.of(payment.getPickupRequest()) : null,
+                payment.getAmount(), payment.getStatus(), payment.getRazorpayOrderId(), payment.getRazorpayPaymentId(),
+                payment.getPaymentDate(), payment.getCreatedAt(), payment.getUpdatedAt());
+    }
+}
@@ -0,0 +1,38 @@
+package com.bintobloom.dto;
+
+import com.bintobloom.entity.PickupRequest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A pickup as listed to customers, collectors and admins. Built from a pickup loaded together with its user
+ * and collector, so serializing a list never touches a lazy association.
+ */
+@Data
+@AllArgsConstructor
+public class PickupView {
+    private Long pickupId;
+    private UserSummary user;
+    private UserSummary collector;
+    private PickupRequest.WasteType wasteType;
+    private LocalDate scheduledDate;
+    private LocalTime scheduledTime;
+    private PickupRequest.PickupStatus pickupStatus;
+    private String notes;
+    private String pickupFrequency;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+    private LocalDateTime createdAt;
+    
+    public static PickupView of(PickupRequest pickup) {
+        return new PickupView(pickup.getPickupId(), UserSummary.of(pickup.getUser()), UserSummary.of(pickup.getCollector()),
+                pickup.getWasteType(), pickup.getScheduledDate(), pickup.getScheduledTime(), pickup.getPickupStatus(),
+                pickup.getNotes(), pickup.getPickupFrequency(), pickup.getLatitude(), pickup.getLongitude(),
+                pickup.getCreatedAt());
+    }
+}
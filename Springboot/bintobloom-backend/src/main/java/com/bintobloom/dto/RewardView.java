@@ -0,0 +1,36 @@
+package com.bintobloom.dto;
+
+import com.bintobloom.entity.EcoReward;
+import com.bintobloom.entity.PickupRequest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// A recent eco-reward, projected with just the pickup fields the dashboards show
+@Data
+public class RewardView {
+    private Long rewardId;
+    private Integer pointsEarned;
+    private Double wasteWeight;
+    private LocalDateTime earnedAt;
+    private EcoReward.RewardType rewardType;
+    private PickupRef pickupRequest;
+    
+    @Data
+    @AllArgsConstructor
+    public static class PickupRef {
+        private Long pickupId;
+        private PickupRequest.WasteType wasteType;
+    }
+    
+    public RewardView(Long rewardId, Integer pointsEarned, Double wasteWeight, LocalDateTime earnedAt,
+                      EcoReward.RewardType rewardType, Long pickupId, PickupRequest.WasteType wasteType) {
+        this.rewardId = rewardId;
+        this.pointsEarned = pointsEarned;
+        this.wasteWeight = wasteWeight;
+        this.earnedAt = earnedAt;
+        this.rewardType = rewardType;
+        this.pickupRequest = pickupId != null ? new PickupRef(pickupId, wasteType) : null;
+    }
+}
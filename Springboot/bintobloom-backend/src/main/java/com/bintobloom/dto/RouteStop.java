@@ -0,0 +1,20 @@
+package com.bintobloom.dto;
+
+import com.bintobloom.entity.PickupRequest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalTime;
+
+@Data
+@AllArgsConstructor
+public class RouteStop {
+    private Integer sequence;
+    private Long pickupId;
+    private PickupRequest.PickupStatus pickupStatus;
+    private PickupRequest.WasteType wasteType;
+    private LocalTime scheduledTime;
+    private Double latitude;
+    private Double longitude;
+    private Double legKm;
+}
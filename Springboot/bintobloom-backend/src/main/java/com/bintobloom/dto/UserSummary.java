@@ -0,0 +1,28 @@
+package com.bintobloom.dto;
+
+import com.bintobloom.entity.User;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The part of a user shown next to pickups and on leaderboards. Fields a view does not select are left out of
+ * the JSON.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserSummary {
+    private Long userId;
+    private String name;
+    private String email;
+    private String phone;
+    private String address;
+    private String city;
+    private User.UserRole role;
+    
+    public static UserSummary of(User user) {
+        return user == null ? null : new UserSummary(user.getUserId(), user.getName(), user.getEmail(),
+                user.getPhone(), user.getAddress(), user.getCity(), user.getRole());
+    }
+}
@@ -0,0 +1,61 @@
+package com.bintobloom.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One eco-point multiplier. BASE rules give the points per kg of a waste type, optionally for one city only;
+ * BONUS rules (campaigns) multiply on top of the base for their waste type (or all types when none is given),
+ * city (or everywhere) and time window (open-ended when a bound is missing).
+ */
+@Entity
+@Table(name = "eco_point_rules")
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EcoPointRule {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rule_id")
+    private Long ruleId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rule_type", nullable = false, length = 10)
+    private RuleType ruleType;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "waste_type", length = 50)
+    private PickupRequest.WasteType wasteType;
+    
+    @Column(length = 50)
+    private String city;
+    
+    @Column(nullable = false, precision = 6, scale = 3)
+    private BigDecimal multiplier;
+    
+    @Column(name = "valid_from")
+    private LocalDateTime validFrom;
+    
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+    
+    @Column(length = 200)
+    private String description;
+    
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    public enum RuleType {
+        BASE, BONUS
+    }
+}
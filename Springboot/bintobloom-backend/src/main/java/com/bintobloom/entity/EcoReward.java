@@ -1,5 +1,6 @@
 package com.bintobloom.entity;
 
+import com.bintobloom.event.EcoRewardListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,11 +11,13 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "eco_rewards")
+@Table(name = "eco_rewards", indexes = {
+    @Index(name = "idx_eco_rewards_user_earned", columnList = "user_id, earned_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, EcoRewardListener.class})
 public class EcoReward {
     
     @Id
@@ -8,7 +8,9 @@ import lombok.AllArgsConstructor;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "leaderboard")
+@Table(name = "leaderboard", indexes = {
+    @Index(name = "idx_leaderboard_month_city_rank", columnList = "month, city, rank_position")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,6 +28,10 @@ public class Leaderboard {
     @Column(nullable = false, length = 7)
     private String month; // Format: YYYY-MM
     
+    // Null for the global ranking, otherwise the city this ranking is scoped to
+    @Column(length = 50)
+    private String city;
+    
     @Column(name = "total_waste", precision = 10, scale = 2)
     private BigDecimal totalWaste;
     
@@ -1,5 +1,6 @@
 package com.bintobloom.entity;
 
+import com.bintobloom.event.PaymentListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,10 +9,14 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+    @Index(name = "idx_payments_status", columnList = "status, payment_id"),
+    @Index(name = "idx_payments_user_history", columnList = "user_id, created_at, payment_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@EntityListeners(PaymentListener.class)
 public class Payment {
     
     @Id
@@ -26,7 +31,7 @@ public class Payment {
     @Column(name = "business_id", nullable = true)
     private Long businessId;
     
-    @OneToOne(fetch = FetchType.EAGER)
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "pickup_id", nullable = true)
     private PickupRequest pickupRequest;
     
@@ -40,6 +45,10 @@ public class Payment {
     @Column(name = "razorpay_order_id")
     private String razorpayOrderId;
     
+    // When the current Razorpay order was created; pay-bill replaces the order on an older payment
+    @Column(name = "order_created_at")
+    private LocalDateTime orderCreatedAt;
+    
     @Column(name = "razorpay_payment_id")
     private String razorpayPaymentId;
     
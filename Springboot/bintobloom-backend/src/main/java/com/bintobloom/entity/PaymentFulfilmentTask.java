@@ -0,0 +1,67 @@
+package com.bintobloom.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A verified Razorpay payment waiting to be applied (transactional outbox). One row per order, so a retried
+ * verify finds the existing task instead of applying the payment again. Workers claim PENDING rows by setting
+ * claim_token and claimed_until; a claim that outlives claimed_until is free to be taken again.
+ */
+@Entity
+@Table(name = "payment_fulfilment_tasks",
+       uniqueConstraints = @UniqueConstraint(name = "uk_fulfilment_order", columnNames = "razorpay_order_id"),
+       indexes = @Index(name = "idx_fulfilment_status", columnList = "status, task_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentFulfilmentTask {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(name = "razorpay_order_id", nullable = false, length = 100)
+    private String razorpayOrderId;
+
+    @Column(name = "payment_id", nullable = false)
+    private Long paymentId;
+
+    @Column(name = "razorpay_payment_id")
+    private String razorpayPaymentId;
+
+    @Column(name = "razorpay_signature")
+    private String razorpaySignature;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    // Also holds back a failed task until its next attempt
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    public enum Status {
+        PENDING, DONE, FAILED
+    }
+}
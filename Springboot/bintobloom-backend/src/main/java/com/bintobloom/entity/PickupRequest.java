@@ -1,5 +1,7 @@
 package com.bintobloom.entity;
 
+import com.bintobloom.event.PickupRequestListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
@@ -12,10 +14,18 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "pickup_requests")
+@Table(name = "pickup_requests",
+       uniqueConstraints = @UniqueConstraint(name = "uk_pickup_schedule_date", columnNames = {"schedule_id", "scheduled_date"}),
+       indexes = {
+    @Index(name = "idx_pickup_user_feed", columnList = "user_id, created_at, pickup_id"),
+    @Index(name = "idx_pickup_collector_feed", columnList = "collector_id, created_at, pickup_id"),
+    @Index(name = "idx_pickup_status_feed", columnList = "pickup_status, created_at, pickup_id"),
+    @Index(name = "idx_pickup_created", columnList = "created_at, pickup_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@EntityListeners(PickupRequestListener.class)
 public class PickupRequest {
     
     @Id
@@ -57,15 +67,29 @@ public class PickupRequest {
     @Column(name = "pickup_frequency", length = 20)
     private String pickupFrequency;
 
+    // Set on occurrences materialised from a PickupSchedule
+    @Column(name = "schedule_id")
+    private Long scheduleId;
+
     @Column(precision = 10, scale = 8)
     private java.math.BigDecimal latitude;
 
     @Column(precision = 11, scale = 8)
     private java.math.BigDecimal longitude;
+
+    // Run id written by AssignmentEngineService with each assignment, so it can tell its own writes apart
+    @JsonIgnore
+    @Column(name = "assignment_token", length = 36)
+    private String assignmentToken;
     
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
+    // Status as last loaded from or written to the database, used to detect transitions
+    @Transient
+    @JsonIgnore
+    private PickupStatus persistedStatus;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
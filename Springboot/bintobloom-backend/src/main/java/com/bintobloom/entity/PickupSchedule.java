@@ -0,0 +1,77 @@
+package com.bintobloom.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A recurring pickup. Occurrences are not stored up front: a job creates the pickups falling inside a rolling
+ * window and advances materialized_through, so an open-ended schedule never holds more than a window's worth of
+ * future rows. Occurrences fall on start_date plus a whole number of days, weeks or months.
+ */
+@Entity
+@Table(name = "pickup_schedules", indexes = {
+    @Index(name = "idx_schedule_user", columnList = "user_id, schedule_id"),
+    @Index(name = "idx_schedule_due", columnList = "active, materialized_through, schedule_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PickupSchedule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "schedule_id")
+    private Long scheduleId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "waste_type", nullable = false, length = 50)
+    private PickupRequest.WasteType wasteType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private BusinessDetails.PickupFrequency frequency;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    // Inclusive; null for a schedule that runs until cancelled
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @Column(name = "scheduled_time", nullable = false)
+    private LocalTime scheduledTime;
+
+    @Column(length = 500)
+    private String notes;
+
+    @Column(precision = 10, scale = 8)
+    private BigDecimal latitude;
+
+    @Column(precision = 11, scale = 8)
+    private BigDecimal longitude;
+
+    @Column(nullable = false)
+    private Boolean active = true;
+
+    // Last date occurrences have been created for; the day before start_date until the first run
+    @Column(name = "materialized_through", nullable = false)
+    private LocalDate materializedThrough;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -1,5 +1,6 @@
 package com.bintobloom.entity;
 
+import com.bintobloom.event.UserListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.Data;
@@ -16,7 +17,7 @@ import java.math.BigDecimal;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, UserListener.class})
 public class User {
     
     @Id
@@ -0,0 +1,43 @@
+package com.bintobloom.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "waste_daily_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_rollup_day_city_type",
+                                             columnNames = {"rollup_date", "city", "waste_type"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WasteDailyRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rollup_id")
+    private Long rollupId;
+    
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+    
+    @Column(nullable = false, length = 50)
+    private String city;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "waste_type", nullable = false, length = 50)
+    private PickupRequest.WasteType wasteType;
+    
+    @Column(name = "weight_kg", nullable = false, precision = 14, scale = 2)
+    private BigDecimal weightKg = BigDecimal.ZERO;
+    
+    @Column(name = "waste_log_count", nullable = false)
+    private Long wasteLogCount = 0L;
+    
+    @Column(name = "completed_pickups", nullable = false)
+    private Long completedPickups = 0L;
+}
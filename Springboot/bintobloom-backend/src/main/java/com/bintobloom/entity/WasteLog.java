@@ -1,5 +1,6 @@
 package com.bintobloom.entity;
 
+import com.bintobloom.event.WasteLogListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.Data;
@@ -12,11 +13,13 @@ import java.time.LocalDateTime;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "waste_logs")
+@Table(name = "waste_logs", indexes = {
+    @Index(name = "idx_waste_logs_collected", columnList = "collected_at, log_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, WasteLogListener.class})
 public class WasteLog {
     
     @Id
@@ -0,0 +1,18 @@
+package com.bintobloom.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Latest position of a collector after a batch of location pings was accepted. Published in memory only,
+ * before the pings reach tracking_logs.
+ */
+@Data
+@AllArgsConstructor
+public class CollectorLocationEvent {
+    
+    private Long collectorId;
+    private double latitude;
+    private double longitude;
+    private long recordedAt;
+}
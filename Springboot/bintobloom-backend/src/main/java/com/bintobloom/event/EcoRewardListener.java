@@ -0,0 +1,19 @@
+package com.bintobloom.event;
+
+import com.bintobloom.entity.EcoReward;
+import jakarta.persistence.PostPersist;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+public class EcoRewardListener {
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @PostPersist
+    public void onPersist(EcoReward reward) {
+        if (reward.getUser() != null && reward.getPointsEarned() != null) {
+            eventPublisher.publishEvent(new EcoPointsAwardedEvent(reward.getUser().getUserId(), reward.getPointsEarned()));
+        }
+    }
+}
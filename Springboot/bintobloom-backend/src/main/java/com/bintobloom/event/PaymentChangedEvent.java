@@ -0,0 +1,15 @@
+package com.bintobloom.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// A payment was created, changed status or amount, or was deleted
+@Data
+@AllArgsConstructor
+public class PaymentChangedEvent {
+    
+    private Long paymentId;
+    
+    // null for payments not tied to a user
+    private Long userId;
+}
@@ -0,0 +1,26 @@
+package com.bintobloom.event;
+
+import com.bintobloom.entity.Payment;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Publishes a {@link PaymentChangedEvent} whenever a payment is saved or deleted through JPA; JDBC writers publish
+ * their own. Handlers should be {@code @TransactionalEventListener}s so they only see committed changes.
+ */
+public class PaymentListener {
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Payment payment) {
+        eventPublisher.publishEvent(new PaymentChangedEvent(payment.getPaymentId(),
+                payment.getUser() != null ? payment.getUser().getUserId() : null));
+    }
+}
@@ -0,0 +1,44 @@
+package com.bintobloom.event;
+
+import com.bintobloom.entity.PickupRequest;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Publishes a {@link PickupStatusChangedEvent} whenever a pickup is created, changes status or is deleted.
+ * Handlers should be {@code @TransactionalEventListener}s so they only see committed changes.
+ */
+public class PickupRequestListener {
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @PostLoad
+    public void onLoad(PickupRequest pickup) {
+        pickup.setPersistedStatus(pickup.getPickupStatus());
+    }
+    
+    @PostPersist
+    public void onPersist(PickupRequest pickup) {
+        eventPublisher.publishEvent(PickupStatusChangedEvent.of(pickup, null, pickup.getPickupStatus()));
+        pickup.setPersistedStatus(pickup.getPickupStatus());
+    }
+    
+    @PostUpdate
+    public void onUpdate(PickupRequest pickup) {
+        PickupRequest.PickupStatus previous = pickup.getPersistedStatus();
+        if (previous != pickup.getPickupStatus()) {
+            eventPublisher.publishEvent(PickupStatusChangedEvent.of(pickup, previous, pickup.getPickupStatus()));
+        }
+        pickup.setPersistedStatus(pickup.getPickupStatus());
+    }
+    
+    @PostRemove
+    public void onRemove(PickupRequest pickup) {
+        eventPublisher.publishEvent(PickupStatusChangedEvent.of(pickup, pickup.getPersistedStatus(), null));
+    }
+}
@@ -0,0 +1,43 @@
+package com.bintobloom.event;
+
+import com.bintobloom.entity.PickupRequest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class PickupStatusChangedEvent {
+    
+    private Long pickupId;
+    private Long userId;
+    private Long collectorId;
+    private PickupRequest.WasteType wasteType;
+    private LocalDate scheduledDate;
+    
+    // null when the pickup was just created
+    private PickupRequest.PickupStatus previousStatus;
+    
+    // null when the pickup was deleted
+    private PickupRequest.PickupStatus status;
+    
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+    
+    public static PickupStatusChangedEvent of(PickupRequest pickup, PickupRequest.PickupStatus previousStatus,
+                                              PickupRequest.PickupStatus status) {
+        return new PickupStatusChangedEvent(
+                pickup.getPickupId(),
+                pickup.getUser() != null ? pickup.getUser().getUserId() : null,
+                pickup.getCollector() != null ? pickup.getCollector().getUserId() : null,
+                pickup.getWasteType(),
+                pickup.getScheduledDate(),
+                previousStatus,
+                status,
+                pickup.getLatitude(),
+                pickup.getLongitude()
+        );
+    }
+}
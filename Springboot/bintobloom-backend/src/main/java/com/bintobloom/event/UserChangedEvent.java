@@ -0,0 +1,12 @@
+package com.bintobloom.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UserChangedEvent {
+    
+    private Long userId;
+    private String email;
+}
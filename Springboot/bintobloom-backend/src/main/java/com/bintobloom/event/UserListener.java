@@ -0,0 +1,25 @@
+package com.bintobloom.event;
+
+import com.bintobloom.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+public class UserListener {
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @PostPersist
+    public void onPersist(User user) {
+        eventPublisher.publishEvent(new UserRegisteredEvent(user.getUserId(), user.getName(), user.getRole(), user.getCity()));
+    }
+    
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUserId(), user.getEmail()));
+    }
+}
@@ -0,0 +1,15 @@
+package com.bintobloom.event;
+
+import com.bintobloom.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UserRegisteredEvent {
+    
+    private Long userId;
+    private String name;
+    private User.UserRole role;
+    private String city;
+}
@@ -0,0 +1,23 @@
+package com.bintobloom.event;
+
+import com.bintobloom.entity.WasteLog;
+import jakarta.persistence.PostPersist;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+public class WasteLogListener {
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @PostPersist
+    public void onPersist(WasteLog wasteLog) {
+        eventPublisher.publishEvent(new WasteLoggedEvent(
+                wasteLog.getLogId(),
+                wasteLog.getPickupRequest().getPickupId(),
+                wasteLog.getWasteType(),
+                wasteLog.getWeightKg(),
+                wasteLog.getCollectedAt()
+        ));
+    }
+}
@@ -0,0 +1,19 @@
+package com.bintobloom.event;
+
+import com.bintobloom.entity.PickupRequest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class WasteLoggedEvent {
+    
+    private Long logId;
+    private Long pickupId;
+    private PickupRequest.WasteType wasteType;
+    private BigDecimal weightKg;
+    private LocalDateTime collectedAt;
+}
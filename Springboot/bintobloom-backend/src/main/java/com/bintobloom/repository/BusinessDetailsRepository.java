@@ -1,5 +1,6 @@
 package com.bintobloom.repository;
 
+import com.bintobloom.dto.BusinessStanding;
 import com.bintobloom.entity.BusinessDetails;
 import com.bintobloom.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -16,9 +17,13 @@ public interface BusinessDetailsRepository extends JpaRepository<BusinessDetails
     
     Optional<BusinessDetails> findByUserUserId(Long userId);
     
-    @Query("SELECT bd FROM BusinessDetails bd ORDER BY bd.sustainabilityScore DESC")
-    List<BusinessDetails> findAllOrderBySustainabilityScoreDesc();
+    @Query("SELECT new com.bintobloom.dto.BusinessStanding(bd.businessId, u.userId, u.name, u.email, u.city, " +
+           "bd.businessType, bd.pickupFrequency, bd.sustainabilityScore, bd.totalWasteKg) " +
+           "FROM BusinessDetails bd JOIN bd.user u ORDER BY bd.sustainabilityScore DESC")
+    List<BusinessStanding> findAllOrderBySustainabilityScoreDesc();
     
-    @Query("SELECT bd FROM BusinessDetails bd WHERE bd.user.city = :city ORDER BY bd.sustainabilityScore DESC")
-    List<BusinessDetails> findByCityOrderBySustainabilityScoreDesc(String city);
+    @Query("SELECT new com.bintobloom.dto.BusinessStanding(bd.businessId, u.userId, u.name, u.email, u.city, " +
+           "bd.businessType, bd.pickupFrequency, bd.sustainabilityScore, bd.totalWasteKg) " +
+           "FROM BusinessDetails bd JOIN bd.user u WHERE u.city = :city ORDER BY bd.sustainabilityScore DESC")
+    List<BusinessStanding> findByCityOrderBySustainabilityScoreDesc(String city);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.bintobloom.repository;
+
+import com.bintobloom.entity.EcoPointRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EcoPointRuleRepository extends JpaRepository<EcoPointRule, Long> {
+}
@@ -1,7 +1,9 @@
 package com.bintobloom.repository;
 
+import com.bintobloom.dto.RewardView;
 import com.bintobloom.entity.EcoReward;
 import com.bintobloom.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -13,8 +15,14 @@ public interface EcoRewardRepository extends JpaRepository<EcoReward, Long> {
     
     List<EcoReward> findByUser(User user);
     
-    @Query("SELECT SUM(er.pointsEarned) FROM EcoReward er WHERE er.user = :user")
-    Integer getTotalPointsByUser(User user);
+    @Query("SELECT COALESCE(SUM(er.pointsEarned), 0) FROM EcoReward er WHERE er.user.userId = :userId")
+    long getTotalPointsByUserId(Long userId);
+    
+    @Query("SELECT new com.bintobloom.dto.RewardView(er.rewardId, er.pointsEarned, er.wasteWeight, er.earnedAt, " +
+           "er.rewardType, pr.pickupId, pr.wasteType) " +
+           "FROM EcoReward er LEFT JOIN er.pickupRequest pr WHERE er.user.userId = :userId " +
+           "ORDER BY er.earnedAt DESC, er.rewardId DESC")
+    List<RewardView> findRecentByUserId(Long userId, Pageable pageable);
     
     @Query("SELECT er FROM EcoReward er WHERE er.user = :user ORDER BY er.earnedAt DESC")
     List<EcoReward> findByUserOrderByEarnedAtDesc(User user);
@@ -1,5 +1,6 @@
 package com.bintobloom.repository;
 
+import com.bintobloom.dto.HouseholdStanding;
 import com.bintobloom.entity.HouseholdDetails;
 import com.bintobloom.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -16,9 +17,13 @@ public interface HouseholdDetailsRepository extends JpaRepository<HouseholdDetai
     
     Optional<HouseholdDetails> findByUserUserId(Long userId);
     
-    @Query("SELECT hd FROM HouseholdDetails hd ORDER BY hd.ecoPoints DESC")
-    List<HouseholdDetails> findAllOrderByEcoPointsDesc();
+    @Query("SELECT new com.bintobloom.dto.HouseholdStanding(hd.householdId, u.userId, u.name, u.email, u.city, " +
+           "hd.totalWasteKg, hd.ecoPoints, hd.leaderboardRank, hd.familySize) " +
+           "FROM HouseholdDetails hd JOIN hd.user u ORDER BY hd.ecoPoints DESC")
+    List<HouseholdStanding> findAllOrderByEcoPointsDesc();
     
-    @Query("SELECT hd FROM HouseholdDetails hd WHERE hd.user.city = :city ORDER BY hd.ecoPoints DESC")
-    List<HouseholdDetails> findByCityOrderByEcoPointsDesc(String city);
+    @Query("SELECT new com.bintobloom.dto.HouseholdStanding(hd.householdId, u.userId, u.name, u.email, u.city, " +
+           "hd.totalWasteKg, hd.ecoPoints, hd.leaderboardRank, hd.familySize) " +
+           "FROM HouseholdDetails hd JOIN hd.user u WHERE u.city = :city ORDER BY hd.ecoPoints DESC")
+    List<HouseholdStanding> findByCityOrderByEcoPointsDesc(String city);
 }
\ No newline at end of file
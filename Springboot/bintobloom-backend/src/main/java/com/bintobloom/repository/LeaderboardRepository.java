@@ -0,0 +1,28 @@
+package com.bintobloom.repository;
+
+import com.bintobloom.dto.MonthlyLeaderboardEntry;
+import com.bintobloom.entity.Leaderboard;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LeaderboardRepository extends JpaRepository<Leaderboard, Long> {
+    
+    @Query("SELECT new com.bintobloom.dto.MonthlyLeaderboardEntry(l.rank, u.userId, u.name, u.city, l.totalWaste) " +
+           "FROM Leaderboard l JOIN l.user u WHERE l.month = :month AND l.city IS NULL ORDER BY l.rank, u.userId")
+    List<MonthlyLeaderboardEntry> findGlobalByMonth(String month, Pageable pageable);
+    
+    @Query("SELECT new com.bintobloom.dto.MonthlyLeaderboardEntry(l.rank, u.userId, u.name, u.city, l.totalWaste) " +
+           "FROM Leaderboard l JOIN l.user u WHERE l.month = :month AND l.city = :city ORDER BY l.rank, u.userId")
+    List<MonthlyLeaderboardEntry> findByMonthAndCity(String month, String city, Pageable pageable);
+    
+    long countByMonthAndCityIsNull(String month);
+    
+    long countByMonthAndCity(String month, String city);
+    
+    boolean existsByMonth(String month);
+}
@@ -1,15 +1,57 @@
 package com.bintobloom.repository;
 
+import com.bintobloom.dto.PaymentSummary;
 import com.bintobloom.entity.Payment;
-import com.bintobloom.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
-    List<Payment> findByUserOrderByCreatedAtDesc(User user);
+    // Keyset history ordered by (createdAt DESC, paymentId DESC); the After variant continues past a cursor.
+    // Each payment is listed with its pickup and the pickup's parties, so they are fetched in the same select.
+    
+    @EntityGraph(attributePaths = {"pickupRequest", "pickupRequest.user", "pickupRequest.collector"})
+    @Query("SELECT p FROM Payment p WHERE p.user.userId = :userId ORDER BY p.createdAt DESC, p.paymentId DESC")
+    List<Payment> findUserHistory(Long userId, Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"pickupRequest", "pickupRequest.user", "pickupRequest.collector"})
+    @Query("SELECT p FROM Payment p WHERE p.user.userId = :userId " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.paymentId < :paymentId)) " +
+           "ORDER BY p.createdAt DESC, p.paymentId DESC")
+    List<Payment> findUserHistoryAfter(Long userId, LocalDateTime createdAt, Long paymentId, Pageable pageable);
+    
+    @Query("SELECT new com.bintobloom.dto.PaymentSummary(" +
+           "COALESCE(SUM(CASE WHEN p.status = :paid THEN p.amount ELSE 0.0 END), 0.0), " +
+           "COUNT(CASE WHEN p.status = :paid THEN 1 END), " +
+           "COALESCE(SUM(CASE WHEN p.status = :pending THEN p.amount ELSE 0.0 END), 0.0), " +
+           "COUNT(CASE WHEN p.status = :pending THEN 1 END), " +
+           "MAX(CASE WHEN p.status = :paid THEN COALESCE(p.updatedAt, p.paymentDate) END)) " +
+           "FROM Payment p WHERE p.user.userId = :userId")
+    PaymentSummary summarize(Long userId, Payment.PaymentStatus paid, Payment.PaymentStatus pending);
+    
+    // Points an unpaid bill at a new checkout order; returns 0 if it was paid in the meantime. Bypasses the entity
+    // listener, so callers publish the PaymentChangedEvent.
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE payments SET razorpay_order_id = :orderId, status = 'PENDING', order_created_at = :now, " +
+                   "updated_at = :now " +
+                   "WHERE payment_id = :paymentId AND status <> 'COMPLETED'", nativeQuery = true)
+    int reopenWithOrder(Long paymentId, String orderId, LocalDateTime now);
+    
     Payment findByRazorpayOrderId(String razorpayOrderId);
     Payment findByPickupRequest(com.bintobloom.entity.PickupRequest pickupRequest);
+
+    // Payments in this status whose current order was created before the given time (rows from before
+    // order_created_at existed fall back to the payment's own creation time)
+    @Query("SELECT COUNT(p) FROM Payment p WHERE p.status = :status AND p.razorpayOrderId IS NOT NULL " +
+           "AND COALESCE(p.orderCreatedAt, p.createdAt) < :before")
+    long countWithOrderByStatusOrderedBefore(Payment.PaymentStatus status, LocalDateTime before);
 }
\ No newline at end of file
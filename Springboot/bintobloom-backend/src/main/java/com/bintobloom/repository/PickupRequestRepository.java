@@ -2,12 +2,17 @@ package com.bintobloom.repository;
 
 import com.bintobloom.entity.PickupRequest;
 import com.bintobloom.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PickupRequestRepository extends JpaRepository<PickupRequest, Long> {
@@ -16,10 +21,6 @@ public interface PickupRequestRepository extends JpaRepository<PickupRequest, Lo
     
     List<PickupRequest> findByUserUserIdOrderByCreatedAtDesc(Long userId);
     
-    List<PickupRequest> findByCollectorUserIdOrderByCreatedAtDesc(Long collectorId);
-    
-    List<PickupRequest> findByPickupStatusOrderByCreatedAtDesc(PickupRequest.PickupStatus status);
-    
     List<PickupRequest> findByCollector(User collector);
     
     List<PickupRequest> findByPickupStatus(PickupRequest.PickupStatus status);
@@ -33,4 +34,57 @@ public interface PickupRequestRepository extends JpaRepository<PickupRequest, Lo
     
     @Query("SELECT pr FROM PickupRequest pr WHERE pr.user.city = :city AND pr.pickupStatus = :status")
     List<PickupRequest> findByCityAndStatus(String city, PickupRequest.PickupStatus status);
-}
\ No newline at end of file
+    
+    @Query("SELECT pr.pickupStatus, COUNT(pr) FROM PickupRequest pr GROUP BY pr.pickupStatus")
+    List<Object[]> countGroupedByStatus();
+    
+    // Dashboard totals, counted in the database so the client does not walk the paged feed
+    @Query("SELECT COUNT(pr) FROM PickupRequest pr WHERE pr.user.userId = :userId AND pr.pickupStatus = :status")
+    long countByUserIdAndStatus(Long userId, PickupRequest.PickupStatus status);
+    
+    @Query("SELECT u.city FROM PickupRequest pr JOIN pr.user u WHERE pr.pickupId = :pickupId")
+    Optional<String> findCityByPickupId(Long pickupId);
+    
+    // Compare-and-set on the status: returns 0 when someone else got there first. Bypasses the entity listener.
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE pickup_requests SET collector_id = :collectorId, pickup_status = 'ASSIGNED' " +
+                   "WHERE pickup_id = :pickupId AND pickup_status = 'PENDING'", nativeQuery = true)
+    int assignIfPending(Long pickupId, Long collectorId);
+    
+    // Keyset feeds ordered by (createdAt DESC, pickupId DESC); the *After variants continue past a cursor.
+    // Feeds are listed with their user and collector, so both are fetched in the same select.
+    
+    @EntityGraph(attributePaths = {"user", "collector"})
+    @Query("SELECT pr FROM PickupRequest pr WHERE pr.user.userId = :userId ORDER BY pr.createdAt DESC, pr.pickupId DESC")
+    List<PickupRequest> findUserFeed(Long userId, Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"user", "collector"})
+    @Query("SELECT pr FROM PickupRequest pr WHERE pr.user.userId = :userId " +
+           "AND (pr.createdAt < :createdAt OR (pr.createdAt = :createdAt AND pr.pickupId < :pickupId)) " +
+           "ORDER BY pr.createdAt DESC, pr.pickupId DESC")
+    List<PickupRequest> findUserFeedAfter(Long userId, LocalDateTime createdAt, Long pickupId, Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"user", "collector"})
+    @Query("SELECT pr FROM PickupRequest pr WHERE pr.collector.userId = :collectorId ORDER BY pr.createdAt DESC, pr.pickupId DESC")
+    List<PickupRequest> findCollectorFeed(Long collectorId, Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"user", "collector"})
+    @Query("SELECT pr FROM PickupRequest pr WHERE pr.collector.userId = :collectorId " +
+           "AND (pr.createdAt < :createdAt OR (pr.createdAt = :createdAt AND pr.pickupId < :pickupId)) " +
+           "ORDER BY pr.createdAt DESC, pr.pickupId DESC")
+    List<PickupRequest> findCollectorFeedAfter(Long collectorId, LocalDateTime createdAt, Long pickupId, Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"user", "collector"})
+    @Query("SELECT pr FROM PickupRequest pr WHERE pr.pickupStatus = :status ORDER BY pr.createdAt DESC, pr.pickupId DESC")
+    List<PickupRequest> findStatusFeed(PickupRequest.PickupStatus status, Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"user", "collector"})
+    @Query("SELECT pr FROM PickupRequest pr WHERE pr.pickupStatus = :status " +
+           "AND (pr.createdAt < :createdAt OR (pr.createdAt = :createdAt AND pr.pickupId < :pickupId)) " +
+           "ORDER BY pr.createdAt DESC, pr.pickupId DESC")
+    List<PickupRequest> findStatusFeedAfter(PickupRequest.PickupStatus status, LocalDateTime createdAt, Long pickupId, Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"user", "collector"})
+    @Query("SELECT pr FROM PickupRequest pr ORDER BY pr.createdAt DESC, pr.pickupId DESC")
+    List<PickupRequest> findAllWithParties();
+}
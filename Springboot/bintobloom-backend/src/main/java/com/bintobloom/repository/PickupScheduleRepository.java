@@ -0,0 +1,16 @@
+package com.bintobloom.repository;
+
+import com.bintobloom.entity.PickupSchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PickupScheduleRepository extends JpaRepository<PickupSchedule, Long> {
+
+    List<PickupSchedule> findByUserIdOrderByScheduleIdDesc(Long userId);
+
+    Optional<PickupSchedule> findByScheduleIdAndUserId(Long scheduleId, Long userId);
+}
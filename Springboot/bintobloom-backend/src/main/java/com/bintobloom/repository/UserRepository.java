@@ -23,4 +23,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT u FROM User u WHERE u.role = :role AND u.status = :status")
     List<User> findByRoleAndStatus(User.UserRole role, User.UserStatus status);
+    
+    @Query("SELECT u.role, COUNT(u) FROM User u GROUP BY u.role")
+    List<Object[]> countGroupedByRole();
+    
+    @Query("SELECT u.city FROM User u WHERE u.userId = :userId")
+    Optional<String> findCityByUserId(Long userId);
 }
\ No newline at end of file
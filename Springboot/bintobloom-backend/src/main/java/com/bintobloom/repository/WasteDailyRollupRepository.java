@@ -0,0 +1,21 @@
+package com.bintobloom.repository;
+
+import com.bintobloom.entity.WasteDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface WasteDailyRollupRepository extends JpaRepository<WasteDailyRollup, Long> {
+    
+    @Query("SELECT r.city, r.wasteType, SUM(r.weightKg), SUM(r.wasteLogCount), SUM(r.completedPickups) " +
+           "FROM WasteDailyRollup r WHERE r.rollupDate BETWEEN :from AND :to GROUP BY r.city, r.wasteType")
+    List<Object[]> summarizeBetween(LocalDate from, LocalDate to);
+    
+    @Query("SELECT r.city, r.wasteType, SUM(r.weightKg), SUM(r.wasteLogCount), SUM(r.completedPickups) " +
+           "FROM WasteDailyRollup r WHERE r.city = :city AND r.rollupDate BETWEEN :from AND :to GROUP BY r.city, r.wasteType")
+    List<Object[]> summarizeCityBetween(String city, LocalDate from, LocalDate to);
+}
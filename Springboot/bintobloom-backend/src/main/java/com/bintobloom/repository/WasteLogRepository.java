@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -23,4 +24,10 @@ public interface WasteLogRepository extends JpaRepository<WasteLog, Long> {
     
     @Query("SELECT wl FROM WasteLog wl WHERE wl.pickupRequest.user.city = :city")
     List<WasteLog> findByPickupRequestUserCity(String city);
+    
+    @Query("SELECT COALESCE(SUM(wl.weightKg), 0) FROM WasteLog wl")
+    BigDecimal sumWeightKg();
+    
+    @Query("SELECT COALESCE(SUM(wl.weightKg), 0) FROM WasteLog wl WHERE wl.pickupRequest.user.userId = :userId")
+    BigDecimal sumWeightKgByUserId(Long userId);
 }
\ No newline at end of file
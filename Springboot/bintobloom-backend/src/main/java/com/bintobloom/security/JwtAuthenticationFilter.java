@@ -1,6 +1,7 @@
 package com.bintobloom.security;
 
 import com.bintobloom.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +9,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -25,31 +25,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
     
+    @Autowired
+    private PrincipalCache principalCache;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         
         try {
             String jwt = parseJwt(request);
-            System.out.println("JWT Filter - Request: " + request.getRequestURI());
-            System.out.println("JWT Filter - Token present: " + (jwt != null));
+            Claims claims = jwt != null ? jwtUtils.parseClaims(jwt) : null;
             
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String email = jwtUtils.getEmailFromJwtToken(jwt);
-                System.out.println("JWT Filter - Email from token: " + email);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                UsernamePasswordAuthenticationToken authentication = 
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                System.out.println("JWT Filter - Authentication set successfully");
-            } else {
-                System.out.println("JWT Filter - Token validation failed or token is null");
+            if (claims != null) {
+                // Status, role and name come from the user row (through the cache), never from the token
+                UserPrincipal userDetails = principalCache.get(claims.getSubject(),
+                        subject -> (UserPrincipal) userDetailsService.loadUserByUsername(subject));
+                Number tokenUserId = claims.get(JwtUtils.CLAIM_USER_ID, Number.class);
+                // Suspended users are refused like at login; a token whose email now belongs to a different
+                // account than the one it was issued to is ignored. Either way the request goes on unauthenticated.
+                if (userDetails.isEnabled()
+                        && (tokenUserId == null || tokenUserId.longValue() == userDetails.getId())) {
+                    UsernamePasswordAuthenticationToken authentication = 
+                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
-            System.err.println("JWT Filter - Cannot set user authentication: " + e.getMessage());
             logger.error("Cannot set user authentication: {}", e);
         }
         
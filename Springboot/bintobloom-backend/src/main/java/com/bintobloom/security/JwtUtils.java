@@ -11,41 +11,46 @@ import java.util.Date;
 
 @Component
 public class JwtUtils {
-    
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
-    
-    @Value("${app.jwt.expiration}")
-    private int jwtExpirationMs;
-    
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_NAME = "name";
+
+    private final int jwtExpirationMs;
+
+    // The key and parser are immutable and thread-safe, so they are derived once rather than per token
+    private final Key signingKey;
+    private final JwtParser parser;
+
+    public JwtUtils(@Value("${app.jwt.secret}") String jwtSecret,
+                    @Value("${app.jwt.expiration}") int jwtExpirationMs) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
-    
+
     public String generateJwtToken(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-        
+
         return Jwts.builder()
                 .setSubject(userPrincipal.getEmail())
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_ROLE, userPrincipal.getRole().name())
+                .claim(CLAIM_NAME, userPrincipal.getName())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
-    
-    public String getEmailFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
-    }
-    
-    public boolean validateJwtToken(String authToken) {
+
+    /**
+     * Verifies the token's signature and expiry in a single parse.
+     *
+     * @return the token's claims, or null if the token is not valid
+     */
+    public Claims parseClaims(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(authToken);
-            return true;
+            return parser.parseClaimsJws(authToken).getBody();
         } catch (MalformedJwtException e) {
             System.err.println("Invalid JWT token: " + e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -55,6 +60,6 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             System.err.println("JWT claims string is empty: " + e.getMessage());
         }
-        return false;
+        return null;
     }
-}
\ No newline at end of file
+}
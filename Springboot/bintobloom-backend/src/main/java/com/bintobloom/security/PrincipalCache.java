@@ -0,0 +1,111 @@
+package com.bintobloom.security;
+
+import com.bintobloom.event.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded, time-limited cache of authenticated principals keyed by JWT subject (email), so requests do not
+ * need a users lookup each. Every request's status, role and name come from here rather than from the token.
+ * Entries are evicted once a change to the user commits, and otherwise expire after the TTL, which bounds
+ * how long writes that bypass the entity listener take to be seen.
+ *
+ * <p>Each slot carries a version that eviction bumps, and eviction leaves a marker for one TTL; a principal
+ * loaded before an eviction is not stored over it, so a login racing a status change cannot pin the old row.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final class Entry {
+        final UserPrincipal principal;
+        final long expiresAt;
+        final long version;
+
+        Entry(UserPrincipal principal, long expiresAt, long version) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+            this.version = version;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Value("${app.security.principal-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    public UserPrincipal get(String email, Function<String, UserPrincipal> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(email);
+        if (entry != null && entry.principal != null && entry.expiresAt > now) {
+            hits.increment();
+            return entry.principal;
+        }
+        misses.increment();
+        long version = entry != null ? entry.version : 0;
+        UserPrincipal principal = loader.apply(email);
+        if (entries.size() >= maxSize) {
+            makeRoom(now);
+        }
+        entries.compute(email, (key, current) -> (current != null ? current.version : 0) == version
+                ? new Entry(principal, now + ttlMs, version) : current);
+        return principal;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getEmail() != null) {
+            remove(event.getEmail());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxSize", maxSize);
+        stats.put("ttlMs", ttlMs);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRate", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        return stats;
+    }
+
+    private void remove(String email) {
+        Entry previous = entries.get(email);
+        long until = System.currentTimeMillis() + ttlMs;
+        entries.compute(email, (key, current) -> new Entry(null, until, current != null ? current.version + 1 : 1));
+        if (previous != null && previous.principal != null) {
+            evictions.increment();
+        }
+    }
+
+    // Drops expired entries and eviction markers older than a TTL first, then arbitrary ones until there is
+    // space for one more
+    private void makeRoom(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.bintobloom.service;
+
+import com.bintobloom.entity.PickupRequest;
+import com.bintobloom.entity.User;
+import com.bintobloom.event.PickupStatusChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Periodically assigns the PENDING backlog to active collectors in one pass. Collectors are placed at their
+ * latest tracked position (else their stored location) and may hold up to {@code app.assignment.collector-capacity}
+ * open pickups, counting ones they already have; {@link AssignmentSolver} matches pickups to nearby collectors
+ * and all assignments are written in one transaction with batched conditional updates, so a pickup a
+ * collector accepted in the meantime is left alone. Each run stamps its rows with a fresh assignment token, which
+ * is how rows the driver reports without a count are matched to this run rather than to a concurrent accept.
+ */
+@Service
+public class AssignmentEngineService {
+
+    private static final class Pending {
+        final long pickupId;
+        final Long userId;
+        final PickupRequest.WasteType wasteType;
+        final LocalDate scheduledDate;
+        final BigDecimal latitude;
+        final BigDecimal longitude;
+
+        Pending(long pickupId, Long userId, PickupRequest.WasteType wasteType, LocalDate scheduledDate,
+                BigDecimal latitude, BigDecimal longitude) {
+            this.pickupId = pickupId;
+            this.userId = userId;
+            this.wasteType = wasteType;
+            this.scheduledDate = scheduledDate;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+
+    private static final String ASSIGN_SQL =
+            "UPDATE pickup_requests SET collector_id = ?, pickup_status = 'ASSIGNED', assignment_token = ? " +
+            "WHERE pickup_id = ? AND pickup_status = 'PENDING' AND collector_id IS NULL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private LocationIngestionService locationIngestionService;
+
+    @Value("${app.assignment.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.assignment.collector-capacity:20}")
+    private int capacity;
+
+    @Value("${app.assignment.max-distance-km:15}")
+    private double maxDistanceKm;
+
+    @Value("${app.assignment.candidates:8}")
+    private int candidates;
+
+    @Value("${app.assignment.balance-weight-km:1.0}")
+    private double balanceWeightKm;
+
+    @Value("${app.assignment.batch-size:500}")
+    private int batchSize;
+
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    @Scheduled(initialDelayString = "${app.assignment.interval-ms:60000}", fixedDelayString = "${app.assignment.interval-ms:60000}")
+    public void runScheduled() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    /**
+     * Assigns as much of the PENDING backlog as collector capacity and distance allow.
+     *
+     * @return statistics for this run
+     */
+    public synchronized Map<String, Object> run() {
+        long started = System.nanoTime();
+
+        List<Pending> pending = new ArrayList<>();
+        int[] unlocated = new int[1];
+        jdbcTemplate.query(
+                "SELECT pickup_id, user_id, waste_type, scheduled_date, latitude, longitude " +
+                "FROM pickup_requests WHERE pickup_status = 'PENDING' AND collector_id IS NULL",
+                rs -> {
+                    BigDecimal latitude = rs.getBigDecimal(5);
+                    BigDecimal longitude = rs.getBigDecimal(6);
+                    if (latitude == null || longitude == null) {
+                        unlocated[0]++;
+                        return;
+                    }
+                    Date scheduledDate = rs.getDate(4);
+                    pending.add(new Pending(rs.getLong(1), rs.getObject(2, Long.class),
+                            PickupRequest.WasteType.valueOf(rs.getString(3)),
+                            scheduledDate != null ? scheduledDate.toLocalDate() : null, latitude, longitude));
+                });
+
+        List<Long> collectorIds = new ArrayList<>();
+        List<double[]> collectorPositions = new ArrayList<>();
+        for (User collector : userService.findActiveCollectors()) {
+            LocationIngestionService.Position latest = locationIngestionService.getLatestPosition(collector.getUserId());
+            if (latest != null) {
+                collectorPositions.add(new double[] {latest.latitude(), latest.longitude()});
+            } else if (collector.getLatitude() != null && collector.getLongitude() != null) {
+                collectorPositions.add(new double[] {collector.getLatitude().doubleValue(), collector.getLongitude().doubleValue()});
+            } else {
+                continue;
+            }
+            collectorIds.add(collector.getUserId());
+        }
+
+        Map<Long, Integer> openLoad = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT collector_id, COUNT(*) FROM pickup_requests " +
+                "WHERE collector_id IS NOT NULL AND pickup_status IN (" +
+                LocationIngestionService.TRACKED_STATUSES.stream().map(s -> "'" + s.name() + "'").collect(Collectors.joining(", ")) +
+                ") GROUP BY collector_id",
+                rs -> {
+                    openLoad.put(rs.getLong(1), rs.getInt(2));
+                });
+
+        double[] pickupLatitudes = new double[pending.size()];
+        double[] pickupLongitudes = new double[pending.size()];
+        for (int i = 0; i < pending.size(); i++) {
+            pickupLatitudes[i] = pending.get(i).latitude.doubleValue();
+            pickupLongitudes[i] = pending.get(i).longitude.doubleValue();
+        }
+        double[] collectorLatitudes = new double[collectorIds.size()];
+        double[] collectorLongitudes = new double[collectorIds.size()];
+        int[] load = new int[collectorIds.size()];
+        for (int c = 0; c < collectorIds.size(); c++) {
+            collectorLatitudes[c] = collectorPositions.get(c)[0];
+            collectorLongitudes[c] = collectorPositions.get(c)[1];
+            load[c] = openLoad.getOrDefault(collectorIds.get(c), 0);
+        }
+        int[] assignment = AssignmentSolver.solve(pickupLatitudes, pickupLongitudes, collectorLatitudes,
+                collectorLongitudes, load, capacity, maxDistanceKm, candidates, balanceWeightKm);
+        long solvedAt = System.nanoTime();
+
+        List<Integer> chosen = new ArrayList<>();
+        for (int p = 0; p < assignment.length; p++) {
+            if (assignment[p] >= 0) {
+                chosen.add(p);
+            }
+        }
+        String token = UUID.randomUUID().toString();
+        int[] applied = new int[1];
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int from = 0; from < chosen.size(); from += batchSize) {
+                List<Integer> chunk = chosen.subList(from, Math.min(chosen.size(), from + batchSize));
+                List<Object[]> rows = new ArrayList<>(chunk.size());
+                for (int p : chunk) {
+                    rows.add(new Object[] {collectorIds.get(assignment[p]), token, pending.get(p).pickupId});
+                }
+                int[] counts = jdbcTemplate.batchUpdate(ASSIGN_SQL, rows);
+                Set<Long> confirmed = confirm(chunk, pending, counts, token);
+                for (int p : chunk) {
+                    Pending pickup = pending.get(p);
+                    if (!confirmed.contains(pickup.pickupId)) {
+                        continue;
+                    }
+                    applied[0]++;
+                    // The rows were written around the entity listeners, so their events are published here
+                    eventPublisher.publishEvent(new PickupStatusChangedEvent(
+                            pickup.pickupId, pickup.userId, collectorIds.get(assignment[p]), pickup.wasteType,
+                            pickup.scheduledDate, PickupRequest.PickupStatus.PENDING, PickupRequest.PickupStatus.ASSIGNED,
+                            pickup.latitude, pickup.longitude));
+                }
+            }
+        });
+
+        int maxLoad = 0;
+        for (int c : load) {
+            maxLoad = Math.max(maxLoad, c);
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("ranAt", LocalDateTime.now());
+        stats.put("pending", pending.size() + unlocated[0]);
+        stats.put("unlocated", unlocated[0]);
+        stats.put("collectors", collectorIds.size());
+        stats.put("assigned", applied[0]);
+        stats.put("conflicts", chosen.size() - applied[0]);
+        stats.put("unassigned", pending.size() - chosen.size());
+        stats.put("maxCollectorLoad", maxLoad);
+        stats.put("solveMs", (solvedAt - started) / 1_000_000);
+        stats.put("totalMs", (System.nanoTime() - started) / 1_000_000);
+        lastRun = stats;
+        if (applied[0] > 0) {
+            System.out.println("Auto-assignment: " + applied[0] + " of " + stats.get("pending") + " pending pickups assigned");
+        }
+        return stats;
+    }
+
+    public Map<String, Object> getLastRun() {
+        return lastRun;
+    }
+
+    // Drivers that batch without per-row counts report SUCCESS_NO_INFO; those rows count only if they carry this
+    // run's token, since a collector may have accepted the same pickup in between
+    private Set<Long> confirm(List<Integer> chunk, List<Pending> pending, int[] counts, String token) {
+        Set<Long> confirmed = new HashSet<>();
+        List<Integer> unknown = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                unknown.add(chunk.get(i));
+            } else if (counts[i] > 0) {
+                confirmed.add(pending.get(chunk.get(i)).pickupId);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            jdbcTemplate.query(
+                    "SELECT pickup_id FROM pickup_requests WHERE assignment_token = ? AND pickup_id IN (" +
+                    unknown.stream().map(p -> String.valueOf(pending.get(p).pickupId)).collect(Collectors.joining(", ")) + ")",
+                    rs -> {
+                        confirmed.add(rs.getLong(1));
+                    },
+                    token);
+        }
+        return confirmed;
+    }
+}
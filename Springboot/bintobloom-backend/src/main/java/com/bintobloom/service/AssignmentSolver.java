@@ -0,0 +1,132 @@
+package com.bintobloom.service;
+
+import java.util.Arrays;
+
+/**
+ * Capacity- and distance-aware matching of pending pickups to collectors. Each pickup may go to one of its
+ * nearest collectors within the distance limit; a greedy pass over all candidate pairs, shortest first,
+ * assigns as many pickups as capacity allows, then relocation passes move single pickups between collectors
+ * while that lowers total distance plus a quadratic load penalty, which spreads work evenly.
+ *
+ * <p>The penalty is {@code balanceWeightKm * load^2} per collector, so moving a pickup from a collector with
+ * load a to one with load b costs {@code 2 * balanceWeightKm * (b - a + 1)} km on top of the distance change.
+ */
+final class AssignmentSolver {
+
+    private static final double KM_PER_DEGREE = Math.PI * 6371.0088 / 180;
+    private static final int MAX_RELOCATION_PASSES = 10;
+
+    private AssignmentSolver() {
+    }
+
+    /**
+     * @param load       current open pickups per collector; updated in place with the new assignments
+     * @param capacity   most open pickups a collector may hold
+     * @param candidates how many nearest collectors each pickup may be matched to, at most 255
+     * @return collector index per pickup, or -1 when no collector in range has capacity
+     */
+    static int[] solve(double[] pickupLatitudes, double[] pickupLongitudes,
+                       double[] collectorLatitudes, double[] collectorLongitudes,
+                       int[] load, int capacity, double maxDistanceKm, int candidates, double balanceWeightKm) {
+        int pickups = pickupLatitudes.length;
+        int collectors = collectorLatitudes.length;
+        int k = Math.min(Math.min(candidates, 255), collectors);
+
+        int[][] candidateCollectors = new int[pickups][];
+        double[][] candidateKm = new double[pickups][];
+        int pairCount = 0;
+        int[] best = new int[Math.max(k, 1)];
+        double[] bestKm = new double[Math.max(k, 1)];
+        for (int p = 0; p < pickups; p++) {
+            double cosLat = Math.cos(Math.toRadians(pickupLatitudes[p]));
+            int found = 0;
+            for (int c = 0; c < collectors && k > 0; c++) {
+                double dy = (collectorLatitudes[c] - pickupLatitudes[p]) * KM_PER_DEGREE;
+                double dx = (collectorLongitudes[c] - pickupLongitudes[p]) * KM_PER_DEGREE * cosLat;
+                double km = Math.sqrt(dx * dx + dy * dy);
+                if (km > maxDistanceKm || (found == k && km >= bestKm[k - 1])) {
+                    continue;
+                }
+                int slot = found < k ? found++ : k - 1;
+                while (slot > 0 && bestKm[slot - 1] > km) {
+                    best[slot] = best[slot - 1];
+                    bestKm[slot] = bestKm[slot - 1];
+                    slot--;
+                }
+                best[slot] = c;
+                bestKm[slot] = km;
+            }
+            candidateCollectors[p] = Arrays.copyOf(best, found);
+            candidateKm[p] = Arrays.copyOf(bestKm, found);
+            pairCount += found;
+        }
+
+        // Greedy: every (pickup, candidate) pair, shortest first
+        long[] pairs = new long[pairCount];
+        double[] pairKm = new double[pairCount];
+        int next = 0;
+        for (int p = 0; p < pickups; p++) {
+            for (int r = 0; r < candidateCollectors[p].length; r++) {
+                pairs[next] = ((long) p << 8) | r;
+                pairKm[next++] = candidateKm[p][r];
+            }
+        }
+        Integer[] byDistance = new Integer[pairCount];
+        for (int i = 0; i < pairCount; i++) {
+            byDistance[i] = i;
+        }
+        Arrays.sort(byDistance, (a, b) -> Double.compare(pairKm[a], pairKm[b]));
+
+        int[] assignment = new int[pickups];
+        double[] assignedKm = new double[pickups];
+        Arrays.fill(assignment, -1);
+        for (int index : byDistance) {
+            int p = (int) (pairs[index] >>> 8);
+            int r = (int) (pairs[index] & 0xff);
+            int c = candidateCollectors[p][r];
+            if (assignment[p] < 0 && load[c] < capacity) {
+                assignment[p] = c;
+                assignedKm[p] = candidateKm[p][r];
+                load[c]++;
+            }
+        }
+
+        // Local improvement: relocate single pickups, and place any pickup whose candidate has freed up
+        for (int pass = 0; pass < MAX_RELOCATION_PASSES; pass++) {
+            boolean improved = false;
+            for (int p = 0; p < pickups; p++) {
+                int from = assignment[p];
+                int bestCollector = -1;
+                double bestDelta = from < 0 ? Double.MAX_VALUE : -1e-9;
+                double bestCandidateKm = 0;
+                for (int r = 0; r < candidateCollectors[p].length; r++) {
+                    int to = candidateCollectors[p][r];
+                    if (to == from || load[to] >= capacity) {
+                        continue;
+                    }
+                    double delta = from < 0
+                            ? candidateKm[p][r] + balanceWeightKm * (2 * load[to] + 1)
+                            : candidateKm[p][r] - assignedKm[p] + 2 * balanceWeightKm * (load[to] - load[from] + 1);
+                    if (delta < bestDelta) {
+                        bestDelta = delta;
+                        bestCollector = to;
+                        bestCandidateKm = candidateKm[p][r];
+                    }
+                }
+                if (bestCollector >= 0) {
+                    if (from >= 0) {
+                        load[from]--;
+                    }
+                    load[bestCollector]++;
+                    assignment[p] = bestCollector;
+                    assignedKm[p] = bestCandidateKm;
+                    improved = true;
+                }
+            }
+            if (!improved) {
+                break;
+            }
+        }
+        return assignment;
+    }
+}
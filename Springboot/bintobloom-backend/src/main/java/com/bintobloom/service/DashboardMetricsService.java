@@ -0,0 +1,220 @@
+package com.bintobloom.service;
+
+import com.bintobloom.entity.PickupRequest;
+import com.bintobloom.entity.User;
+import com.bintobloom.event.PickupStatusChangedEvent;
+import com.bintobloom.event.UserRegisteredEvent;
+import com.bintobloom.event.WasteLoggedEvent;
+import com.bintobloom.repository.PickupRequestRepository;
+import com.bintobloom.repository.UserRepository;
+import com.bintobloom.repository.WasteLogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps the admin dashboard counters in memory. Counters are bumped from committed entity events,
+ * so reading the dashboard never touches the database. A periodic reconciliation re-derives every
+ * counter from aggregate SQL and corrects (and reports) any drift.
+ *
+ * <p>Event handlers apply under a shared lock and bump a sequence number. A correction is only applied, under
+ * the exclusive lock, if no event arrived while its queries ran; otherwise the snapshot may or may not include
+ * those events and the queries are retried. What remains is the short gap between a commit and its listener.
+ */
+@Service
+public class DashboardMetricsService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PickupRequestRepository pickupRequestRepository;
+
+    @Autowired
+    private WasteLogRepository wasteLogRepository;
+
+    private final Map<User.UserRole, LongAdder> usersByRole = new EnumMap<>(User.UserRole.class);
+    private final Map<PickupRequest.PickupStatus, LongAdder> pickupsByStatus = new EnumMap<>(PickupRequest.PickupStatus.class);
+    private final LongAdder wasteLogCount = new LongAdder();
+    // Waste logs are stored with two decimals, so hundredths of a kg keep the total exact
+    private final LongAdder wasteCentiKg = new LongAdder();
+
+    private static final int RECONCILE_ATTEMPTS = 5;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong eventSequence = new AtomicLong();
+    private final AtomicLong skippedReconciles = new AtomicLong();
+
+    private volatile LocalDateTime lastReconciledAt;
+    private volatile Map<String, Object> lastDrift = Map.of();
+
+    public DashboardMetricsService() {
+        for (User.UserRole role : User.UserRole.values()) {
+            usersByRole.put(role, new LongAdder());
+        }
+        for (PickupRequest.PickupStatus status : PickupRequest.PickupStatus.values()) {
+            pickupsByStatus.put(status, new LongAdder());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        lock.readLock().lock();
+        try {
+            if (event.getRole() != null) {
+                usersByRole.get(event.getRole()).increment();
+            }
+            eventSequence.incrementAndGet();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPickupStatusChanged(PickupStatusChangedEvent event) {
+        lock.readLock().lock();
+        try {
+            if (event.getPreviousStatus() != null) {
+                pickupsByStatus.get(event.getPreviousStatus()).decrement();
+            }
+            if (event.getStatus() != null) {
+                pickupsByStatus.get(event.getStatus()).increment();
+            }
+            eventSequence.incrementAndGet();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWasteLogged(WasteLoggedEvent event) {
+        lock.readLock().lock();
+        try {
+            wasteLogCount.increment();
+            if (event.getWeightKg() != null) {
+                wasteCentiKg.add(toCentiKg(event.getWeightKg()));
+            }
+            eventSequence.incrementAndGet();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getDashboard() {
+        long totalUsers = usersByRole.values().stream().mapToLong(LongAdder::sum).sum();
+        long pickupCount = pickupsByStatus.values().stream().mapToLong(LongAdder::sum).sum();
+
+        Map<String, Object> dashboard = new HashMap<>();
+        dashboard.put("totalUsers", totalUsers);
+        dashboard.put("totalCollectors", usersByRole.get(User.UserRole.COLLECTOR).sum());
+        dashboard.put("totalNGOs", usersByRole.get(User.UserRole.NGO).sum());
+        dashboard.put("pendingPickups", pickupsByStatus.get(PickupRequest.PickupStatus.PENDING).sum());
+        dashboard.put("completedPickups", pickupsByStatus.get(PickupRequest.PickupStatus.COMPLETED).sum());
+        dashboard.put("totalWasteCollected", wasteCentiKg.sum() / 100.0);
+        dashboard.put("wasteLogCount", wasteLogCount.sum());
+        dashboard.put("pickupCount", pickupCount);
+        return dashboard;
+    }
+
+    public long getPickupCount(PickupRequest.PickupStatus status) {
+        return pickupsByStatus.get(status).sum();
+    }
+
+    public long getTotalPickupCount() {
+        return pickupsByStatus.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcile();
+    }
+
+    /**
+     * Re-derives every counter from aggregate queries and corrects the in-memory value by the difference.
+     * The correction is applied only if no event was handled while the queries ran; after
+     * {@value #RECONCILE_ATTEMPTS} busy attempts the run is skipped and counted.
+     *
+     * @return the counters that had drifted, keyed by name, with the observed difference (database - memory)
+     */
+    @Scheduled(initialDelayString = "${app.dashboard.reconcile-interval-ms:600000}",
+               fixedDelayString = "${app.dashboard.reconcile-interval-ms:600000}")
+    public synchronized Map<String, Object> reconcile() {
+        for (int attempt = 0; attempt < RECONCILE_ATTEMPTS; attempt++) {
+            long sequence = eventSequence.get();
+            Map<String, Long> expected = queryCounts();
+            lock.writeLock().lock();
+            try {
+                if (eventSequence.get() != sequence) {
+                    continue;
+                }
+                Map<String, Object> drift = new LinkedHashMap<>();
+                for (User.UserRole role : User.UserRole.values()) {
+                    correct("users." + role, usersByRole.get(role), expected, drift);
+                }
+                for (PickupRequest.PickupStatus status : PickupRequest.PickupStatus.values()) {
+                    correct("pickups." + status, pickupsByStatus.get(status), expected, drift);
+                }
+                correct("wasteLogs.count", wasteLogCount, expected, drift);
+                correct("wasteLogs.centiKg", wasteCentiKg, expected, drift);
+
+                if (!drift.isEmpty() && lastReconciledAt != null) {
+                    System.out.println("Dashboard metrics drift corrected: " + drift);
+                }
+                lastReconciledAt = LocalDateTime.now();
+                lastDrift = drift;
+                return drift;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        skippedReconciles.incrementAndGet();
+        return Map.of();
+    }
+
+    public Map<String, Object> getReconciliationStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("lastReconciledAt", lastReconciledAt);
+        status.put("lastDrift", lastDrift);
+        status.put("skippedReconciles", skippedReconciles.get());
+        return status;
+    }
+
+    private Map<String, Long> queryCounts() {
+        Map<String, Long> expected = new HashMap<>();
+        for (Object[] row : userRepository.countGroupedByRole()) {
+            expected.put("users." + row[0], (Long) row[1]);
+        }
+        for (Object[] row : pickupRequestRepository.countGroupedByStatus()) {
+            expected.put("pickups." + row[0], (Long) row[1]);
+        }
+        expected.put("wasteLogs.count", wasteLogRepository.count());
+        expected.put("wasteLogs.centiKg", toCentiKg(wasteLogRepository.sumWeightKg()));
+        return expected;
+    }
+
+    private void correct(String name, LongAdder counter, Map<String, Long> expected, Map<String, Object> drift) {
+        long difference = expected.getOrDefault(name, 0L) - counter.sum();
+        if (difference != 0) {
+            counter.add(difference);
+            drift.put(name, difference);
+        }
+    }
+
+    private long toCentiKg(BigDecimal weightKg) {
+        return weightKg.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValue();
+    }
+}
@@ -0,0 +1,305 @@
+package com.bintobloom.service;
+
+import com.bintobloom.entity.PickupRequest;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Exports waste logs and pickups as CSV or NDJSON. Rows are read through a forward-only, read-only cursor and
+ * written to the output as they arrive, so an export of any size holds one row in memory at a time.
+ *
+ * <p>MySQL Connector/J buffers a whole result set unless the fetch size is {@code Integer.MIN_VALUE}, which
+ * makes it stream row by row; other databases get {@code app.export.fetch-size}.
+ */
+@Service
+public class DataExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"), NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the format is not csv or ndjson
+         */
+        public static Format parse(String format) {
+            if (format == null || format.isBlank()) {
+                return CSV;
+            }
+            try {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("format must be csv or ndjson");
+            }
+        }
+    }
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    private volatile Boolean mySql;
+
+    /**
+     * Waste logs collected on days in [from, to], optionally for customers in one city, oldest first.
+     */
+    public void exportWasteLogs(LocalDate from, LocalDate to, String city, Format format, OutputStream out) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT wl.log_id, wl.pickup_id, wl.collected_at, wl.waste_type, wl.weight_kg, " +
+                "pr.user_id, u.role AS user_role, u.city, pr.collector_id " +
+                "FROM waste_logs wl " +
+                "JOIN pickup_requests pr ON pr.pickup_id = wl.pickup_id " +
+                "JOIN users u ON u.user_id = pr.user_id WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        appendFilters(sql, args, "wl.collected_at", from, to, city);
+        sql.append(" ORDER BY wl.collected_at, wl.log_id");
+        stream(sql.toString(), args, format, out);
+    }
+
+    /**
+     * Pickups created on days in [from, to], optionally for customers in one city and in one status, oldest
+     * first.
+     */
+    public void exportPickups(LocalDate from, LocalDate to, String city, PickupRequest.PickupStatus status,
+                              Format format, OutputStream out) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT pr.pickup_id, pr.created_at, pr.scheduled_date, pr.scheduled_time, pr.waste_type, " +
+                "pr.pickup_status, pr.user_id, u.role AS user_role, u.city, pr.collector_id, pr.latitude, pr.longitude, pr.notes " +
+                "FROM pickup_requests pr " +
+                "JOIN users u ON u.user_id = pr.user_id WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        appendFilters(sql, args, "pr.created_at", from, to, city);
+        if (status != null) {
+            sql.append(" AND pr.pickup_status = ?");
+            args.add(status.name());
+        }
+        sql.append(" ORDER BY pr.created_at, pr.pickup_id");
+        stream(sql.toString(), args, format, out);
+    }
+
+    private void appendFilters(StringBuilder sql, List<Object> args, String timeColumn, LocalDate from, LocalDate to,
+                               String city) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (from != null) {
+            sql.append(" AND ").append(timeColumn).append(" >= ?");
+            args.add(Timestamp.valueOf(from.atStartOfDay()));
+        }
+        if (to != null) {
+            sql.append(" AND ").append(timeColumn).append(" < ?");
+            args.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        }
+        if (city != null && !city.isBlank()) {
+            sql.append(" AND u.city = ?");
+            args.add(city.trim());
+        }
+    }
+
+    private void stream(String sql, List<Object> args, Format format, OutputStream out) {
+        int streamingFetchSize = isMySql() ? Integer.MIN_VALUE : fetchSize;
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(streamingFetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            return statement;
+        }, (ResultSetExtractor<Void>) rs -> {
+            try {
+                if (format == Format.CSV) {
+                    writeCsv(rs, out);
+                } else {
+                    writeNdjson(rs, out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+    }
+
+    private void writeCsv(ResultSet rs, OutputStream out) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        for (int i = 1; i <= columns; i++) {
+            if (i > 1) {
+                writer.write(',');
+            }
+            writer.write(meta.getColumnLabel(i).toLowerCase(Locale.ROOT));
+        }
+        writer.write('\n');
+        while (rs.next()) {
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                int type = meta.getColumnType(i);
+                String value = text(rs, i, type);
+                if (value != null) {
+                    writeCsvField(writer, isTextual(type) ? neutralizeFormula(value) : value);
+                }
+            }
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private boolean isTextual(int type) {
+        return type == Types.VARCHAR || type == Types.CHAR || type == Types.LONGVARCHAR || type == Types.CLOB
+                || type == Types.NVARCHAR || type == Types.NCHAR || type == Types.LONGNVARCHAR || type == Types.NCLOB;
+    }
+
+    // Spreadsheets run a cell that starts with one of these as a formula; a leading quote makes them show it as text.
+    // Only free-text columns are touched, so negative coordinates stay numbers
+    private String neutralizeFormula(String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            return "'" + value;
+        }
+        return value;
+    }
+
+    private void writeNdjson(ResultSet rs, OutputStream out) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        String[] names = new String[columns + 1];
+        for (int i = 1; i <= columns; i++) {
+            names[i] = meta.getColumnLabel(i).toLowerCase(Locale.ROOT);
+        }
+        try (JsonGenerator json = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+            json.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            json.setRootValueSeparator(null);
+            while (rs.next()) {
+                json.writeStartObject();
+                for (int i = 1; i <= columns; i++) {
+                    int type = meta.getColumnType(i);
+                    json.writeFieldName(names[i]);
+                    if (type == Types.BIGINT || type == Types.INTEGER || type == Types.SMALLINT) {
+                        long value = rs.getLong(i);
+                        if (rs.wasNull()) {
+                            json.writeNull();
+                        } else {
+                            json.writeNumber(value);
+                        }
+                    } else if (type == Types.DECIMAL || type == Types.NUMERIC) {
+                        BigDecimal value = rs.getBigDecimal(i);
+                        if (value == null) {
+                            json.writeNull();
+                        } else {
+                            json.writeNumber(value);
+                        }
+                    } else {
+                        String value = text(rs, i, type);
+                        if (value == null) {
+                            json.writeNull();
+                        } else {
+                            json.writeString(value);
+                        }
+                    }
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+            }
+        }
+    }
+
+    // Timestamps and dates in ISO-8601, decimals without exponents
+    private String text(ResultSet rs, int column, int type) throws SQLException {
+        switch (type) {
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE: {
+                Timestamp value = rs.getTimestamp(column);
+                return value == null ? null : value.toLocalDateTime().toString();
+            }
+            case Types.DATE: {
+                java.sql.Date value = rs.getDate(column);
+                return value == null ? null : value.toLocalDate().toString();
+            }
+            case Types.TIME: {
+                java.sql.Time value = rs.getTime(column);
+                return value == null ? null : value.toLocalTime().toString();
+            }
+            case Types.DECIMAL:
+            case Types.NUMERIC: {
+                BigDecimal value = rs.getBigDecimal(column);
+                return value == null ? null : value.toPlainString();
+            }
+            default:
+                return rs.getString(column);
+        }
+    }
+
+    private boolean isMySql() {
+        Boolean cached = mySql;
+        if (cached == null) {
+            cached = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql"));
+            mySql = cached;
+        }
+        return cached;
+    }
+}
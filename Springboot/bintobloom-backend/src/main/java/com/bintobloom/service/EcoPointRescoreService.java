@@ -0,0 +1,280 @@
+package com.bintobloom.service;
+
+import com.bintobloom.entity.EcoPointRule;
+import com.bintobloom.entity.EcoReward;
+import com.bintobloom.entity.PickupRequest;
+import com.bintobloom.entity.User;
+import com.bintobloom.event.EcoPointsAwardedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Re-scores historical pickup rewards against the current eco-point rules, e.g. after a factor or campaign
+ * changes. Rewards are read in reward id order one chunk at a time; each chunk is scored against one rules
+ * snapshot and written in its own transaction on a worker pool, which corrects the reward rows and moves the
+ * difference onto the household's eco-point balance (household balances in user id order).
+ *
+ * <p>A reward row is only rewritten if it still holds the points it was scored from, and only rows that were
+ * rewritten move balances, so overlapping re-scores (on one node or several) never apply a difference twice.
+ *
+ * <p>Only rewards linked to a waste log can be re-scored; older rewards without a pickup are left alone.
+ */
+@Service
+public class EcoPointRescoreService {
+
+    private static final class Rescored {
+        final long rewardId;
+        final long userId;
+        final User.UserRole role;
+        final int previous;
+        final int points;
+
+        Rescored(long rewardId, long userId, User.UserRole role, int previous, int points) {
+            this.rewardId = rewardId;
+            this.userId = userId;
+            this.role = role;
+            this.previous = previous;
+            this.points = points;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EcoPointRules ecoPointRules;
+
+    @Value("${app.eco-points.rescore-chunk-size:2000}")
+    private int chunkSize;
+
+    private final int parallelism;
+    private final ExecutorService workers;
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong changed = new AtomicLong();
+    private final AtomicLong pointsDelta = new AtomicLong();
+    private volatile Map<String, Object> lastRun = Map.of("status", "IDLE");
+
+    public EcoPointRescoreService(@Value("${app.eco-points.rescore-parallelism:4}") int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        workers = Executors.newFixedThreadPool(this.parallelism);
+    }
+
+    /**
+     * Starts re-scoring, in the background, the rewards for waste collected in [from, until); either bound may
+     * be null.
+     *
+     * @throws IllegalStateException if a re-score is already running
+     */
+    public Map<String, Object> start(LocalDateTime from, LocalDateTime until) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A re-score is already running");
+        }
+        scanned.set(0);
+        changed.set(0);
+        pointsDelta.set(0);
+        LocalDateTime startedAt = LocalDateTime.now();
+        Map<String, Object> status = new HashMap<>();
+        status.put("status", "RUNNING");
+        status.put("from", from);
+        status.put("until", until);
+        status.put("startedAt", startedAt);
+        lastRun = status;
+        coordinator.execute(() -> {
+            Map<String, Object> result = new HashMap<>(status);
+            try {
+                run(from, until);
+                result.put("status", "COMPLETED");
+            } catch (Exception e) {
+                result.put("status", "FAILED");
+                result.put("error", String.valueOf(e.getMessage()));
+            } finally {
+                result.put("finishedAt", LocalDateTime.now());
+                result.put("scanned", scanned.get());
+                result.put("changed", changed.get());
+                result.put("pointsDelta", pointsDelta.get());
+                lastRun = result;
+                running.set(false);
+            }
+        });
+        return status;
+    }
+
+    /**
+     * Starts re-scoring the rewards the given rule versions can affect: everything for a base rule, else the
+     * span of the bonus windows.
+     *
+     * @throws IllegalStateException if a re-score is already running
+     */
+    public Map<String, Object> startFor(List<EcoPointRule> rules) {
+        LocalDateTime from = null;
+        LocalDateTime until = null;
+        boolean unbounded = false;
+        for (EcoPointRule rule : rules) {
+            if (rule.getRuleType() == EcoPointRule.RuleType.BASE || rule.getValidFrom() == null || rule.getValidUntil() == null) {
+                unbounded = true;
+                break;
+            }
+            from = from == null || rule.getValidFrom().isBefore(from) ? rule.getValidFrom() : from;
+            until = until == null || rule.getValidUntil().isAfter(until) ? rule.getValidUntil() : until;
+        }
+        return unbounded ? start(null, null) : start(from, until);
+    }
+
+    public Map<String, Object> getStatus() {
+        if (!running.get()) {
+            return lastRun;
+        }
+        Map<String, Object> status = new HashMap<>(lastRun);
+        status.put("scanned", scanned.get());
+        status.put("changed", changed.get());
+        status.put("pointsDelta", pointsDelta.get());
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void run(LocalDateTime from, LocalDateTime until) throws Exception {
+        EcoPointRules.Snapshot rules = ecoPointRules.current();
+        StringBuilder sql = new StringBuilder(
+                "SELECT er.reward_id, er.user_id, er.points_earned, wl.waste_type, wl.weight_kg, wl.collected_at, u.city, u.role " +
+                "FROM eco_rewards er " +
+                "JOIN waste_logs wl ON wl.pickup_id = er.pickup_id " +
+                "JOIN users u ON u.user_id = er.user_id " +
+                "WHERE er.reward_type = ? AND er.reward_id > ?");
+        List<Object> bounds = new ArrayList<>();
+        if (from != null) {
+            sql.append(" AND wl.collected_at >= ?");
+            bounds.add(Timestamp.valueOf(from));
+        }
+        if (until != null) {
+            sql.append(" AND wl.collected_at < ?");
+            bounds.add(Timestamp.valueOf(until));
+        }
+        sql.append(" ORDER BY er.reward_id LIMIT ?");
+
+        // Bounds how many scored chunks wait in memory for a worker
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        List<Future<?>> chunks = new ArrayList<>();
+        long after = 0;
+        while (true) {
+            List<Object> args = new ArrayList<>();
+            args.add(EcoReward.RewardType.PICKUP_COMPLETED.ordinal());
+            args.add(after);
+            args.addAll(bounds);
+            args.add(chunkSize);
+            List<Rescored> rescored = new ArrayList<>();
+            long[] last = {after};
+            int[] rows = {0};
+            jdbcTemplate.query(sql.toString(), rs -> {
+                rows[0]++;
+                last[0] = rs.getLong(1);
+                int points = rules.points(PickupRequest.WasteType.valueOf(rs.getString(4)), rs.getString(7),
+                        rs.getTimestamp(6).toLocalDateTime(), rs.getBigDecimal(5).doubleValue());
+                int previous = rs.getInt(3);
+                if (points != previous) {
+                    rescored.add(new Rescored(rs.getLong(1), rs.getLong(2), User.UserRole.valueOf(rs.getString(8)),
+                            previous, points));
+                }
+            }, args.toArray());
+            scanned.addAndGet(rows[0]);
+            if (!rescored.isEmpty()) {
+                inFlight.acquire();
+                chunks.add(workers.submit(() -> {
+                    try {
+                        apply(rescored);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+            if (rows[0] < chunkSize) {
+                break;
+            }
+            after = last[0];
+        }
+        for (Future<?> chunk : chunks) {
+            chunk.get();
+        }
+    }
+
+    private void apply(List<Rescored> rescored) {
+        List<Object[]> rewardUpdates = new ArrayList<>(rescored.size());
+        for (Rescored reward : rescored) {
+            rewardUpdates.add(new Object[] {reward.points, reward.rewardId, reward.previous});
+        }
+        int[] applied = new int[1];
+        long[] appliedDelta = new long[1];
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            int[] counts = jdbcTemplate.batchUpdate(
+                    "UPDATE eco_rewards SET points_earned = ? WHERE reward_id = ? AND points_earned = ?", rewardUpdates);
+            Map<Long, Integer> householdDeltas = new TreeMap<>();
+            Map<Long, Integer> userDeltas = new HashMap<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                    // Without per-row counts a row changed by another re-score cannot be told apart; roll back
+                    throw new IllegalStateException("The database driver did not report per-row update counts");
+                }
+                if (counts[i] != 1) {
+                    continue;
+                }
+                Rescored reward = rescored.get(i);
+                int delta = reward.points - reward.previous;
+                if (reward.role == User.UserRole.HOUSEHOLD) {
+                    householdDeltas.merge(reward.userId, delta, Integer::sum);
+                }
+                userDeltas.merge(reward.userId, delta, Integer::sum);
+                applied[0]++;
+                appliedDelta[0] += delta;
+            }
+            List<Object[]> balanceUpdates = new ArrayList<>(householdDeltas.size());
+            householdDeltas.forEach((userId, delta) -> balanceUpdates.add(new Object[] {delta, userId}));
+            if (!balanceUpdates.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                        "UPDATE household_details SET eco_points = COALESCE(eco_points, 0) + ? WHERE user_id = ?",
+                        balanceUpdates);
+            }
+            userDeltas.forEach((userId, delta) -> {
+                if (delta != 0) {
+                    eventPublisher.publishEvent(new EcoPointsAwardedEvent(userId, delta));
+                }
+            });
+        });
+        changed.addAndGet(applied[0]);
+        pointsDelta.addAndGet(appliedDelta[0]);
+    }
+}
@@ -0,0 +1,261 @@
+package com.bintobloom.service;
+
+import com.bintobloom.entity.EcoPointRule;
+import com.bintobloom.entity.PickupRequest;
+import com.bintobloom.repository.EcoPointRuleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Eco-points earned for collected waste: the weight in kg times the base factor for the waste type (a
+ * city-specific one when the customer's city has it), times every bonus campaign running for that type, city
+ * and time, rounded. Every path that awards points for a pickup goes through here.
+ *
+ * <p>Rules live in eco_point_rules and are compiled into an immutable {@link Snapshot}, swapped atomically when
+ * they change, so lookups never touch the database or take a lock. The table is seeded with the original
+ * factors on first start and reloaded every {@code app.eco-points.reload-interval-ms} to pick up changes made
+ * by other instances.
+ */
+@Service
+public class EcoPointRules {
+
+    private static final double DEFAULT_FACTOR = 1.0;
+    private static final double MAX_MULTIPLIER = 100;
+
+    private static final class Bonus {
+        final String city;
+        final LocalDateTime validFrom;
+        final LocalDateTime validUntil;
+        final double multiplier;
+
+        Bonus(String city, LocalDateTime validFrom, LocalDateTime validUntil, double multiplier) {
+            this.city = city;
+            this.validFrom = validFrom;
+            this.validUntil = validUntil;
+            this.multiplier = multiplier;
+        }
+
+        boolean applies(String cityKey, LocalDateTime at) {
+            return (city == null || city.equalsIgnoreCase(cityKey))
+                    && (validFrom == null || !at.isBefore(validFrom))
+                    && (validUntil == null || at.isBefore(validUntil));
+        }
+    }
+
+    /**
+     * Compiled rules. Base factors are resolved per waste type up front and each waste type carries only the
+     * bonuses that can apply to it, so a lookup is a couple of map reads and a short scan.
+     */
+    static final class Snapshot {
+        private static final Bonus[] NO_BONUSES = new Bonus[0];
+
+        final EnumMap<PickupRequest.WasteType, Double> baseFactors = new EnumMap<>(PickupRequest.WasteType.class);
+        final Map<String, EnumMap<PickupRequest.WasteType, Double>> cityBaseFactors = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        final EnumMap<PickupRequest.WasteType, Bonus[]> bonuses = new EnumMap<>(PickupRequest.WasteType.class);
+        final int ruleCount;
+        final LocalDateTime compiledAt = LocalDateTime.now();
+
+        Snapshot(List<EcoPointRule> rules) {
+            ruleCount = rules.size();
+            List<EcoPointRule> ordered = new ArrayList<>(rules);
+            // A later rule for the same base slot wins
+            ordered.sort(Comparator.comparing(EcoPointRule::getRuleId, Comparator.nullsFirst(Comparator.naturalOrder())));
+            Map<PickupRequest.WasteType, List<Bonus>> bonusLists = new EnumMap<>(PickupRequest.WasteType.class);
+            for (PickupRequest.WasteType type : PickupRequest.WasteType.values()) {
+                bonusLists.put(type, new ArrayList<>());
+            }
+            for (EcoPointRule rule : ordered) {
+                double multiplier = rule.getMultiplier().doubleValue();
+                String cityKey = cityKey(rule.getCity());
+                if (rule.getRuleType() == EcoPointRule.RuleType.BASE) {
+                    if (cityKey == null) {
+                        baseFactors.put(rule.getWasteType(), multiplier);
+                    } else {
+                        cityBaseFactors.computeIfAbsent(cityKey, c -> new EnumMap<>(PickupRequest.WasteType.class))
+                                .put(rule.getWasteType(), multiplier);
+                    }
+                    continue;
+                }
+                Bonus bonus = new Bonus(cityKey, rule.getValidFrom(), rule.getValidUntil(), multiplier);
+                if (rule.getWasteType() != null) {
+                    bonusLists.get(rule.getWasteType()).add(bonus);
+                } else {
+                    bonusLists.values().forEach(list -> list.add(bonus));
+                }
+            }
+            bonusLists.forEach((type, list) -> bonuses.put(type, list.isEmpty() ? NO_BONUSES : list.toArray(NO_BONUSES)));
+        }
+
+        double multiplier(PickupRequest.WasteType wasteType, String city, LocalDateTime at) {
+            String cityKey = cityKey(city);
+            Double factor = null;
+            if (cityKey != null) {
+                EnumMap<PickupRequest.WasteType, Double> cityFactors = cityBaseFactors.get(cityKey);
+                factor = cityFactors != null ? cityFactors.get(wasteType) : null;
+            }
+            if (factor == null) {
+                factor = baseFactors.getOrDefault(wasteType, DEFAULT_FACTOR);
+            }
+            double multiplier = factor;
+            for (Bonus bonus : bonuses.get(wasteType)) {
+                if (bonus.applies(cityKey, at)) {
+                    multiplier *= bonus.multiplier;
+                }
+            }
+            return multiplier;
+        }
+
+        int points(PickupRequest.WasteType wasteType, String city, LocalDateTime at, double weightKg) {
+            return (int) Math.round(weightKg * multiplier(wasteType, city, at));
+        }
+    }
+
+    @Autowired
+    private EcoPointRuleRepository ecoPointRuleRepository;
+
+    private final AtomicReference<Snapshot> snapshot;
+
+    public EcoPointRules() {
+        this(defaultRules());
+    }
+
+    // For benchmarks: a fixed rule set, never reloaded
+    public EcoPointRules(List<EcoPointRule> rules) {
+        snapshot = new AtomicReference<>(new Snapshot(rules));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (ecoPointRuleRepository.count() == 0) {
+            ecoPointRuleRepository.saveAll(defaultRules());
+        }
+        reload();
+    }
+
+    @Scheduled(initialDelayString = "${app.eco-points.reload-interval-ms:300000}", fixedDelayString = "${app.eco-points.reload-interval-ms:300000}")
+    public void reload() {
+        snapshot.set(new Snapshot(ecoPointRuleRepository.findAll()));
+    }
+
+    public int pointsFor(PickupRequest.WasteType wasteType, double weightKg) {
+        return pointsFor(wasteType, null, LocalDateTime.now(), weightKg);
+    }
+
+    public int pointsFor(PickupRequest.WasteType wasteType, String city, LocalDateTime at, double weightKg) {
+        return snapshot.get().points(wasteType, city, at, weightKg);
+    }
+
+    // One snapshot for a whole job, so every row is scored against the same rules
+    Snapshot current() {
+        return snapshot.get();
+    }
+
+    public List<EcoPointRule> getRules() {
+        return ecoPointRuleRepository.findAll();
+    }
+
+    public EcoPointRule getRule(Long ruleId) {
+        return ecoPointRuleRepository.findById(ruleId)
+                .orElseThrow(() -> new IllegalArgumentException("Rule not found"));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the rule is invalid or duplicates an existing base rule
+     */
+    public EcoPointRule saveRule(EcoPointRule rule) {
+        validate(rule);
+        EcoPointRule saved = ecoPointRuleRepository.save(rule);
+        reload();
+        return saved;
+    }
+
+    public void deleteRule(Long ruleId) {
+        ecoPointRuleRepository.delete(getRule(ruleId));
+        reload();
+    }
+
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot.get();
+        return Map.of("rules", current.ruleCount, "compiledAt", current.compiledAt);
+    }
+
+    private void validate(EcoPointRule rule) {
+        if (rule.getRuleType() == null) {
+            throw new IllegalArgumentException("ruleType must be BASE or BONUS");
+        }
+        if (rule.getMultiplier() == null || rule.getMultiplier().signum() <= 0
+                || rule.getMultiplier().compareTo(BigDecimal.valueOf(MAX_MULTIPLIER)) > 0) {
+            throw new IllegalArgumentException("multiplier must be greater than 0 and at most " + (int) MAX_MULTIPLIER);
+        }
+        if (rule.getValidFrom() != null && rule.getValidUntil() != null && !rule.getValidFrom().isBefore(rule.getValidUntil())) {
+            throw new IllegalArgumentException("validFrom must be before validUntil");
+        }
+        if (rule.getCity() != null && rule.getCity().isBlank()) {
+            rule.setCity(null);
+        }
+        if (rule.getRuleType() == EcoPointRule.RuleType.BASE) {
+            if (rule.getWasteType() == null) {
+                throw new IllegalArgumentException("Base rules need a wasteType");
+            }
+            if (rule.getValidFrom() != null || rule.getValidUntil() != null) {
+                throw new IllegalArgumentException("Base rules cannot have a time window, use a bonus rule");
+            }
+            String cityKey = cityKey(rule.getCity());
+            for (EcoPointRule existing : ecoPointRuleRepository.findAll()) {
+                if (existing.getRuleType() == EcoPointRule.RuleType.BASE && existing.getWasteType() == rule.getWasteType()
+                        && !existing.getRuleId().equals(rule.getRuleId())
+                        && (cityKey == null ? existing.getCity() == null : cityKey.equalsIgnoreCase(cityKey(existing.getCity())))) {
+                    throw new IllegalArgumentException("A base rule for this waste type and city already exists");
+                }
+            }
+        }
+    }
+
+    // Cities match case-insensitively; trimming rarely allocates, so lookups stay garbage-free
+    private static String cityKey(String city) {
+        return city == null || city.isBlank() ? null : city.trim();
+    }
+
+    private static List<EcoPointRule> defaultRules() {
+        Map<PickupRequest.WasteType, Double> factors = new EnumMap<>(PickupRequest.WasteType.class);
+        factors.put(PickupRequest.WasteType.FOOD_WASTE, 1.0);
+        factors.put(PickupRequest.WasteType.E_WASTE, 2.0);
+        factors.put(PickupRequest.WasteType.PLASTIC, 1.5);
+        factors.put(PickupRequest.WasteType.PAPER, 1.5);
+        factors.put(PickupRequest.WasteType.METAL, 1.5);
+        factors.put(PickupRequest.WasteType.GLASS, 1.5);
+        factors.put(PickupRequest.WasteType.MIXED, 0.5);
+        factors.put(PickupRequest.WasteType.BIODEGRADABLE, 1.0);
+        factors.put(PickupRequest.WasteType.NON_BIODEGRADABLE, 0.5);
+        factors.put(PickupRequest.WasteType.ORGANIC_WASTE, 1.0);
+        factors.put(PickupRequest.WasteType.RECYCLABLE_WASTE, 1.5);
+        factors.put(PickupRequest.WasteType.CHEMICAL_WASTE, 2.5);
+        factors.put(PickupRequest.WasteType.HAZARDOUS_WASTE, 3.0);
+        factors.put(PickupRequest.WasteType.CONSTRUCTION_WASTE, 1.8);
+        factors.put(PickupRequest.WasteType.NON_RECYCLABLE_COMMERCIAL, 0.8);
+
+        List<EcoPointRule> rules = new ArrayList<>();
+        factors.forEach((type, factor) -> {
+            EcoPointRule rule = new EcoPointRule();
+            rule.setRuleType(EcoPointRule.RuleType.BASE);
+            rule.setWasteType(type);
+            rule.setMultiplier(BigDecimal.valueOf(factor));
+            rule.setDescription("Default factor");
+            rules.add(rule);
+        });
+        return rules;
+    }
+}
@@ -0,0 +1,294 @@
+package com.bintobloom.service;
+
+import com.bintobloom.dto.LeaderboardEntry;
+import com.bintobloom.entity.User;
+import com.bintobloom.event.EcoPointsAwardedEvent;
+import com.bintobloom.event.UserRegisteredEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory eco-point rankings for households and businesses, globally and per city. Each scope is an
+ * order-statistic tree, so top-K, offset pages and "rank of user X" are answered in O(log n) without
+ * touching MySQL. Points are applied as rewards are committed, and the whole index is rebuilt periodically,
+ * which is also when household_details.leaderboard_rank is written back.
+ *
+ * <p>Households are ranked on household_details.eco_points, the column the legacy household leaderboard sorts
+ * by. Businesses have no points column, so they are ranked on the sum of their eco_rewards; this intentionally
+ * differs from the legacy business leaderboard, which sorts by sustainability score.
+ *
+ * <p>Events that arrive while a rebuild's query runs are applied to the live index as usual and also buffered,
+ * then replayed onto the new index before it is swapped in.
+ */
+@Service
+public class LeaderboardIndexService {
+
+    public static final Set<User.UserRole> RANKED_ROLES = EnumSet.of(User.UserRole.HOUSEHOLD, User.UserRole.BUSINESS);
+
+    private static final Comparator<Ranked> ORDER = Comparator
+            .comparingLong((Ranked r) -> r.points).reversed()
+            .thenComparingLong(r -> r.userId);
+
+    private static final class Ranked {
+        final long userId;
+        final String name;
+        final String city;
+        final User.UserRole role;
+        final long points;
+
+        Ranked(long userId, String name, String city, User.UserRole role, long points) {
+            this.userId = userId;
+            this.name = name;
+            this.city = city;
+            this.role = role;
+            this.points = points;
+        }
+
+        Ranked withPoints(long newPoints) {
+            return new Ranked(userId, name, city, role, newPoints);
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, OrderStatisticTree<Ranked>> scopes = new HashMap<>();
+    private Map<Long, Ranked> byUserId = new HashMap<>();
+    private final Map<Long, Integer> persistedHouseholdRanks = new HashMap<>();
+    // Non-null while a rebuild is running; guarded by the write lock
+    private List<Object> buffered;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEcoPointsAwarded(EcoPointsAwardedEvent event) {
+        lock.writeLock().lock();
+        try {
+            award(scopes, byUserId, event);
+            if (buffered != null) {
+                buffered.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        if (!RANKED_ROLES.contains(event.getRole())) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            register(scopes, byUserId, event);
+            if (buffered != null) {
+                buffered.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size(User.UserRole role, String city) {
+        lock.readLock().lock();
+        try {
+            OrderStatisticTree<Ranked> tree = scopes.get(scopeKey(role, city));
+            return tree != null ? tree.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<LeaderboardEntry> getPage(User.UserRole role, String city, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            OrderStatisticTree<Ranked> tree = scopes.get(scopeKey(role, city));
+            if (tree == null || offset >= tree.size()) {
+                return List.of();
+            }
+            return toEntries(tree.range(offset, limit), offset);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the user's entry plus up to {@code neighbours} entries on either side, or an empty map when the
+     *         user is not ranked in the scope
+     */
+    public Map<String, Object> getRankWithNeighbours(User.UserRole role, String city, Long userId, int neighbours) {
+        lock.readLock().lock();
+        try {
+            OrderStatisticTree<Ranked> tree = scopes.get(scopeKey(role, city));
+            Ranked ranked = byUserId.get(userId);
+            if (tree == null || ranked == null || ranked.role != role) {
+                return Map.of();
+            }
+            int position = tree.rank(ranked);
+            if (position < 0) {
+                return Map.of();
+            }
+            int from = Math.max(0, position - neighbours);
+            List<LeaderboardEntry> window = toEntries(tree.range(from, position - from + neighbours + 1), from);
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("rank", position + 1);
+            result.put("total", tree.size());
+            result.put("entry", window.get(position - from));
+            result.put("above", window.subList(0, position - from));
+            result.put("below", window.subList(position - from + 1, window.size()));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${app.leaderboard.rebuild-interval-ms:3600000}",
+               fixedDelayString = "${app.leaderboard.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        Map<String, OrderStatisticTree<Ranked>> newScopes = new HashMap<>();
+        Map<Long, Ranked> newByUserId = new HashMap<>();
+
+        lock.writeLock().lock();
+        try {
+            buffered = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            jdbcTemplate.query(
+                    "SELECT u.user_id, u.name, u.city, u.role, CASE WHEN u.role = 'HOUSEHOLD' " +
+                    "THEN COALESCE(hd.eco_points, 0) " +
+                    "ELSE (SELECT COALESCE(SUM(er.points_earned), 0) FROM eco_rewards er WHERE er.user_id = u.user_id) END " +
+                    "FROM users u LEFT JOIN household_details hd ON hd.user_id = u.user_id " +
+                    "WHERE u.role IN ('HOUSEHOLD', 'BUSINESS')",
+                    rs -> {
+                        add(newScopes, newByUserId, new Ranked(rs.getLong(1), rs.getString(2), rs.getString(3),
+                                User.UserRole.valueOf(rs.getString(4)), rs.getLong(5)));
+                    });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                buffered = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Object event : buffered) {
+                if (event instanceof EcoPointsAwardedEvent awarded) {
+                    award(newScopes, newByUserId, awarded);
+                } else {
+                    register(newScopes, newByUserId, (UserRegisteredEvent) event);
+                }
+            }
+            buffered = null;
+            scopes = newScopes;
+            byUserId = newByUserId;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        persistHouseholdRanks();
+    }
+
+    private void persistHouseholdRanks() {
+        List<Object[]> changed = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            OrderStatisticTree<Ranked> tree = scopes.get(scopeKey(User.UserRole.HOUSEHOLD, null));
+            if (tree == null) {
+                return;
+            }
+            List<Ranked> ordered = tree.range(0, tree.size());
+            for (int i = 0; i < ordered.size(); i++) {
+                Long userId = ordered.get(i).userId;
+                Integer rank = i + 1;
+                if (!rank.equals(persistedHouseholdRanks.get(userId))) {
+                    changed.add(new Object[] {rank, userId});
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!changed.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE household_details SET leaderboard_rank = ? WHERE user_id = ?", changed);
+            for (Object[] row : changed) {
+                persistedHouseholdRanks.put((Long) row[1], (Integer) row[0]);
+            }
+        }
+    }
+
+    private static void award(Map<String, OrderStatisticTree<Ranked>> scopes, Map<Long, Ranked> byUserId,
+                              EcoPointsAwardedEvent event) {
+        Ranked current = byUserId.get(event.getUserId());
+        if (current != null) {
+            replace(scopes, byUserId, current, current.withPoints(current.points + event.getPoints()));
+        }
+    }
+
+    private static void register(Map<String, OrderStatisticTree<Ranked>> scopes, Map<Long, Ranked> byUserId,
+                                 UserRegisteredEvent event) {
+        if (!byUserId.containsKey(event.getUserId())) {
+            add(scopes, byUserId, new Ranked(event.getUserId(), event.getName(), event.getCity(), event.getRole(), 0));
+        }
+    }
+
+    private static void replace(Map<String, OrderStatisticTree<Ranked>> scopes, Map<Long, Ranked> byUserId,
+                                Ranked current, Ranked updated) {
+        for (String key : scopeKeys(current)) {
+            OrderStatisticTree<Ranked> tree = scopes.get(key);
+            tree.remove(current);
+            tree.insert(updated);
+        }
+        byUserId.put(updated.userId, updated);
+    }
+
+    private static void add(Map<String, OrderStatisticTree<Ranked>> scopes, Map<Long, Ranked> byUserId, Ranked ranked) {
+        for (String key : scopeKeys(ranked)) {
+            scopes.computeIfAbsent(key, k -> new OrderStatisticTree<>(ORDER)).insert(ranked);
+        }
+        byUserId.put(ranked.userId, ranked);
+    }
+
+    private static List<String> scopeKeys(Ranked ranked) {
+        return ranked.city != null
+                ? List.of(scopeKey(ranked.role, null), scopeKey(ranked.role, ranked.city))
+                : List.of(scopeKey(ranked.role, null));
+    }
+
+    private static String scopeKey(User.UserRole role, String city) {
+        return city == null || city.isBlank() ? role.name() : role.name() + ":" + city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static List<LeaderboardEntry> toEntries(List<Ranked> ranked, int offset) {
+        List<LeaderboardEntry> entries = new ArrayList<>(ranked.size());
+        for (int i = 0; i < ranked.size(); i++) {
+            Ranked r = ranked.get(i);
+            entries.add(new LeaderboardEntry(offset + i + 1, r.userId, r.name, r.city, r.points));
+        }
+        return entries;
+    }
+}
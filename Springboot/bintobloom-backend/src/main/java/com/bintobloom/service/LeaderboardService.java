@@ -1,7 +1,7 @@
 package com.bintobloom.service;
 
-import com.bintobloom.entity.HouseholdDetails;
-import com.bintobloom.entity.BusinessDetails;
+import com.bintobloom.dto.BusinessStanding;
+import com.bintobloom.dto.HouseholdStanding;
 import com.bintobloom.repository.HouseholdDetailsRepository;
 import com.bintobloom.repository.BusinessDetailsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,19 +18,19 @@ public class LeaderboardService {
     @Autowired
     private BusinessDetailsRepository businessDetailsRepository;
     
-    public List<HouseholdDetails> getHouseholdLeaderboard() {
+    public List<HouseholdStanding> getHouseholdLeaderboard() {
         return householdDetailsRepository.findAllOrderByEcoPointsDesc();
     }
     
-    public List<HouseholdDetails> getHouseholdLeaderboardByCity(String city) {
+    public List<HouseholdStanding> getHouseholdLeaderboardByCity(String city) {
         return householdDetailsRepository.findByCityOrderByEcoPointsDesc(city);
     }
     
-    public List<BusinessDetails> getBusinessLeaderboard() {
+    public List<BusinessStanding> getBusinessLeaderboard() {
         return businessDetailsRepository.findAllOrderBySustainabilityScoreDesc();
     }
     
-    public List<BusinessDetails> getBusinessLeaderboardByCity(String city) {
+    public List<BusinessStanding> getBusinessLeaderboardByCity(String city) {
         return businessDetailsRepository.findByCityOrderBySustainabilityScoreDesc(city);
     }
 }
\ No newline at end of file
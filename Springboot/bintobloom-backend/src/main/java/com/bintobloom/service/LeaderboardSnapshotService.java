@@ -0,0 +1,174 @@
+package com.bintobloom.service;
+
+import com.bintobloom.dto.MonthlyLeaderboardEntry;
+import com.bintobloom.repository.LeaderboardRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes monthly waste rankings into the leaderboard table. A month is computed in one streaming pass over
+ * its waste logs, ranked globally (city = null) and per city, and replaced as a whole, so reading a month
+ * back is an indexed range scan on (month, city, rank_position) however much live data has accumulated.
+ *
+ * <p>As in {@link DataExportService}, the pass uses a forward-only, read-only statement with a fetch size of
+ * {@code Integer.MIN_VALUE} on MySQL, the only setting under which Connector/J streams rather than buffering
+ * the month's rows; other databases get {@code app.leaderboard.snapshot-fetch-size}.
+ */
+@Service
+public class LeaderboardSnapshotService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO leaderboard (user_id, month, city, total_waste, rank_position) VALUES (?, ?, ?, ?, ?)";
+
+    private static final Comparator<UserTotal> ORDER = Comparator
+            .comparing((UserTotal t) -> t.totalWaste).reversed()
+            .thenComparingLong(t -> t.userId);
+
+    private static final class UserTotal {
+        final long userId;
+        final String city;
+        BigDecimal totalWaste = BigDecimal.ZERO;
+
+        UserTotal(long userId, String city) {
+            this.userId = userId;
+            this.city = city;
+        }
+    }
+
+    @Autowired
+    private LeaderboardRepository leaderboardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.leaderboard.snapshot-fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${app.leaderboard.snapshot-batch-size:500}")
+    private int batchSize;
+
+    private volatile Boolean mySql;
+
+    public List<MonthlyLeaderboardEntry> getMonth(YearMonth month, String city, int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size);
+        return city == null || city.isBlank()
+                ? leaderboardRepository.findGlobalByMonth(month.toString(), pageable)
+                : leaderboardRepository.findByMonthAndCity(month.toString(), city.trim(), pageable);
+    }
+
+    public long countMonth(YearMonth month, String city) {
+        return city == null || city.isBlank()
+                ? leaderboardRepository.countByMonthAndCityIsNull(month.toString())
+                : leaderboardRepository.countByMonthAndCity(month.toString(), city.trim());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        YearMonth previous = YearMonth.now().minusMonths(1);
+        if (!leaderboardRepository.existsByMonth(previous.toString())) {
+            snapshot(previous);
+        }
+    }
+
+    @Scheduled(cron = "${app.leaderboard.snapshot-cron:0 15 0 1 * *}")
+    public void snapshotPreviousMonth() {
+        snapshot(YearMonth.now().minusMonths(1));
+    }
+
+    /**
+     * Recomputes and replaces the rankings for {@code month}. Ties share a rank (1, 2, 2, 4).
+     *
+     * @return the number of leaderboard rows written
+     */
+    public synchronized int snapshot(YearMonth month) {
+        Map<Long, UserTotal> totals = new HashMap<>();
+
+        int streamingFetchSize = isMySql() ? Integer.MIN_VALUE : fetchSize;
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT pr.user_id, u.city, wl.weight_kg " +
+                    "FROM waste_logs wl " +
+                    "JOIN pickup_requests pr ON pr.pickup_id = wl.pickup_id " +
+                    "JOIN users u ON u.user_id = pr.user_id " +
+                    "WHERE wl.collected_at >= ? AND wl.collected_at < ?",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(streamingFetchSize);
+            statement.setTimestamp(1, Timestamp.valueOf(month.atDay(1).atStartOfDay()));
+            statement.setTimestamp(2, Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            long userId = rs.getLong(1);
+            String city = rs.getString(2);
+            UserTotal total = totals.computeIfAbsent(userId, id -> new UserTotal(id, city));
+            total.totalWaste = total.totalWaste.add(rs.getBigDecimal(3));
+        });
+
+        List<UserTotal> global = new ArrayList<>(totals.values());
+        global.sort(ORDER);
+        Map<String, List<UserTotal>> byCity = new HashMap<>();
+        for (UserTotal total : global) {
+            byCity.computeIfAbsent(total.city, c -> new ArrayList<>()).add(total);
+        }
+
+        List<Object[]> rows = new ArrayList<>(global.size() * 2);
+        addRanked(rows, month.toString(), null, global);
+        byCity.forEach((city, ranked) -> addRanked(rows, month.toString(), city, ranked));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM leaderboard WHERE month = ?", month.toString());
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+            }
+        });
+        System.out.println("Leaderboard snapshot for " + month + ": " + totals.size() + " users, " + rows.size() + " rows");
+        return rows.size();
+    }
+
+    private static void addRanked(List<Object[]> rows, String month, String city, List<UserTotal> ordered) {
+        int rank = 0;
+        BigDecimal previous = null;
+        for (int i = 0; i < ordered.size(); i++) {
+            UserTotal total = ordered.get(i);
+            if (previous == null || total.totalWaste.compareTo(previous) != 0) {
+                rank = i + 1;
+                previous = total.totalWaste;
+            }
+            rows.add(new Object[] {total.userId, month, city, total.totalWaste, rank});
+        }
+    }
+
+    private boolean isMySql() {
+        Boolean cached = mySql;
+        if (cached == null) {
+            cached = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql"));
+            mySql = cached;
+        }
+        return cached;
+    }
+}
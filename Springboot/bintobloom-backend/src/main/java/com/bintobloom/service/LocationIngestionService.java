@@ -0,0 +1,336 @@
+package com.bintobloom.service;
+
+import com.bintobloom.dto.LocationPing;
+import com.bintobloom.entity.PickupRequest;
+import com.bintobloom.event.CollectorLocationEvent;
+import com.bintobloom.event.PickupStatusChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ingests collector GPS pings without touching the database on the request path. Each collector has a
+ * lock-free ring buffer that request threads append to and a latest-position slot that tracking reads from.
+ * The buffers are drained every {@code app.tracking.flush-interval-ms}, or as soon as
+ * {@code app.tracking.flush-batch-size} pings are waiting, into tracking_logs rows for the collector's active
+ * pickups with one JDBC batch. The users row is only refreshed every {@code app.tracking.user-writeback-ms}.
+ *
+ * <p>If a collector sends more pings between flushes than the buffer holds, the oldest are dropped.
+ */
+@Service
+public class LocationIngestionService {
+
+    public static final Set<PickupRequest.PickupStatus> TRACKED_STATUSES = EnumSet.of(
+            PickupRequest.PickupStatus.ASSIGNED,
+            PickupRequest.PickupStatus.IN_PROGRESS,
+            PickupRequest.PickupStatus.PAYMENT_PENDING,
+            PickupRequest.PickupStatus.PAID);
+
+    public record Position(double latitude, double longitude, long recordedAt) {
+    }
+
+    private static final class Ping {
+        final long sequence;
+        final Long pickupId;
+        final Position position;
+
+        Ping(long sequence, Long pickupId, Position position) {
+            this.sequence = sequence;
+            this.pickupId = pickupId;
+            this.position = position;
+        }
+    }
+
+    // Many request threads append, only the flusher reads, so producers claim a sequence and publish into its slot
+    private static final class Track {
+        final AtomicLong writeSequence = new AtomicLong();
+        final AtomicReferenceArray<Ping> slots;
+        final int mask;
+        final AtomicReference<Position> latest = new AtomicReference<>();
+        long readSequence;
+        Position writtenBack;
+
+        Track(int capacity) {
+            slots = new AtomicReferenceArray<>(capacity);
+            mask = capacity - 1;
+        }
+
+        void offer(Long pickupId, Position position) {
+            long sequence = writeSequence.getAndIncrement();
+            slots.set((int) (sequence & mask), new Ping(sequence, pickupId, position));
+            latest.accumulateAndGet(position,
+                    (current, next) -> current == null || next.recordedAt() >= current.recordedAt() ? next : current);
+        }
+
+        /**
+         * @return how many pings were overwritten before they could be drained
+         */
+        long drainTo(List<Ping> out) {
+            long dropped = 0;
+            long end = writeSequence.get();
+            if (end - readSequence > slots.length()) {
+                dropped += end - slots.length() - readSequence;
+                readSequence = end - slots.length();
+            }
+            while (readSequence < end) {
+                Ping ping = slots.get((int) (readSequence & mask));
+                if (ping == null || ping.sequence < readSequence) {
+                    // Claimed but not yet published; it goes out with the next flush
+                    break;
+                }
+                if (ping.sequence == readSequence) {
+                    out.add(ping);
+                } else {
+                    dropped++;
+                }
+                readSequence++;
+            }
+            return dropped;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.tracking.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.tracking.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${app.tracking.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    @Value("${app.tracking.user-writeback-ms:60000}")
+    private long userWritebackMs;
+
+    private final Map<Long, Track> tracks = new ConcurrentHashMap<>();
+    private final Map<Long, Long> collectorByPickup = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> pickupsByCollector = new ConcurrentHashMap<>();
+    // Keeps the two maps above in step; separate from the flush monitor so status listeners, which run on
+    // request threads after commit, never wait behind a tracking_logs insert
+    private final Object assignmentLock = new Object();
+
+    private final AtomicLong waiting = new AtomicLong();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "tracking-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder rowsWritten = new LongAdder();
+    private final LongAdder usersWrittenBack = new LongAdder();
+    private long lastUserWriteback;
+
+    /**
+     * Validates and buffers a batch of pings, each with latitude and longitude plus optional pickupId and
+     * recordedAt (epoch millis, defaults to now). Pings without a pickupId are logged against every pickup the
+     * collector is currently working on.
+     *
+     * @return the number of pings accepted
+     */
+    public int ingest(Long collectorId, List<LocationPing> pings) {
+        if (pings.isEmpty() || pings.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Send between 1 and " + maxBatchSize + " location pings");
+        }
+        long now = System.currentTimeMillis();
+        List<Object[]> parsed = new ArrayList<>(pings.size());
+        for (LocationPing ping : pings) {
+            if (ping == null || ping.getLatitude() == null || ping.getLongitude() == null) {
+                throw new IllegalArgumentException("Latitude and longitude are required");
+            }
+            double lat = ping.getLatitude();
+            double lng = ping.getLongitude();
+            if (!(lat >= -90 && lat <= 90 && lng >= -180 && lng <= 180)) {
+                throw new IllegalArgumentException("Latitude or longitude is out of range");
+            }
+            // Device clocks run ahead; a ping is never recorded as later than its arrival
+            long recordedAt = ping.getRecordedAt() != null ? Math.min(ping.getRecordedAt(), now) : now;
+            parsed.add(new Object[] {ping.getPickupId(), lat, lng, recordedAt});
+        }
+        for (Object[] ping : parsed) {
+            ingest(collectorId, (Long) ping[0], (Double) ping[1], (Double) ping[2], (Long) ping[3]);
+        }
+        Position latest = getLatestPosition(collectorId);
+        eventPublisher.publishEvent(new CollectorLocationEvent(
+                collectorId, latest.latitude(), latest.longitude(), latest.recordedAt()));
+        return parsed.size();
+    }
+
+    private void ingest(Long collectorId, Long pickupId, double latitude, double longitude, long recordedAt) {
+        tracks.computeIfAbsent(collectorId, id -> new Track(Integer.highestOneBit(Math.max(bufferSize - 1, 1)) << 1))
+                .offer(pickupId, new Position(latitude, longitude, recordedAt));
+        accepted.increment();
+        if (waiting.incrementAndGet() >= flushBatchSize && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(this::flush);
+        }
+    }
+
+    /**
+     * @return the collector's most recent ping since startup, or null if none has been received
+     */
+    public Position getLatestPosition(Long collectorId) {
+        Track track = tracks.get(collectorId);
+        return track != null ? track.latest.get() : null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPickupStatusChanged(PickupStatusChangedEvent event) {
+        synchronized (assignmentLock) {
+            Long previousCollector = collectorByPickup.remove(event.getPickupId());
+            if (previousCollector != null) {
+                // Collectors with nothing left to track are dropped so the map does not keep every one ever seen
+                pickupsByCollector.computeIfPresent(previousCollector, (id, pickups) -> {
+                    pickups.remove(event.getPickupId());
+                    return pickups.isEmpty() ? null : pickups;
+                });
+            }
+            if (event.getCollectorId() != null && TRACKED_STATUSES.contains(event.getStatus())) {
+                track(event.getPickupId(), event.getCollectorId());
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void initialize() {
+        synchronized (assignmentLock) {
+            jdbcTemplate.query(
+                    "SELECT pickup_id, collector_id FROM pickup_requests " +
+                    "WHERE collector_id IS NOT NULL AND pickup_status IN ('ASSIGNED', 'IN_PROGRESS', 'PAYMENT_PENDING', 'PAID')",
+                    rs -> {
+                        track(rs.getLong(1), rs.getLong(2));
+                    });
+        }
+        lastUserWriteback = System.currentTimeMillis();
+    }
+
+    @Scheduled(initialDelayString = "${app.tracking.flush-interval-ms:2000}",
+               fixedDelayString = "${app.tracking.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        flushRequested.set(false);
+
+        List<Object[]> rows = new ArrayList<>();
+        List<Ping> pings = new ArrayList<>();
+        for (Map.Entry<Long, Track> entry : tracks.entrySet()) {
+            pings.clear();
+            long overwritten = entry.getValue().drainTo(pings);
+            dropped.add(overwritten);
+            Set<Long> active = pickupsByCollector.getOrDefault(entry.getKey(), Set.of());
+            for (Ping ping : pings) {
+                if (ping.pickupId != null) {
+                    if (active.contains(ping.pickupId)) {
+                        rows.add(row(ping.pickupId, ping.position));
+                    }
+                } else {
+                    for (Long pickupId : active) {
+                        rows.add(row(pickupId, ping.position));
+                    }
+                }
+            }
+            waiting.addAndGet(-(pings.size() + overwritten));
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO tracking_logs (pickup_id, latitude, longitude, timestamp) VALUES (?, ?, ?, ?)", rows);
+            rowsWritten.add(rows.size());
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - lastUserWriteback >= userWritebackMs) {
+            writeBackUsers();
+            lastUserWriteback = now;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        flush();
+        writeBackUsers();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("collectors", tracks.size());
+        stats.put("trackedPickups", collectorByPickup.size());
+        stats.put("waiting", waiting.get());
+        stats.put("accepted", accepted.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("rowsWritten", rowsWritten.sum());
+        stats.put("usersWrittenBack", usersWrittenBack.sum());
+        return stats;
+    }
+
+    // users.latitude/longitude still feed the nearby-requests default and anything reading the profile
+    private synchronized void writeBackUsers() {
+        List<Object[]> rows = new ArrayList<>();
+        List<Track> written = new ArrayList<>();
+        List<Position> positions = new ArrayList<>();
+        tracks.forEach((collectorId, track) -> {
+            Position latest = track.latest.get();
+            if (latest != null && latest != track.writtenBack) {
+                rows.add(new Object[] {coordinate(latest.latitude()), coordinate(latest.longitude()), collectorId});
+                written.add(track);
+                positions.add(latest);
+            }
+        });
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("UPDATE users SET latitude = ?, longitude = ? WHERE user_id = ?", rows);
+        for (int i = 0; i < written.size(); i++) {
+            written.get(i).writtenBack = positions.get(i);
+        }
+        usersWrittenBack.add(rows.size());
+    }
+
+    // Callers hold assignmentLock
+    private void track(Long pickupId, Long collectorId) {
+        collectorByPickup.put(pickupId, collectorId);
+        pickupsByCollector.computeIfAbsent(collectorId, id -> ConcurrentHashMap.newKeySet()).add(pickupId);
+    }
+
+    private static Object[] row(Long pickupId, Position position) {
+        return new Object[] {
+                pickupId,
+                coordinate(position.latitude()),
+                coordinate(position.longitude()),
+                new Timestamp(position.recordedAt())
+        };
+    }
+
+    private static BigDecimal coordinate(double degrees) {
+        return BigDecimal.valueOf(degrees).setScale(8, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,181 @@
+package com.bintobloom.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Randomised treap whose nodes track subtree sizes, giving O(log n) insert, remove, rank-of-key and
+ * key-at-rank. Keys must be unique under the comparator. Not thread-safe; callers synchronise.
+ */
+class OrderStatisticTree<K> {
+
+    private static final class Node<K> {
+        final K key;
+        final int priority;
+        int size = 1;
+        Node<K> left;
+        Node<K> right;
+
+        Node(K key) {
+            this.key = key;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    private static final class Split<K> {
+        Node<K> less;
+        Node<K> rest;
+    }
+
+    private final Comparator<? super K> comparator;
+    private Node<K> root;
+
+    OrderStatisticTree(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    void clear() {
+        root = null;
+    }
+
+    void insert(K key) {
+        Split<K> parts = split(root, key);
+        root = merge(merge(parts.less, new Node<>(key)), parts.rest);
+    }
+
+    boolean remove(K key) {
+        int before = size(root);
+        root = remove(root, key);
+        return size(root) < before;
+    }
+
+    /**
+     * @return the 0-based position of {@code key}, or -1 if it is not in the tree
+     */
+    int rank(K key) {
+        int rank = 0;
+        Node<K> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(key, node.key);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return rank + size(node.left);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the key at 0-based position {@code index}, or null if out of range
+     */
+    K select(int index) {
+        Node<K> node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.key;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns up to {@code limit} keys in order starting at position {@code offset}.
+     */
+    List<K> range(int offset, int limit) {
+        List<K> result = new ArrayList<>(Math.max(0, Math.min(limit, size() - offset)));
+        collect(root, offset, limit, result);
+        return result;
+    }
+
+    private void collect(Node<K> node, int offset, int limit, List<K> out) {
+        if (node == null || out.size() >= limit) {
+            return;
+        }
+        int leftSize = size(node.left);
+        if (offset < leftSize) {
+            collect(node.left, offset, limit, out);
+        }
+        if (offset <= leftSize && out.size() < limit) {
+            out.add(node.key);
+        }
+        if (out.size() < limit) {
+            collect(node.right, Math.max(0, offset - leftSize - 1), limit, out);
+        }
+    }
+
+    // Splits into keys strictly less than {@code key} and keys greater than or equal to it
+    private Split<K> split(Node<K> node, K key) {
+        if (node == null) {
+            return new Split<>();
+        }
+        if (comparator.compare(node.key, key) < 0) {
+            Split<K> parts = split(node.right, key);
+            node.right = parts.less;
+            update(node);
+            parts.less = node;
+            return parts;
+        }
+        Split<K> parts = split(node.left, key);
+        node.left = parts.rest;
+        update(node);
+        parts.rest = node;
+        return parts;
+    }
+
+    private Node<K> merge(Node<K> left, Node<K> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private Node<K> remove(Node<K> node, K key) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = comparator.compare(key, node.key);
+        if (cmp < 0) {
+            node.left = remove(node.left, key);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, key);
+        } else {
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    private void update(Node<K> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private int size(Node<K> node) {
+        return node == null ? 0 : node.size;
+    }
+}
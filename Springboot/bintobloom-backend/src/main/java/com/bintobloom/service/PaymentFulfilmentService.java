@@ -0,0 +1,307 @@
+package com.bintobloom.service;
+
+import com.bintobloom.entity.PickupRequest;
+import com.bintobloom.event.PaymentChangedEvent;
+import com.bintobloom.event.PickupStatusChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Applies verified payments from the payment_fulfilment_tasks outbox. Verification only records a task, keyed
+ * by the Razorpay order id, and answers; workers then claim pending tasks in batches and, per task in its own
+ * transaction, mark the payment COMPLETED and its pickup PAID.
+ *
+ * <p>Both updates are conditional on the state they move from, so a task applied twice (a retried verify, or a
+ * claim that expired mid-way and was taken by another instance) changes nothing the second time. Eco-points
+ * and leaderboard totals follow from the collector completing the pickup, which is guarded the same way in
+ * {@link PickupCompletionService}.
+ *
+ * <p>Workers are woken as soon as a task is recorded and every {@code app.payment.fulfilment.poll-interval-ms}
+ * for tasks left by other instances or due for a retry. A failing task is retried with a growing delay and
+ * marked FAILED after {@code max-attempts}.
+ */
+@Service
+public class PaymentFulfilmentService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private record Task(long taskId, long paymentId, Long userId, String razorpayPaymentId, String razorpaySignature,
+                        int attempts) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.payment.fulfilment.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.payment.fulfilment.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${app.payment.fulfilment.retry-delay-ms:5000}")
+    private long retryDelayMs;
+
+    @Value("${app.payment.fulfilment.max-attempts:5}")
+    private int maxAttempts;
+
+    private final int workers;
+    private final ExecutorService executor;
+    private final AtomicInteger draining = new AtomicInteger();
+    private final AtomicBoolean signalled = new AtomicBoolean();
+
+    private volatile String lastWorkerError;
+
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public PaymentFulfilmentService(@Value("${app.payment.fulfilment.workers:2}") int workers) {
+        this.workers = Math.max(1, workers);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.workers, r -> {
+            Thread thread = new Thread(r, "payment-fulfilment-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Records a verified payment for fulfilment. Recording the same order again is a no-op.
+     *
+     * @return the status of the order's task: PENDING when just recorded
+     * @throws IllegalArgumentException if the order id is missing or belongs to no payment
+     */
+    public String enqueue(String razorpayOrderId, String razorpayPaymentId, String razorpaySignature) {
+        if (razorpayOrderId == null || razorpayOrderId.isBlank()) {
+            throw new IllegalArgumentException("razorpay_order_id is required");
+        }
+        int inserted;
+        try {
+            inserted = jdbcTemplate.update(
+                    "INSERT INTO payment_fulfilment_tasks (razorpay_order_id, payment_id, razorpay_payment_id, " +
+                    "razorpay_signature, status, attempts, created_at) " +
+                    "SELECT ?, p.payment_id, ?, ?, 'PENDING', 0, ? FROM payments p WHERE p.razorpay_order_id = ? LIMIT 1",
+                    razorpayOrderId, razorpayPaymentId, razorpaySignature, Timestamp.valueOf(LocalDateTime.now()),
+                    razorpayOrderId);
+        } catch (DuplicateKeyException e) {
+            duplicates.increment();
+            String status = getStatus(razorpayOrderId, null);
+            return status != null ? status : "PENDING";
+        }
+        if (inserted == 0) {
+            throw new IllegalArgumentException("Payment not found for this order");
+        }
+        wake();
+        return "PENDING";
+    }
+
+    /**
+     * @param userId only return the task if the payment belongs to this user; null for any payment
+     * @return the status of the order's task, or null if it has none
+     */
+    public String getStatus(String razorpayOrderId, Long userId) {
+        List<String> statuses = jdbcTemplate.queryForList(
+                "SELECT t.status FROM payment_fulfilment_tasks t JOIN payments p ON p.payment_id = t.payment_id " +
+                "WHERE t.razorpay_order_id = ?" + (userId != null ? " AND p.user_id = ?" : ""),
+                String.class, userId != null ? new Object[] {razorpayOrderId, userId} : new Object[] {razorpayOrderId});
+        return statuses.isEmpty() ? null : statuses.get(0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.payment.fulfilment.poll-interval-ms:5000}",
+               fixedDelayString = "${app.payment.fulfilment.poll-interval-ms:5000}")
+    public void wake() {
+        signalled.set(true);
+        int running;
+        while ((running = draining.get()) < workers) {
+            if (draining.compareAndSet(running, running + 1)) {
+                executor.execute(this::drain);
+                return;
+            }
+        }
+    }
+
+    private void drain() {
+        boolean failedRun = false;
+        try {
+            do {
+                signalled.set(false);
+                while (claimAndApply() > 0) {
+                    // keep going until the outbox is empty
+                }
+            } while (signalled.get());
+        } catch (RuntimeException e) {
+            // Usually the database being unreachable; the next poll tries again
+            lastWorkerError = String.valueOf(e.getMessage());
+            failedRun = true;
+        } finally {
+            draining.decrementAndGet();
+        }
+        // A task recorded while this worker was leaving must not wait for the next poll
+        if (!failedRun && signalled.get()) {
+            wake();
+        }
+    }
+
+    // Returns how many tasks were looked at, so the caller knows whether to go on
+    private int claimAndApply() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> candidates = jdbcTemplate.queryForList(
+                "SELECT task_id FROM payment_fulfilment_tasks WHERE status = 'PENDING' " +
+                "AND (claimed_until IS NULL OR claimed_until < ?) ORDER BY task_id LIMIT ?",
+                Long.class, Timestamp.valueOf(now), batchSize);
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        String token = UUID.randomUUID().toString();
+        jdbcTemplate.update(
+                "UPDATE payment_fulfilment_tasks SET claim_token = ?, claimed_until = ? " +
+                "WHERE status = 'PENDING' AND (claimed_until IS NULL OR claimed_until < ?) AND task_id IN (" +
+                candidates.stream().map(String::valueOf).collect(Collectors.joining(", ")) + ")",
+                token, Timestamp.valueOf(now.plusNanos(leaseMs * 1_000_000)), Timestamp.valueOf(now));
+        List<Task> tasks = jdbcTemplate.query(
+                "SELECT t.task_id, t.payment_id, p.user_id, t.razorpay_payment_id, t.razorpay_signature, t.attempts " +
+                "FROM payment_fulfilment_tasks t JOIN payments p ON p.payment_id = t.payment_id " +
+                "WHERE t.claim_token = ? ORDER BY t.task_id",
+                (rs, i) -> new Task(rs.getLong(1), rs.getLong(2), rs.getObject(3, Long.class), rs.getString(4),
+                        rs.getString(5), rs.getInt(6)),
+                token);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (Task task : tasks) {
+            try {
+                transaction.executeWithoutResult(status -> apply(task, token));
+            } catch (RuntimeException e) {
+                recordFailure(task, token, e);
+            }
+        }
+        return candidates.size();
+    }
+
+    private void apply(Task task, String token) {
+        LocalDateTime now = LocalDateTime.now();
+        int paid = jdbcTemplate.update(
+                "UPDATE payments SET status = 'COMPLETED', razorpay_payment_id = ?, razorpay_signature = ?, updated_at = ? " +
+                "WHERE payment_id = ? AND status <> 'COMPLETED'",
+                task.razorpayPaymentId(), task.razorpaySignature(), Timestamp.valueOf(now), task.paymentId());
+        if (paid == 0) {
+            duplicates.increment();
+        } else {
+            markPickupsPaid(List.of(task.paymentId()));
+            eventPublisher.publishEvent(new PaymentChangedEvent(task.paymentId(), task.userId()));
+            applied.increment();
+        }
+        jdbcTemplate.update(
+                "UPDATE payment_fulfilment_tasks SET status = 'DONE', processed_at = ?, claim_token = NULL, " +
+                "claimed_until = NULL, last_error = NULL WHERE task_id = ? AND claim_token = ?",
+                Timestamp.valueOf(now), task.taskId(), token);
+    }
+
+    /**
+     * Moves the pickups billed by these payments from PAYMENT_PENDING to PAID and publishes their status events;
+     * eco-points are awarded when the collector completes them. Runs in the caller's transaction.
+     */
+    void markPickupsPaid(Collection<Long> paymentIds) {
+        if (paymentIds.isEmpty()) {
+            return;
+        }
+        List<PickupStatusChangedEvent> events = jdbcTemplate.query(
+                "SELECT pr.pickup_id, pr.user_id, pr.collector_id, pr.waste_type, pr.scheduled_date, pr.latitude, pr.longitude " +
+                "FROM pickup_requests pr JOIN payments p ON p.pickup_id = pr.pickup_id " +
+                "WHERE pr.pickup_status = 'PAYMENT_PENDING' AND p.payment_id IN (" +
+                paymentIds.stream().map(String::valueOf).collect(Collectors.joining(", ")) + ") ORDER BY pr.pickup_id",
+                (rs, i) -> {
+                    Date scheduledDate = rs.getDate(5);
+                    return new PickupStatusChangedEvent(rs.getLong(1), rs.getLong(2), rs.getObject(3, Long.class),
+                            PickupRequest.WasteType.valueOf(rs.getString(4)),
+                            scheduledDate != null ? scheduledDate.toLocalDate() : null,
+                            PickupRequest.PickupStatus.PAYMENT_PENDING, PickupRequest.PickupStatus.PAID,
+                            rs.getBigDecimal(6), rs.getBigDecimal(7));
+                });
+        if (events.isEmpty()) {
+            return;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(
+                "UPDATE pickup_requests SET pickup_status = 'PAID' WHERE pickup_id = ? AND pickup_status = 'PAYMENT_PENDING'",
+                events.stream().map(event -> new Object[] {event.getPickupId()}).toList());
+        for (int i = 0; i < events.size(); i++) {
+            // SUCCESS_NO_INFO is negative: the driver did not say, and the row was PAYMENT_PENDING when read
+            if (counts[i] != 0) {
+                eventPublisher.publishEvent(events.get(i));
+            }
+        }
+    }
+
+    private void recordFailure(Task task, String token, RuntimeException error) {
+        int attempts = task.attempts() + 1;
+        boolean giveUp = attempts >= maxAttempts;
+        String message = String.valueOf(error.getMessage());
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+        // The claim stays in place as the delay before the next attempt
+        LocalDateTime retryAt = LocalDateTime.now().plusNanos(retryDelayMs * attempts * 1_000_000);
+        jdbcTemplate.update(
+                "UPDATE payment_fulfilment_tasks SET status = ?, attempts = ?, last_error = ?, claim_token = NULL, " +
+                "claimed_until = ? WHERE task_id = ? AND claim_token = ?",
+                giveUp ? "FAILED" : "PENDING", attempts, message, Timestamp.valueOf(retryAt), task.taskId(), token);
+        if (giveUp) {
+            failed.increment();
+        } else {
+            retried.increment();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        jdbcTemplate.query("SELECT status, COUNT(*) FROM payment_fulfilment_tasks GROUP BY status",
+                rs -> {
+                    stats.put(rs.getString(1).toLowerCase(), rs.getLong(2));
+                });
+        stats.put("applied", applied.sum());
+        stats.put("duplicates", duplicates.sum());
+        stats.put("retried", retried.sum());
+        stats.put("gaveUp", failed.sum());
+        stats.put("workersBusy", draining.get());
+        if (lastWorkerError != null) {
+            stats.put("lastWorkerError", lastWorkerError);
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,54 @@
+package com.bintobloom.service;
+
+/**
+ * The payment provider orders are created with. Implementations are blocking: request paths call them through
+ * {@link PaymentGatewayClient}, which bounds and times them, and background jobs from their own bounded pools.
+ * {@code app.payment.gateway} picks razorpay (the default) or stub.
+ */
+public interface PaymentGateway {
+
+    record Order(String id, long amount, String currency) {
+    }
+
+    /**
+     * Whether an order has a captured payment; paymentId is set when it does. authorized is set when a payment
+     * was authorized but not yet captured, so the order may still be paid.
+     */
+    record OrderStatus(String orderId, boolean paid, String paymentId, boolean authorized) {
+    }
+
+    /**
+     * The provider rejected or failed the call. rejected is set when the provider answered and refused the request
+     * itself (a 4xx), which says nothing about its health.
+     */
+    class GatewayException extends RuntimeException {
+        private final boolean rejected;
+
+        public GatewayException(String message, Throwable cause) {
+            this(message, cause, false);
+        }
+
+        public GatewayException(String message, Throwable cause, boolean rejected) {
+            super(message, cause);
+            this.rejected = rejected;
+        }
+
+        public boolean isRejected() {
+            return rejected;
+        }
+    }
+
+    /**
+     * @param amountPaise amount in the smallest currency unit
+     * @throws GatewayException if the provider call fails
+     */
+    Order createOrder(long amountPaise, String currency, String receipt);
+
+    /**
+     * @throws GatewayException if the provider call fails
+     */
+    OrderStatus fetchOrderStatus(String orderId);
+
+    /** Public key the checkout page opens the order with. */
+    String getKeyId();
+}
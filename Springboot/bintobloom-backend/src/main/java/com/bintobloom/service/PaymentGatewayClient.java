@@ -0,0 +1,199 @@
+package com.bintobloom.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Calls the {@link PaymentGateway} off the request threads, so a slow provider cannot stall the rest of the
+ * API:
+ * <ul>
+ *   <li>calls run on a bounded pool with a bounded queue; when both are full the call is refused at once
+ *       (bulkhead) instead of piling up;</li>
+ *   <li>callers stop waiting after {@code app.payment.gateway.timeout-ms};</li>
+ *   <li>after {@code failure-threshold} failures in a row the circuit opens and calls are refused for
+ *       {@code open-ms}, then a single trial call decides whether it closes again. Timeouts, I/O errors and
+ *       provider 5xx count as failures; a request the provider rejects (4xx) does not.</li>
+ * </ul>
+ * Refused and timed-out calls fail with {@link UnavailableException}; errors from the provider itself with
+ * {@link PaymentGateway.GatewayException}.
+ *
+ * <p>The backend targets Java 17, so the pool uses platform threads. A call that times out keeps its worker
+ * until the HTTP client gives up; the bulkhead is what bounds those.
+ */
+@Service
+public class PaymentGatewayClient {
+
+    /** The gateway was not called or did not answer in time; worth retrying later. */
+    public static class UnavailableException extends RuntimeException {
+        public UnavailableException(String message) {
+            super(message);
+        }
+    }
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    @Autowired
+    private PaymentGateway gateway;
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final int failureThreshold;
+    private final long openMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong rejectedBusy = new AtomicLong();
+    private final AtomicLong rejectedOpen = new AtomicLong();
+    private final AtomicLong providerRejections = new AtomicLong();
+
+    public PaymentGatewayClient(@Value("${app.payment.gateway.max-concurrency:16}") int maxConcurrency,
+                                @Value("${app.payment.gateway.queue-capacity:32}") int queueCapacity,
+                                @Value("${app.payment.gateway.timeout-ms:5000}") long timeoutMs,
+                                @Value("${app.payment.gateway.failure-threshold:5}") int failureThreshold,
+                                @Value("${app.payment.gateway.open-ms:30000}") long openMs) {
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "payment-gateway-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.timeoutMs = timeoutMs;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMs = openMs;
+    }
+
+    public String getKeyId() {
+        return gateway.getKeyId();
+    }
+
+    /**
+     * Creates an order without blocking the caller. The future fails with {@link UnavailableException} or
+     * {@link PaymentGateway.GatewayException}, wrapped in a {@link CompletionException} when observed through
+     * dependent stages.
+     */
+    public CompletableFuture<PaymentGateway.Order> createOrder(long amountPaise, String currency, String receipt) {
+        if (!acquire()) {
+            rejectedOpen.incrementAndGet();
+            return CompletableFuture.failedFuture(new UnavailableException("Payment gateway is unavailable, please try again shortly"));
+        }
+        CompletableFuture<PaymentGateway.Order> call;
+        try {
+            call = CompletableFuture.supplyAsync(() -> gateway.createOrder(amountPaise, currency, receipt), executor);
+        } catch (RejectedExecutionException e) {
+            release();
+            rejectedBusy.incrementAndGet();
+            return CompletableFuture.failedFuture(new UnavailableException("Payment gateway is busy, please try again shortly"));
+        }
+        calls.incrementAndGet();
+        return call.orTimeout(timeoutMs, TimeUnit.MILLISECONDS).handle((order, error) -> {
+            if (error == null) {
+                onSuccess();
+                return order;
+            }
+            Throwable cause = unwrap(error);
+            // A request the provider refused shows the provider is answering, so it does not count toward the circuit
+            if (cause instanceof PaymentGateway.GatewayException gatewayException && gatewayException.isRejected()) {
+                providerRejections.incrementAndGet();
+                onSuccess();
+                throw gatewayException;
+            }
+            onFailure();
+            if (cause instanceof TimeoutException) {
+                timeouts.incrementAndGet();
+                throw new UnavailableException("Payment gateway did not answer in time, please try again");
+            }
+            if (cause instanceof PaymentGateway.GatewayException gatewayException) {
+                throw gatewayException;
+            }
+            throw new PaymentGateway.GatewayException(String.valueOf(cause.getMessage()), cause);
+        });
+    }
+
+    public static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("gateway", gateway.getClass().getSimpleName());
+        stats.put("circuit", state.name());
+        stats.put("consecutiveFailures", consecutiveFailures);
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("calls", calls.get());
+        stats.put("failures", failures.get());
+        stats.put("timeouts", timeouts.get());
+        stats.put("rejectedBusy", rejectedBusy.get());
+        stats.put("rejectedOpen", rejectedOpen.get());
+        stats.put("providerRejections", providerRejections.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private synchronized boolean acquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openMs) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    // A trial that never reached the gateway does not decide anything
+    private synchronized void release() {
+        trialInFlight = false;
+    }
+
+    private synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    private synchronized void onFailure() {
+        failures.incrementAndGet();
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+}
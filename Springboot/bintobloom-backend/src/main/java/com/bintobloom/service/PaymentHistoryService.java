@@ -0,0 +1,142 @@
+package com.bintobloom.service;
+
+import com.bintobloom.dto.KeysetCursor;
+import com.bintobloom.dto.KeysetPage;
+import com.bintobloom.dto.PaymentSummary;
+import com.bintobloom.dto.PaymentView;
+import com.bintobloom.entity.Payment;
+import com.bintobloom.event.PaymentChangedEvent;
+import com.bintobloom.repository.PaymentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A customer's payments, newest first in keyset pages, and their billing summary. Summaries are cached per user
+ * for {@code app.payment.summary.ttl-ms} and evicted when one of the user's payments changes.
+ *
+ * <p>Each cache slot carries a version that eviction bumps; a summary computed before an eviction is not
+ * stored over it, so a read racing a verify cannot pin the old totals until the TTL runs out.
+ */
+@Service
+public class PaymentHistoryService {
+
+    private static final class Entry {
+        final PaymentSummary summary;
+        final long expiresAt;
+        final long version;
+
+        Entry(PaymentSummary summary, long expiresAt, long version) {
+            this.summary = summary;
+            this.expiresAt = expiresAt;
+            this.version = version;
+        }
+    }
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Value("${app.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.pagination.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.payment.summary.ttl-ms:300000}")
+    private long ttlMs;
+
+    @Value("${app.payment.summary.max-size:10000}")
+    private int maxSize;
+
+    private final Map<Long, Entry> summaries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public KeysetPage<PaymentView> getHistory(Long userId, String cursor, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        // One extra row is fetched to learn whether another page exists without a COUNT query
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : null;
+        List<Payment> rows = after == null
+                ? paymentRepository.findUserHistory(userId, pageable)
+                : paymentRepository.findUserHistoryAfter(userId, after.getCreatedAt(), after.getId(), pageable);
+        if (rows.size() <= pageSize) {
+            return new KeysetPage<>(rows.stream().map(PaymentView::of).toList(), null);
+        }
+        List<PaymentView> items = rows.subList(0, pageSize).stream().map(PaymentView::of).toList();
+        PaymentView last = items.get(pageSize - 1);
+        return new KeysetPage<>(items, new KeysetCursor(last.getCreatedAt(), last.getPaymentId()).encode());
+    }
+
+    public PaymentSummary getSummary(Long userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = summaries.get(userId);
+        if (entry != null && entry.summary != null && entry.expiresAt > now) {
+            hits.increment();
+            return entry.summary;
+        }
+        misses.increment();
+        long version = entry != null ? entry.version : 0;
+        PaymentSummary summary = paymentRepository.summarize(userId, Payment.PaymentStatus.COMPLETED,
+                Payment.PaymentStatus.PENDING);
+        if (summaries.size() >= maxSize) {
+            makeRoom(now);
+        }
+        summaries.compute(userId, (id, current) -> (current != null ? current.version : 0) == version
+                ? new Entry(summary, now + ttlMs, version) : current);
+        return summary;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentChanged(PaymentChangedEvent event) {
+        if (event.getUserId() == null) {
+            return;
+        }
+        Entry previous = summaries.get(event.getUserId());
+        summaries.compute(event.getUserId(),
+                (id, current) -> new Entry(null, 0, current != null ? current.version + 1 : 1));
+        if (previous != null && previous.summary != null) {
+            evictions.increment();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", summaries.size());
+        stats.put("maxSize", maxSize);
+        stats.put("ttlMs", ttlMs);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRate", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        return stats;
+    }
+
+    // Drops expired entries and eviction markers first, then arbitrary ones until there is space for one more
+    private void makeRoom(long now) {
+        summaries.values().removeIf(entry -> entry.expiresAt <= now);
+        Iterator<Long> keys = summaries.keySet().iterator();
+        while (summaries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
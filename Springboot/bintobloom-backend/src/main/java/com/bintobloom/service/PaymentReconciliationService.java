@@ -0,0 +1,309 @@
+package com.bintobloom.service;
+
+import com.bintobloom.entity.Payment;
+import com.bintobloom.event.PaymentChangedEvent;
+import com.bintobloom.repository.PaymentRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Settles payments whose checkout was abandoned or whose verify call never arrived. Every
+ * {@code app.payment.reconcile.interval-ms} it pages through PENDING payments whose Razorpay order is older than
+ * {@code stale-after-ms}, asks the gateway about each order from a pool of {@code concurrency} threads, and per
+ * page bulk-updates:
+ * <ul>
+ *   <li>paid orders to COMPLETED, with their pickups moved from PAYMENT_PENDING to PAID;</li>
+ *   <li>orders older than {@code abandon-after-ms} that the gateway reports with no captured or authorized
+ *       payment to FAILED. The pickup stays PAYMENT_PENDING, since the bill is still owed, and pay-bill starts a
+ *       new checkout.</li>
+ * </ul>
+ * Ages are measured from when the current order was created, not the payment, since pay-bill issues new orders
+ * on old bills. Orders already handed to {@link PaymentFulfilmentService} are left to it, and every update is conditional on
+ * the payment still being PENDING with the same order, so a verify racing the job wins cleanly.
+ */
+@Service
+public class PaymentReconciliationService {
+
+    private record Stale(long paymentId, Long userId, String orderId, LocalDateTime orderCreatedAt) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentGateway gateway;
+
+    @Autowired
+    private PaymentFulfilmentService paymentFulfilmentService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.payment.reconcile.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.payment.reconcile.stale-after-ms:900000}")
+    private long staleAfterMs;
+
+    @Value("${app.payment.reconcile.abandon-after-ms:86400000}")
+    private long abandonAfterMs;
+
+    @Value("${app.payment.reconcile.page-size:500}")
+    private int pageSize;
+
+    @Value("${app.payment.reconcile.lookup-timeout-ms:30000}")
+    private long lookupTimeoutMs;
+
+    private final ExecutorService lookups;
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "payment-reconcile");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong abandoned = new AtomicLong();
+    private final AtomicLong unchanged = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private volatile long startedNanos;
+    private volatile Map<String, Object> lastRun = Map.of("status", "IDLE");
+
+    public PaymentReconciliationService(@Value("${app.payment.reconcile.concurrency:16}") int concurrency) {
+        AtomicInteger threads = new AtomicInteger();
+        lookups = Executors.newFixedThreadPool(Math.max(1, concurrency), r -> {
+            Thread thread = new Thread(r, "payment-reconcile-lookup-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(initialDelayString = "${app.payment.reconcile.interval-ms:900000}",
+               fixedDelayString = "${app.payment.reconcile.interval-ms:900000}")
+    public void runScheduled() {
+        if (enabled && !running.get()) {
+            try {
+                start();
+            } catch (IllegalStateException e) {
+                // started by hand in the meantime
+            }
+        }
+    }
+
+    /**
+     * Starts a reconciliation in the background.
+     *
+     * @throws IllegalStateException if one is already running
+     */
+    public Map<String, Object> start() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A payment reconciliation is already running");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minusNanos(staleAfterMs * 1_000_000);
+        LocalDateTime abandonBefore = now.minusNanos(abandonAfterMs * 1_000_000);
+        scanned.set(0);
+        completed.set(0);
+        abandoned.set(0);
+        unchanged.set(0);
+        errors.set(0);
+        startedNanos = System.nanoTime();
+        Map<String, Object> status = new HashMap<>();
+        status.put("status", "RUNNING");
+        status.put("startedAt", now);
+        status.put("staleBefore", staleBefore);
+        lastRun = status;
+        coordinator.execute(() -> {
+            Map<String, Object> result = new HashMap<>(status);
+            try {
+                total.set(paymentRepository.countWithOrderByStatusOrderedBefore(Payment.PaymentStatus.PENDING, staleBefore));
+                run(staleBefore, abandonBefore);
+                result.put("status", "COMPLETED");
+            } catch (Exception e) {
+                result.put("status", "FAILED");
+                result.put("error", String.valueOf(e.getMessage()));
+            } finally {
+                result.put("finishedAt", LocalDateTime.now());
+                result.putAll(progress());
+                lastRun = result;
+                running.set(false);
+            }
+        });
+        return status;
+    }
+
+    public Map<String, Object> getStatus() {
+        if (!running.get()) {
+            return lastRun;
+        }
+        Map<String, Object> status = new HashMap<>(lastRun);
+        status.putAll(progress());
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        lookups.shutdownNow();
+    }
+
+    private Map<String, Object> progress() {
+        Map<String, Object> progress = new HashMap<>();
+        long seen = scanned.get();
+        double seconds = (System.nanoTime() - startedNanos) / 1e9;
+        progress.put("total", total.get());
+        progress.put("scanned", seen);
+        progress.put("completed", completed.get());
+        progress.put("abandoned", abandoned.get());
+        progress.put("unchanged", unchanged.get());
+        progress.put("errors", errors.get());
+        progress.put("paymentsPerSecond", seconds > 0 ? Math.round(seen / seconds * 10) / 10.0 : 0);
+        return progress;
+    }
+
+    private void run(LocalDateTime staleBefore, LocalDateTime abandonBefore) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long after = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Stale> page = jdbcTemplate.query(
+                    "SELECT p.payment_id, p.user_id, p.razorpay_order_id, COALESCE(p.order_created_at, p.created_at) " +
+                    "FROM payments p " +
+                    "WHERE p.status = 'PENDING' AND p.payment_id > ? AND p.razorpay_order_id IS NOT NULL " +
+                    "AND COALESCE(p.order_created_at, p.created_at) < ? " +
+                    "AND NOT EXISTS (SELECT 1 FROM payment_fulfilment_tasks t WHERE t.razorpay_order_id = p.razorpay_order_id) " +
+                    "ORDER BY p.payment_id LIMIT ?",
+                    (rs, i) -> new Stale(rs.getLong(1), rs.getObject(2, Long.class), rs.getString(3),
+                            rs.getTimestamp(4).toLocalDateTime()),
+                    after, Timestamp.valueOf(staleBefore), pageSize);
+            if (page.isEmpty()) {
+                return;
+            }
+            after = page.get(page.size() - 1).paymentId();
+
+            List<CompletableFuture<PaymentGateway.OrderStatus>> statuses = new ArrayList<>(page.size());
+            for (Stale stale : page) {
+                statuses.add(CompletableFuture.supplyAsync(() -> gateway.fetchOrderStatus(stale.orderId()), lookups)
+                        .orTimeout(lookupTimeoutMs, TimeUnit.MILLISECONDS));
+            }
+
+            // Microseconds, the column's precision, so confirm can match the stamp it wrote
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            List<Object[]> paid = new ArrayList<>();
+            List<Stale> paidStale = new ArrayList<>();
+            List<Object[]> failed = new ArrayList<>();
+            List<Stale> failedStale = new ArrayList<>();
+            for (int i = 0; i < page.size(); i++) {
+                Stale stale = page.get(i);
+                PaymentGateway.OrderStatus status;
+                try {
+                    status = statuses.get(i).join();
+                } catch (RuntimeException e) {
+                    // Left PENDING for the next run
+                    errors.incrementAndGet();
+                    continue;
+                }
+                if (status.paid()) {
+                    paid.add(new Object[] {status.paymentId(), Timestamp.valueOf(now), stale.paymentId(), stale.orderId()});
+                    paidStale.add(stale);
+                } else if (!status.authorized() && stale.orderCreatedAt().isBefore(abandonBefore)) {
+                    failed.add(new Object[] {Timestamp.valueOf(now), stale.paymentId(), stale.orderId()});
+                    failedStale.add(stale);
+                } else {
+                    unchanged.incrementAndGet();
+                }
+            }
+
+            transaction.executeWithoutResult(tx -> {
+                List<Long> updatedIds = new ArrayList<>();
+                if (!paid.isEmpty()) {
+                    int[] counts = jdbcTemplate.batchUpdate(
+                            "UPDATE payments SET status = 'COMPLETED', razorpay_payment_id = ?, updated_at = ? " +
+                            "WHERE payment_id = ? AND status = 'PENDING' AND razorpay_order_id = ?", paid);
+                    Set<Long> applied = confirm(paidStale, counts, "COMPLETED", now);
+                    for (Stale stale : paidStale) {
+                        if (applied.contains(stale.paymentId())) {
+                            updatedIds.add(stale.paymentId());
+                            eventPublisher.publishEvent(new PaymentChangedEvent(stale.paymentId(), stale.userId()));
+                        }
+                    }
+                    paymentFulfilmentService.markPickupsPaid(updatedIds);
+                }
+                if (!failed.isEmpty()) {
+                    int[] counts = jdbcTemplate.batchUpdate(
+                            "UPDATE payments SET status = 'FAILED', updated_at = ? " +
+                            "WHERE payment_id = ? AND status = 'PENDING' AND razorpay_order_id = ?", failed);
+                    Set<Long> applied = confirm(failedStale, counts, "FAILED", now);
+                    for (Stale stale : failedStale) {
+                        if (applied.contains(stale.paymentId())) {
+                            abandoned.incrementAndGet();
+                            eventPublisher.publishEvent(new PaymentChangedEvent(stale.paymentId(), stale.userId()));
+                        } else {
+                            unchanged.incrementAndGet();
+                        }
+                    }
+                }
+                completed.addAndGet(updatedIds.size());
+                unchanged.addAndGet(paid.size() - updatedIds.size());
+            });
+            scanned.addAndGet(page.size());
+        }
+    }
+
+    // Drivers that batch without per-row counts report SUCCESS_NO_INFO; those rows count only if they now carry
+    // the status and update time this page wrote, since a verify may have settled the same payment in between
+    private Set<Long> confirm(List<Stale> stale, int[] counts, String status, LocalDateTime updatedAt) {
+        Set<Long> applied = new HashSet<>();
+        List<Long> unknown = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                unknown.add(stale.get(i).paymentId());
+            } else if (counts[i] > 0) {
+                applied.add(stale.get(i).paymentId());
+            }
+        }
+        if (!unknown.isEmpty()) {
+            jdbcTemplate.query(
+                    "SELECT payment_id FROM payments WHERE status = ? AND updated_at = ? AND payment_id IN (" +
+                    unknown.stream().map(String::valueOf).collect(Collectors.joining(", ")) + ")",
+                    rs -> {
+                        applied.add(rs.getLong(1));
+                    },
+                    status, Timestamp.valueOf(updatedAt));
+        }
+        return applied;
+    }
+}
@@ -0,0 +1,197 @@
+package com.bintobloom.service;
+
+import com.bintobloom.entity.PickupRequest;
+import com.bintobloom.event.PickupStatusChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates many PENDING pickups at once: the bulk endpoint for businesses and the occurrences of
+ * {@link PickupScheduleService}. Rows go in as JDBC batches rather than through Hibernate, which cannot batch
+ * IDENTITY inserts, so the events the entity listener would publish are published here.
+ */
+@Service
+public class PickupBatchService {
+
+    public record NewPickup(long userId, PickupRequest.WasteType wasteType, LocalDate scheduledDate,
+                            LocalTime scheduledTime, String notes, String pickupFrequency, Long scheduleId,
+                            BigDecimal latitude, BigDecimal longitude) {
+    }
+
+    private static final String INSERT_SQL =
+            "INSERT INTO pickup_requests (user_id, waste_type, scheduled_date, scheduled_time, pickup_status, notes, " +
+            "pickup_frequency, schedule_id, latitude, longitude, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.pickup.bulk.max-size:1000}")
+    private int maxBulkSize;
+
+    @Value("${app.pickup.bulk.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * Validates every item before inserting any, so a bad row rejects the whole request.
+     *
+     * @return the new pickup ids, in request order
+     * @throws IllegalArgumentException naming the first invalid item
+     */
+    @Transactional
+    public List<Long> createBulk(Long userId, List<Map<String, Object>> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("No pickups given");
+        }
+        if (items.size() > maxBulkSize) {
+            throw new IllegalArgumentException("At most " + maxBulkSize + " pickups can be scheduled per request");
+        }
+        LocalDate today = LocalDate.now();
+        List<NewPickup> pickups = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            Map<String, Object> item = items.get(i);
+            try {
+                LocalDate date = parseDate(item, "scheduledDate");
+                if (date.isBefore(today)) {
+                    throw new IllegalArgumentException("scheduledDate is in the past");
+                }
+                pickups.add(new NewPickup(userId, parseWasteType(item), date, parseTime(item), parseNotes(item),
+                        (String) item.get("pickupFrequency"), null,
+                        parseDecimal(item, "latitude"), parseDecimal(item, "longitude")));
+            } catch (IllegalArgumentException | ClassCastException e) {
+                throw new IllegalArgumentException("Pickup " + (i + 1) + ": " + e.getMessage());
+            }
+        }
+        return insert(pickups);
+    }
+
+    /**
+     * Inserts the pickups as PENDING and publishes a {@link PickupStatusChangedEvent} for each.
+     *
+     * @return the new pickup ids, in the order given
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Long> insert(List<NewPickup> pickups) {
+        List<Long> ids = new ArrayList<>(pickups.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int from = 0; from < pickups.size(); from += batchSize) {
+            List<NewPickup> chunk = pickups.subList(from, Math.min(pickups.size(), from + batchSize));
+            ids.addAll(jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                    for (NewPickup pickup : chunk) {
+                        statement.setLong(1, pickup.userId());
+                        statement.setString(2, pickup.wasteType().name());
+                        statement.setDate(3, Date.valueOf(pickup.scheduledDate()));
+                        statement.setTime(4, Time.valueOf(pickup.scheduledTime()));
+                        statement.setString(5, PickupRequest.PickupStatus.PENDING.name());
+                        statement.setString(6, pickup.notes() != null ? pickup.notes() : "");
+                        statement.setString(7, pickup.pickupFrequency());
+                        statement.setObject(8, pickup.scheduleId(), Types.BIGINT);
+                        statement.setBigDecimal(9, pickup.latitude());
+                        statement.setBigDecimal(10, pickup.longitude());
+                        statement.setTimestamp(11, now);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    List<Long> keys = new ArrayList<>(chunk.size());
+                    try (ResultSet rs = statement.getGeneratedKeys()) {
+                        while (rs.next()) {
+                            keys.add(rs.getLong(1));
+                        }
+                    }
+                    return keys;
+                }
+            }));
+        }
+        if (ids.size() != pickups.size()) {
+            throw new IllegalStateException("Expected " + pickups.size() + " generated keys, got " + ids.size());
+        }
+        for (int i = 0; i < pickups.size(); i++) {
+            NewPickup pickup = pickups.get(i);
+            eventPublisher.publishEvent(new PickupStatusChangedEvent(ids.get(i), pickup.userId(), null,
+                    pickup.wasteType(), pickup.scheduledDate(), null, PickupRequest.PickupStatus.PENDING,
+                    pickup.latitude(), pickup.longitude()));
+        }
+        return ids;
+    }
+
+    static PickupRequest.WasteType parseWasteType(Map<String, Object> item) {
+        Object value = item.get("wasteType");
+        if (value == null) {
+            throw new IllegalArgumentException("wasteType is required");
+        }
+        try {
+            return PickupRequest.WasteType.valueOf(value.toString());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown wasteType " + value);
+        }
+    }
+
+    static LocalDate parseDate(Map<String, Object> item, String key) {
+        Object value = item.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException(key + " is required");
+        }
+        try {
+            return LocalDate.parse(value.toString());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(key + " must be a date like 2025-01-31");
+        }
+    }
+
+    static LocalTime parseTime(Map<String, Object> item) {
+        Object value = item.get("scheduledTime");
+        if (value == null) {
+            throw new IllegalArgumentException("scheduledTime is required");
+        }
+        try {
+            return LocalTime.parse(value.toString());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("scheduledTime must be a time like 09:30");
+        }
+    }
+
+    static String parseNotes(Map<String, Object> item) {
+        String notes = item.get("notes") != null ? item.get("notes").toString() : "";
+        if (notes.length() > 500) {
+            throw new IllegalArgumentException("Notes must not exceed 500 characters");
+        }
+        return notes;
+    }
+
+    static BigDecimal parseDecimal(Map<String, Object> item, String key) {
+        Object value = item.get(key);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " must be a number");
+        }
+    }
+}
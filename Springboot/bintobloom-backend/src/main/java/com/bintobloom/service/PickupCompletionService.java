@@ -0,0 +1,329 @@
+package com.bintobloom.service;
+
+import com.bintobloom.entity.EcoReward;
+import com.bintobloom.entity.PickupRequest;
+import com.bintobloom.entity.User;
+import com.bintobloom.event.EcoPointsAwardedEvent;
+import com.bintobloom.event.PickupStatusChangedEvent;
+import com.bintobloom.event.WasteLoggedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Completes collected pickups: logs the waste, adds it to the customer's totals, awards eco-points and marks the
+ * pickup COMPLETED, all in one transaction. Households complete from ASSIGNED with the weight measured at the
+ * door; businesses complete from PAID with the weight logged when the bill was generated.
+ *
+ * <p>Every completion is validated before anything is written. Writes go table by table in pickup and user id
+ * order, each as one JDBC batch, so concurrent completions lock rows in the same order. The status update is
+ * conditional on the status that was validated, which stops a pickup from being completed (and rewarded) twice.
+ * The writes bypass the entity listeners, so their events are published here.
+ */
+@Service
+public class PickupCompletionService {
+
+    public record Completion(Long pickupId, Double weightKg, String notes, String photoUrl) {
+    }
+
+    public record Completed(Long pickupId, double weightKg, int pointsAwarded) {
+    }
+
+    private static final class Row {
+        long pickupId;
+        long userId;
+        Long collectorId;
+        PickupRequest.PickupStatus status;
+        PickupRequest.WasteType wasteType;
+        LocalDate scheduledDate;
+        BigDecimal latitude;
+        BigDecimal longitude;
+        User.UserRole role;
+        String city;
+        Long logId;
+        BigDecimal loggedWeightKg;
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EcoPointRules ecoPointRules;
+
+    @Value("${app.completion.max-batch-size:100}")
+    private int maxBatchSize;
+
+    /**
+     * @throws IllegalArgumentException if the pickup cannot be completed by this collector
+     * @throws IllegalStateException if the pickup changed while it was being completed
+     */
+    @Transactional
+    public Completed complete(Long collectorId, Completion completion) {
+        return completeAll(collectorId, List.of(completion)).get(0);
+    }
+
+    /**
+     * Completes every pickup or none of them.
+     *
+     * @throws IllegalArgumentException if any pickup cannot be completed by this collector
+     * @throws IllegalStateException if a pickup changed while it was being completed
+     */
+    @Transactional
+    public List<Completed> completeAll(Long collectorId, List<Completion> completions) {
+        if (completions.isEmpty()) {
+            throw new IllegalArgumentException("No pickups to complete");
+        }
+        if (completions.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most " + maxBatchSize + " pickups can be completed at once");
+        }
+        Set<Long> ids = new HashSet<>();
+        for (Completion completion : completions) {
+            if (completion.pickupId() == null || !ids.add(completion.pickupId())) {
+                throw new IllegalArgumentException("Each pickup must be given exactly once");
+            }
+        }
+
+        Map<Long, Row> rows = load(ids);
+        boolean batch = completions.size() > 1;
+        Map<Long, Double> weights = new HashMap<>();
+        for (Completion completion : completions) {
+            String prefix = batch ? "Request " + completion.pickupId() + ": " : "";
+            Row row = rows.get(completion.pickupId());
+            if (row == null) {
+                throw new RuntimeException(prefix + "Request not found");
+            }
+            weights.put(row.pickupId, validate(row, completion, collectorId, prefix));
+        }
+
+        List<Completion> ordered = new ArrayList<>(completions);
+        ordered.sort(Comparator.comparing(Completion::pickupId));
+        LocalDateTime now = LocalDateTime.now();
+
+        markCompleted(ordered, rows, collectorId);
+        Map<Long, Long> logIds = logWaste(ordered, rows, weights, now);
+
+        // Per-user totals, applied in user id order
+        Map<Long, double[]> totals = new TreeMap<>();
+        Map<Long, User.UserRole> roles = new HashMap<>();
+        Map<Long, Integer> points = new HashMap<>();
+        for (Completion completion : ordered) {
+            Row row = rows.get(completion.pickupId());
+            double weight = weights.get(row.pickupId);
+            int earned = ecoPointRules.pointsFor(row.wasteType, row.city, now, weight);
+            points.put(row.pickupId, earned);
+            roles.put(row.userId, row.role);
+            double[] total = totals.computeIfAbsent(row.userId, id -> new double[2]);
+            total[0] += weight;
+            total[1] += earned;
+        }
+        List<Object[]> householdUpdates = new ArrayList<>();
+        List<Object[]> businessUpdates = new ArrayList<>();
+        totals.forEach((userId, total) -> {
+            BigDecimal weight = BigDecimal.valueOf(total[0]);
+            if (roles.get(userId) == User.UserRole.HOUSEHOLD) {
+                householdUpdates.add(new Object[] {weight, (int) total[1], userId});
+            } else {
+                businessUpdates.add(new Object[] {weight, userId});
+            }
+        });
+        if (!householdUpdates.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "UPDATE household_details SET total_waste_kg = COALESCE(total_waste_kg, 0) + ?, " +
+                    "eco_points = COALESCE(eco_points, 0) + ? WHERE user_id = ?", householdUpdates);
+        }
+        if (!businessUpdates.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "UPDATE business_details SET total_waste_kg = COALESCE(total_waste_kg, 0) + ? WHERE user_id = ?",
+                    businessUpdates);
+        }
+
+        List<Object[]> rewards = new ArrayList<>(ordered.size());
+        for (Completion completion : ordered) {
+            Row row = rows.get(completion.pickupId());
+            rewards.add(new Object[] {row.userId, row.pickupId, points.get(row.pickupId), weights.get(row.pickupId),
+                    Timestamp.valueOf(now), EcoReward.RewardType.PICKUP_COMPLETED.ordinal()});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO eco_rewards (user_id, pickup_id, points_earned, waste_weight, earned_at, reward_type) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", rewards);
+
+        List<Completed> completed = new ArrayList<>(completions.size());
+        for (Completion completion : completions) {
+            Row row = rows.get(completion.pickupId());
+            double weight = weights.get(row.pickupId);
+            eventPublisher.publishEvent(new PickupStatusChangedEvent(row.pickupId, row.userId, row.collectorId,
+                    row.wasteType, row.scheduledDate, row.status, PickupRequest.PickupStatus.COMPLETED,
+                    row.latitude, row.longitude));
+            if (row.role == User.UserRole.HOUSEHOLD) {
+                eventPublisher.publishEvent(new WasteLoggedEvent(logIds.get(row.pickupId), row.pickupId,
+                        row.wasteType, BigDecimal.valueOf(weight), now));
+            }
+            eventPublisher.publishEvent(new EcoPointsAwardedEvent(row.userId, points.get(row.pickupId)));
+            completed.add(new Completed(row.pickupId, weight, points.get(row.pickupId)));
+        }
+        return completed;
+    }
+
+    private Map<Long, Row> load(Set<Long> ids) {
+        Map<Long, Row> rows = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT pr.pickup_id, pr.user_id, pr.collector_id, pr.pickup_status, pr.waste_type, pr.scheduled_date, " +
+                "pr.latitude, pr.longitude, u.role, u.city, wl.log_id, wl.weight_kg " +
+                "FROM pickup_requests pr " +
+                "JOIN users u ON u.user_id = pr.user_id " +
+                "LEFT JOIN waste_logs wl ON wl.pickup_id = pr.pickup_id " +
+                "WHERE pr.pickup_id IN (" + ids.stream().map(String::valueOf).collect(Collectors.joining(", ")) + ")",
+                rs -> {
+                    long pickupId = rs.getLong(1);
+                    if (rows.containsKey(pickupId)) {
+                        return;
+                    }
+                    Row row = new Row();
+                    row.pickupId = pickupId;
+                    row.userId = rs.getLong(2);
+                    row.collectorId = rs.getObject(3, Long.class);
+                    row.status = PickupRequest.PickupStatus.valueOf(rs.getString(4));
+                    row.wasteType = PickupRequest.WasteType.valueOf(rs.getString(5));
+                    Date scheduledDate = rs.getDate(6);
+                    row.scheduledDate = scheduledDate != null ? scheduledDate.toLocalDate() : null;
+                    row.latitude = rs.getBigDecimal(7);
+                    row.longitude = rs.getBigDecimal(8);
+                    row.role = User.UserRole.valueOf(rs.getString(9));
+                    row.city = rs.getString(10);
+                    row.logId = rs.getObject(11, Long.class);
+                    row.loggedWeightKg = rs.getBigDecimal(12);
+                    rows.put(pickupId, row);
+                });
+        return rows;
+    }
+
+    // Returns the collected weight in kg
+    private double validate(Row row, Completion completion, Long collectorId, String prefix) {
+        if (row.collectorId == null || !row.collectorId.equals(collectorId)) {
+            throw new IllegalArgumentException(prefix + "You are not assigned to this request");
+        }
+        if (row.role == User.UserRole.HOUSEHOLD) {
+            if (row.status != PickupRequest.PickupStatus.ASSIGNED) {
+                throw new IllegalArgumentException(prefix + "Request must be in ASSIGNED status to complete (Household)");
+            }
+            if (completion.weightKg() == null) {
+                throw new IllegalArgumentException(prefix + "Weight is required for completion");
+            }
+            if (completion.weightKg() <= 0) {
+                throw new IllegalArgumentException(prefix + "Weight must be greater than 0");
+            }
+            return completion.weightKg();
+        }
+        if (row.role == User.UserRole.BUSINESS) {
+            if (row.status != PickupRequest.PickupStatus.PAID) {
+                throw new IllegalArgumentException(prefix + "Payment must be completed before marking as complete (Business)");
+            }
+            if (row.logId == null) {
+                throw new IllegalArgumentException(prefix + "No weight data found. Please generate bill first.");
+            }
+            return row.loggedWeightKg.doubleValue();
+        }
+        throw new IllegalArgumentException(prefix + "Unsupported user role");
+    }
+
+    private void markCompleted(List<Completion> ordered, Map<Long, Row> rows, Long collectorId) {
+        List<Object[]> updates = new ArrayList<>(ordered.size());
+        for (Completion completion : ordered) {
+            Row row = rows.get(completion.pickupId());
+            updates.add(new Object[] {row.pickupId, collectorId, row.status.name()});
+        }
+        int[] counts = jdbcTemplate.batchUpdate(
+                "UPDATE pickup_requests SET pickup_status = 'COMPLETED' " +
+                "WHERE pickup_id = ? AND collector_id = ? AND pickup_status = ?", updates);
+        boolean unknown = false;
+        for (int count : counts) {
+            if (count == 0) {
+                throw new IllegalStateException("Request was changed while it was being completed, please retry");
+            }
+            unknown |= count == Statement.SUCCESS_NO_INFO;
+        }
+        // Drivers that batch without per-row counts report SUCCESS_NO_INFO; check the outcome against the table
+        if (unknown) {
+            Integer completed = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pickup_requests WHERE pickup_status = 'COMPLETED' AND pickup_id IN (" +
+                    ordered.stream().map(c -> String.valueOf(c.pickupId())).collect(Collectors.joining(", ")) + ")",
+                    Integer.class);
+            if (completed == null || completed != ordered.size()) {
+                throw new IllegalStateException("Request was changed while it was being completed, please retry");
+            }
+        }
+    }
+
+    // Inserts household waste logs and updates business ones; returns the ids of the inserted logs by pickup,
+    // where the driver reports them
+    private Map<Long, Long> logWaste(List<Completion> ordered, Map<Long, Row> rows, Map<Long, Double> weights,
+                                     LocalDateTime now) {
+        List<Completion> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        for (Completion completion : ordered) {
+            Row row = rows.get(completion.pickupId());
+            if (row.role == User.UserRole.HOUSEHOLD) {
+                inserts.add(completion);
+            } else if (completion.notes() != null || completion.photoUrl() != null) {
+                updates.add(new Object[] {completion.notes(), completion.photoUrl(), row.logId});
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "UPDATE waste_logs SET notes = COALESCE(?, notes), photo_url = COALESCE(?, photo_url) WHERE log_id = ?",
+                    updates);
+        }
+        if (inserts.isEmpty()) {
+            return Map.of();
+        }
+        return jdbcTemplate.execute((ConnectionCallback<Map<Long, Long>>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO waste_logs (pickup_id, waste_type, weight_kg, photo_url, notes, collected_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+                for (Completion completion : inserts) {
+                    Row row = rows.get(completion.pickupId());
+                    statement.setLong(1, row.pickupId);
+                    statement.setString(2, row.wasteType.name());
+                    statement.setBigDecimal(3, BigDecimal.valueOf(weights.get(row.pickupId)));
+                    statement.setString(4, completion.photoUrl());
+                    statement.setString(5, completion.notes() != null ? completion.notes() : "");
+                    statement.setTimestamp(6, Timestamp.valueOf(now));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                Map<Long, Long> logIds = new HashMap<>();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (int i = 0; i < inserts.size() && keys.next(); i++) {
+                        logIds.put(inserts.get(i).pickupId(), keys.getLong(1));
+                    }
+                }
+                return logIds;
+            }
+        });
+    }
+}
@@ -0,0 +1,323 @@
+package com.bintobloom.service;
+
+import com.bintobloom.dto.NearbyPickup;
+import com.bintobloom.entity.PickupRequest;
+import com.bintobloom.event.PickupStatusChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory grid index over PENDING pickups that have coordinates, so collectors can be shown the open
+ * requests around them without scanning pickup_requests. Pickups are bucketed into square cells of
+ * {@code app.geo.cell-size-deg} degrees; a radius query walks rings of cells outwards from the collector and
+ * stops as soon as no unvisited cell can hold anything nearer than the hits already found. The index follows
+ * {@link PickupStatusChangedEvent}s (create, accept, cancel, delete) and is rebuilt from the table
+ * periodically to pick up anything written around the entity listeners.
+ */
+@Service
+public class PickupGeoIndexService {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private static final class Point {
+        final long pickupId;
+        final Long userId;
+        final PickupRequest.WasteType wasteType;
+        final LocalDate scheduledDate;
+        final double latitude;
+        final double longitude;
+        long cellKey;
+        int slot;
+
+        Point(long pickupId, Long userId, PickupRequest.WasteType wasteType, LocalDate scheduledDate,
+              double latitude, double longitude) {
+            this.pickupId = pickupId;
+            this.userId = userId;
+            this.wasteType = wasteType;
+            this.scheduledDate = scheduledDate;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+
+    // Points are kept in a packed array and removed by swapping the last one into the freed slot
+    private static final class Cell {
+        Point[] points = new Point[4];
+        int size;
+
+        void add(Point point) {
+            if (size == points.length) {
+                Point[] grown = new Point[size * 2];
+                System.arraycopy(points, 0, grown, 0, size);
+                points = grown;
+            }
+            point.slot = size;
+            points[size++] = point;
+        }
+
+        void remove(Point point) {
+            Point last = points[--size];
+            points[point.slot] = last;
+            last.slot = point.slot;
+            points[size] = null;
+        }
+    }
+
+    private static final class Grid {
+        final double cellSizeDeg;
+        final Map<Long, Cell> cells = new HashMap<>();
+        final Map<Long, Point> byPickupId = new HashMap<>();
+
+        Grid(double cellSizeDeg) {
+            this.cellSizeDeg = cellSizeDeg;
+        }
+
+        void put(Point point) {
+            remove(point.pickupId);
+            point.cellKey = cellKey(cellIndex(point.latitude), cellIndex(point.longitude));
+            cells.computeIfAbsent(point.cellKey, k -> new Cell()).add(point);
+            byPickupId.put(point.pickupId, point);
+        }
+
+        void remove(long pickupId) {
+            Point point = byPickupId.remove(pickupId);
+            if (point == null) {
+                return;
+            }
+            Cell cell = cells.get(point.cellKey);
+            cell.remove(point);
+            if (cell.size == 0) {
+                cells.remove(point.cellKey);
+            }
+        }
+
+        int cellIndex(double degrees) {
+            return (int) Math.floor(degrees / cellSizeDeg);
+        }
+
+        static long cellKey(int latIndex, int lonIndex) {
+            return ((long) latIndex << 32) | (lonIndex & 0xffffffffL);
+        }
+    }
+
+    private record Candidate(Point point, double distanceKm) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.geo.cell-size-deg:0.01}")
+    private double cellSizeDeg;
+
+    @Value("${app.geo.nearby.max-radius-km:50}")
+    private double maxRadiusKm;
+
+    @Value("${app.pagination.default-size:50}")
+    private int defaultLimit;
+
+    @Value("${app.pagination.max-size:100}")
+    private int maxLimit;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Grid grid;
+
+    // Events seen while a rebuild is reading the table, replayed onto the new grid before it is swapped in
+    private List<PickupStatusChangedEvent> rebuildJournal;
+
+    public PickupGeoIndexService() {
+    }
+
+    // For benchmarks: an empty index fed only through onPickupStatusChanged
+    public PickupGeoIndexService(double cellSizeDeg, double maxRadiusKm, int defaultLimit, int maxLimit) {
+        this.cellSizeDeg = cellSizeDeg;
+        this.maxRadiusKm = maxRadiusKm;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.grid = new Grid(cellSizeDeg);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPickupStatusChanged(PickupStatusChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (grid != null) {
+                apply(grid, event);
+            }
+            if (rebuildJournal != null) {
+                rebuildJournal.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return PENDING pickups within {@code radiusKm} of the given point, nearest first
+     */
+    public List<NearbyPickup> findNearby(double latitude, double longitude, double radiusKm, Integer limit) {
+        if (!(radiusKm > 0 && radiusKm <= maxRadiusKm)) {
+            throw new IllegalArgumentException("radiusKm must be greater than 0 and at most " + maxRadiusKm);
+        }
+        int resultLimit = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+
+        // Ranking uses an equirectangular distance, which is close enough to great-circle at city radii;
+        // the distance reported for each hit is haversine
+        double cosLat = Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+        PriorityQueue<Candidate> nearest = new PriorityQueue<>(resultLimit,
+                Comparator.comparingDouble(Candidate::distanceKm).reversed());
+
+        lock.readLock().lock();
+        try {
+            if (grid == null || grid.byPickupId.isEmpty()) {
+                return List.of();
+            }
+            double cellHeightKm = grid.cellSizeDeg * KM_PER_DEGREE;
+            double cellWidthKm = cellHeightKm * cosLat;
+            int latRings = (int) Math.ceil(radiusKm / cellHeightKm);
+            int lonRings = (int) Math.ceil(radiusKm / cellWidthKm);
+            int centreLat = grid.cellIndex(latitude);
+            int centreLon = grid.cellIndex(longitude);
+
+            for (int ring = 0; ring <= Math.max(latRings, lonRings); ring++) {
+                for (int dLat = -Math.min(ring, latRings); dLat <= Math.min(ring, latRings); dLat++) {
+                    boolean edgeRow = Math.abs(dLat) == ring;
+                    int step = edgeRow ? 1 : 2 * ring;
+                    for (int dLon = -ring; dLon <= ring; dLon += step) {
+                        if (Math.abs(dLon) > lonRings) {
+                            continue;
+                        }
+                        Cell cell = grid.cells.get(Grid.cellKey(centreLat + dLat, centreLon + dLon));
+                        if (cell != null) {
+                            collect(cell, latitude, longitude, cosLat, radiusKm, resultLimit, nearest);
+                        }
+                    }
+                }
+                // Every cell in the next ring is at least this far from any point of the centre cell
+                double nextRingKm = ring * Math.min(cellHeightKm, cellWidthKm);
+                if (nearest.size() == resultLimit && nearest.peek().distanceKm() <= nextRingKm) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<NearbyPickup> results = new ArrayList<>(nearest.size());
+        while (!nearest.isEmpty()) {
+            Point point = nearest.poll().point();
+            results.add(new NearbyPickup(point.pickupId, point.userId, point.wasteType, point.scheduledDate,
+                    point.latitude, point.longitude,
+                    Math.round(haversineKm(latitude, longitude, point.latitude, point.longitude) * 1000) / 1000.0));
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return grid != null ? grid.byPickupId.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${app.geo.rebuild-interval-ms:900000}",
+               fixedDelayString = "${app.geo.rebuild-interval-ms:900000}")
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildJournal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Grid fresh = new Grid(cellSizeDeg);
+        boolean loaded = false;
+        try {
+            jdbcTemplate.query(
+                    "SELECT pickup_id, user_id, waste_type, scheduled_date, latitude, longitude " +
+                    "FROM pickup_requests " +
+                    "WHERE pickup_status = 'PENDING' AND latitude IS NOT NULL AND longitude IS NOT NULL",
+                    rs -> {
+                        Date scheduledDate = rs.getDate(4);
+                        fresh.put(new Point(rs.getLong(1), rs.getLong(2), PickupRequest.WasteType.valueOf(rs.getString(3)),
+                                scheduledDate != null ? scheduledDate.toLocalDate() : null,
+                                rs.getDouble(5), rs.getDouble(6)));
+                    });
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    rebuildJournal.forEach(event -> apply(fresh, event));
+                    grid = fresh;
+                }
+                rebuildJournal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static void apply(Grid grid, PickupStatusChangedEvent event) {
+        if (event.getStatus() == PickupRequest.PickupStatus.PENDING
+                && event.getLatitude() != null && event.getLongitude() != null) {
+            grid.put(new Point(event.getPickupId(), event.getUserId(), event.getWasteType(), event.getScheduledDate(),
+                    event.getLatitude().doubleValue(), event.getLongitude().doubleValue()));
+        } else {
+            grid.remove(event.getPickupId());
+        }
+    }
+
+    private static void collect(Cell cell, double latitude, double longitude, double cosLat, double radiusKm,
+                                int limit, PriorityQueue<Candidate> nearest) {
+        for (int i = 0; i < cell.size; i++) {
+            Point point = cell.points[i];
+            double dy = (point.latitude - latitude) * KM_PER_DEGREE;
+            double dx = (point.longitude - longitude) * KM_PER_DEGREE * cosLat;
+            double distanceKm = Math.sqrt(dx * dx + dy * dy);
+            if (distanceKm > radiusKm) {
+                continue;
+            }
+            if (nearest.size() < limit) {
+                nearest.add(new Candidate(point, distanceKm));
+            } else if (distanceKm < nearest.peek().distanceKm()) {
+                nearest.poll();
+                nearest.add(new Candidate(point, distanceKm));
+            }
+        }
+    }
+
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+}
@@ -0,0 +1,356 @@
+package com.bintobloom.service;
+
+import com.bintobloom.entity.BusinessDetails;
+import com.bintobloom.entity.PickupRequest;
+import com.bintobloom.entity.PickupSchedule;
+import com.bintobloom.event.PickupStatusChangedEvent;
+import com.bintobloom.repository.BusinessDetailsRepository;
+import com.bintobloom.repository.PickupScheduleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Recurring pickups for businesses. A {@link PickupSchedule} is materialised lazily: every
+ * {@code app.pickup.schedule.interval-ms} the schedules whose occurrences have not been created up to
+ * {@code window-days} ahead are paged through, and per page their missing occurrences go in as one JDBC batch
+ * through {@link PickupBatchService}. Days that slipped into the past while the job was not running are skipped
+ * rather than booked late.
+ *
+ * <p>Each schedule is claimed by moving materialized_through with a conditional update in the same transaction
+ * as the insert, so two instances running the job at once cannot create an occurrence twice; the unique
+ * (schedule_id, scheduled_date) key on pickups backs this up. A page that fails is retried one schedule at a
+ * time, so a schedule that keeps failing is recorded and skipped without holding back the others.
+ */
+@Service
+public class PickupScheduleService {
+
+    private record Materialized(int schedulesAdvanced, List<Long> pickupIds) {
+    }
+
+    private record Due(long scheduleId, long userId, PickupRequest.WasteType wasteType,
+                       BusinessDetails.PickupFrequency frequency, LocalDate startDate, LocalDate endDate,
+                       LocalTime scheduledTime, String notes, BigDecimal latitude, BigDecimal longitude,
+                       LocalDate materializedThrough) {
+
+        static Due of(PickupSchedule schedule) {
+            return new Due(schedule.getScheduleId(), schedule.getUserId(), schedule.getWasteType(),
+                    schedule.getFrequency(), schedule.getStartDate(), schedule.getEndDate(),
+                    schedule.getScheduledTime(), schedule.getNotes(), schedule.getLatitude(), schedule.getLongitude(),
+                    schedule.getMaterializedThrough());
+        }
+    }
+
+    @Autowired
+    private PickupScheduleRepository pickupScheduleRepository;
+
+    @Autowired
+    private BusinessDetailsRepository businessDetailsRepository;
+
+    @Autowired
+    private PickupBatchService pickupBatchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.pickup.schedule.window-days:14}")
+    private int windowDays;
+
+    @Value("${app.pickup.schedule.page-size:200}")
+    private int pageSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong schedulesAdvanced = new AtomicLong();
+    private final AtomicLong pickupsCreated = new AtomicLong();
+    private final AtomicLong schedulesFailed = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+    private volatile String lastError;
+
+    /**
+     * Creates a schedule and its occurrences inside the current window. The frequency defaults to the one on
+     * the business profile.
+     *
+     * @throws IllegalArgumentException if a field is missing or invalid, or the frequency is ON_DEMAND
+     */
+    @Transactional
+    public Map<String, Object> create(Long userId, Map<String, Object> request) {
+        PickupSchedule schedule = new PickupSchedule();
+        schedule.setUserId(userId);
+        schedule.setWasteType(PickupBatchService.parseWasteType(request));
+        schedule.setFrequency(parseFrequency(userId, request.get("pickupFrequency")));
+        schedule.setStartDate(PickupBatchService.parseDate(request, "startDate"));
+        if (schedule.getStartDate().isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("startDate is in the past");
+        }
+        if (request.get("endDate") != null) {
+            schedule.setEndDate(PickupBatchService.parseDate(request, "endDate"));
+            if (schedule.getEndDate().isBefore(schedule.getStartDate())) {
+                throw new IllegalArgumentException("endDate is before startDate");
+            }
+        }
+        schedule.setScheduledTime(PickupBatchService.parseTime(request));
+        schedule.setNotes(PickupBatchService.parseNotes(request));
+        schedule.setLatitude(PickupBatchService.parseDecimal(request, "latitude"));
+        schedule.setLongitude(PickupBatchService.parseDecimal(request, "longitude"));
+        schedule.setActive(true);
+        schedule.setMaterializedThrough(schedule.getStartDate().minusDays(1));
+        pickupScheduleRepository.saveAndFlush(schedule);
+
+        Materialized materialized = materialize(List.of(Due.of(schedule)), LocalDate.now());
+        schedulesAdvanced.addAndGet(materialized.schedulesAdvanced());
+        pickupsCreated.addAndGet(materialized.pickupIds().size());
+        List<Long> pickupIds = materialized.pickupIds();
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Recurring pickup scheduled successfully");
+        response.put("scheduleId", schedule.getScheduleId());
+        response.put("pickupIds", pickupIds);
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public List<PickupSchedule> list(Long userId) {
+        return pickupScheduleRepository.findByUserIdOrderByScheduleIdDesc(userId);
+    }
+
+    /**
+     * Stops the schedule and deletes its upcoming occurrences that no collector has taken yet.
+     *
+     * @return the number of pickups deleted, or null if the user has no such schedule
+     */
+    @Transactional
+    public Integer cancel(Long userId, Long scheduleId) {
+        PickupSchedule schedule = pickupScheduleRepository.findByScheduleIdAndUserId(scheduleId, userId).orElse(null);
+        if (schedule == null) {
+            return null;
+        }
+        schedule.setActive(false);
+        List<PickupStatusChangedEvent> upcoming = jdbcTemplate.query(
+                "SELECT pickup_id, user_id, waste_type, scheduled_date, latitude, longitude FROM pickup_requests " +
+                "WHERE schedule_id = ? AND pickup_status = 'PENDING' AND scheduled_date >= ? ORDER BY pickup_id",
+                (rs, i) -> new PickupStatusChangedEvent(rs.getLong(1), rs.getLong(2), null,
+                        PickupRequest.WasteType.valueOf(rs.getString(3)), rs.getDate(4).toLocalDate(),
+                        PickupRequest.PickupStatus.PENDING, null, rs.getBigDecimal(5), rs.getBigDecimal(6)),
+                scheduleId, Date.valueOf(LocalDate.now()));
+        if (upcoming.isEmpty()) {
+            return 0;
+        }
+        // Conditional on the status, so an occurrence a collector accepted since the select is kept
+        int[] counts = jdbcTemplate.batchUpdate(
+                "DELETE FROM pickup_requests WHERE pickup_id = ? AND pickup_status = 'PENDING'",
+                upcoming.stream().map(event -> new Object[] {event.getPickupId()}).toList());
+        Set<Long> deleted = deleted(upcoming, counts);
+        // The rows were deleted around the entity listener, so their events are published here
+        for (PickupStatusChangedEvent event : upcoming) {
+            if (deleted.contains(event.getPickupId())) {
+                eventPublisher.publishEvent(event);
+            }
+        }
+        return deleted.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        materializeDue();
+    }
+
+    @Scheduled(initialDelayString = "${app.pickup.schedule.interval-ms:3600000}",
+               fixedDelayString = "${app.pickup.schedule.interval-ms:3600000}")
+    public void materializeDue() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            LocalDate horizon = today.plusDays(windowDays);
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            String error = null;
+            long after = 0;
+            while (true) {
+                List<Due> page = jdbcTemplate.query(
+                        "SELECT schedule_id, user_id, waste_type, frequency, start_date, end_date, scheduled_time, " +
+                        "notes, latitude, longitude, materialized_through FROM pickup_schedules " +
+                        "WHERE active = TRUE AND materialized_through < ? AND schedule_id > ? " +
+                        "ORDER BY schedule_id LIMIT ?",
+                        (rs, i) -> new Due(rs.getLong(1), rs.getLong(2),
+                                PickupRequest.WasteType.valueOf(rs.getString(3)),
+                                BusinessDetails.PickupFrequency.valueOf(rs.getString(4)),
+                                rs.getDate(5).toLocalDate(),
+                                rs.getDate(6) != null ? rs.getDate(6).toLocalDate() : null,
+                                rs.getTime(7).toLocalTime(), rs.getString(8), rs.getBigDecimal(9),
+                                rs.getBigDecimal(10), rs.getDate(11).toLocalDate()),
+                        Date.valueOf(horizon), after, pageSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+                after = page.get(page.size() - 1).scheduleId();
+                try {
+                    materialize(transaction, page, today);
+                } catch (RuntimeException e) {
+                    // The page rolled back; one schedule at a time isolates the one that failed
+                    for (Due due : page) {
+                        try {
+                            materialize(transaction, List.of(due), today);
+                        } catch (RuntimeException single) {
+                            schedulesFailed.incrementAndGet();
+                            error = "Schedule " + due.scheduleId() + ": " + single.getMessage();
+                        }
+                    }
+                }
+            }
+            lastError = error;
+        } catch (RuntimeException e) {
+            lastError = String.valueOf(e.getMessage());
+        } finally {
+            runs.incrementAndGet();
+            lastRunAt = LocalDateTime.now();
+            running.set(false);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("windowDays", windowDays);
+        stats.put("running", running.get());
+        stats.put("runs", runs.get());
+        stats.put("schedulesAdvanced", schedulesAdvanced.get());
+        stats.put("pickupsCreated", pickupsCreated.get());
+        stats.put("schedulesFailed", schedulesFailed.get());
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastError", lastError);
+        return stats;
+    }
+
+    // Counted once the transaction commits, so a page that rolls back and is retried is not counted twice
+    private void materialize(TransactionTemplate transaction, List<Due> schedules, LocalDate today) {
+        Materialized materialized = transaction.execute(tx -> materialize(schedules, today));
+        schedulesAdvanced.addAndGet(materialized.schedulesAdvanced());
+        pickupsCreated.addAndGet(materialized.pickupIds().size());
+    }
+
+    // Must run inside a transaction
+    private Materialized materialize(List<Due> schedules, LocalDate today) {
+        LocalDate horizon = today.plusDays(windowDays);
+        List<Object[]> claims = new ArrayList<>(schedules.size());
+        for (Due due : schedules) {
+            LocalDate through = due.endDate() != null && due.endDate().isBefore(horizon) ? due.endDate() : horizon;
+            boolean active = due.endDate() == null || due.endDate().isAfter(through);
+            claims.add(new Object[] {Date.valueOf(through), active, due.scheduleId(), Date.valueOf(due.materializedThrough())});
+        }
+        int[] counts = jdbcTemplate.batchUpdate(
+                "UPDATE pickup_schedules SET materialized_through = ?, active = ? " +
+                "WHERE schedule_id = ? AND active = TRUE AND materialized_through = ?", claims);
+
+        List<PickupBatchService.NewPickup> pickups = new ArrayList<>();
+        int advanced = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                // Advanced or cancelled since it was read
+                continue;
+            }
+            Due due = schedules.get(i);
+            LocalDate from = due.materializedThrough().plusDays(1);
+            if (from.isBefore(today)) {
+                from = today;
+            }
+            for (LocalDate date : occurrences(due.frequency(), due.startDate(), from, ((Date) claims.get(i)[0]).toLocalDate())) {
+                pickups.add(new PickupBatchService.NewPickup(due.userId(), due.wasteType(), date, due.scheduledTime(),
+                        due.notes(), due.frequency().name(), due.scheduleId(), due.latitude(), due.longitude()));
+            }
+            advanced++;
+        }
+        return new Materialized(advanced, pickupBatchService.insert(pickups));
+    }
+
+    // Drivers that batch without per-row counts report SUCCESS_NO_INFO; those pickups were deleted if they are gone
+    private Set<Long> deleted(List<PickupStatusChangedEvent> upcoming, int[] counts) {
+        Set<Long> deleted = new HashSet<>();
+        List<Long> unknown = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                unknown.add(upcoming.get(i).getPickupId());
+            } else if (counts[i] > 0) {
+                deleted.add(upcoming.get(i).getPickupId());
+            }
+        }
+        if (!unknown.isEmpty()) {
+            Set<Long> remaining = new HashSet<>(jdbcTemplate.queryForList(
+                    "SELECT pickup_id FROM pickup_requests WHERE pickup_id IN (" +
+                    unknown.stream().map(String::valueOf).collect(Collectors.joining(", ")) + ")", Long.class));
+            unknown.stream().filter(id -> !remaining.contains(id)).forEach(deleted::add);
+        }
+        return deleted;
+    }
+
+    /**
+     * Occurrences in [from, to]. Each is computed from the start date rather than the previous occurrence, so a
+     * monthly schedule starting on the 31st falls on the last day of shorter months and returns to the 31st.
+     */
+    static List<LocalDate> occurrences(BusinessDetails.PickupFrequency frequency, LocalDate start, LocalDate from,
+                                       LocalDate to) {
+        ChronoUnit unit = switch (frequency) {
+            case DAILY -> ChronoUnit.DAYS;
+            case WEEKLY -> ChronoUnit.WEEKS;
+            case MONTHLY -> ChronoUnit.MONTHS;
+            case ON_DEMAND -> throw new IllegalArgumentException("ON_DEMAND schedules have no occurrences");
+        };
+        List<LocalDate> dates = new ArrayList<>();
+        long n = Math.max(0, unit.between(start, from));
+        for (LocalDate date = start.plus(n, unit); !date.isAfter(to); date = start.plus(++n, unit)) {
+            if (!date.isBefore(from)) {
+                dates.add(date);
+            }
+        }
+        return dates;
+    }
+
+    private BusinessDetails.PickupFrequency parseFrequency(Long userId, Object value) {
+        BusinessDetails.PickupFrequency frequency;
+        if (value == null) {
+            frequency = businessDetailsRepository.findByUserUserId(userId)
+                    .map(BusinessDetails::getPickupFrequency)
+                    .orElseThrow(() -> new IllegalArgumentException("pickupFrequency is required"));
+        } else {
+            try {
+                frequency = BusinessDetails.PickupFrequency.valueOf(value.toString());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown pickupFrequency " + value);
+            }
+        }
+        if (frequency == BusinessDetails.PickupFrequency.ON_DEMAND) {
+            throw new IllegalArgumentException("ON_DEMAND pickups are booked one at a time, not as a schedule");
+        }
+        return frequency;
+    }
+}
@@ -1,11 +1,19 @@
 package com.bintobloom.service;
 
+import com.bintobloom.dto.KeysetCursor;
+import com.bintobloom.dto.KeysetPage;
 import com.bintobloom.dto.PickupRequestDto;
+import com.bintobloom.dto.PickupView;
 import com.bintobloom.entity.PickupRequest;
 import com.bintobloom.entity.User;
+import com.bintobloom.event.PickupStatusChangedEvent;
 import com.bintobloom.repository.PickupRequestRepository;
 import com.bintobloom.security.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -23,6 +31,15 @@ public class PickupService {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${app.pagination.default-size:50}")
+    private int defaultPageSize;
+    
+    @Value("${app.pagination.max-size:100}")
+    private int maxPageSize;
+    
     public PickupRequest createPickupRequest(PickupRequestDto requestDto) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
@@ -56,15 +73,31 @@ public class PickupService {
     }
     
     public PickupRequest assignCollector(Long pickupId, Long collectorId) {
-        PickupRequest pickupRequest = pickupRequestRepository.findById(pickupId)
+        User collector = userService.findById(collectorId);
+        if (collector.getRole() != User.UserRole.COLLECTOR || collector.getStatus() != User.UserStatus.ACTIVE) {
+            throw new IllegalArgumentException("User is not an active collector");
+        }
+        return acceptPickup(pickupId, collectorId);
+    }
+    
+    /**
+     * Gives a PENDING pickup to the collector with one conditional UPDATE, so when several collectors race
+     * for the same request exactly one wins and no row is locked across a read.
+     *
+     * @throws IllegalStateException if the pickup is no longer pending
+     */
+    public PickupRequest acceptPickup(Long pickupId, Long collectorId) {
+        if (pickupRequestRepository.assignIfPending(pickupId, collectorId) == 0) {
+            if (!pickupRequestRepository.existsById(pickupId)) {
+                throw new RuntimeException("Pickup request not found");
+            }
+            throw new IllegalStateException("Request has already been taken");
+        }
+        PickupRequest accepted = pickupRequestRepository.findById(pickupId)
                 .orElseThrow(() -> new RuntimeException("Pickup request not found"));
-        
-        User collector = userService.findByEmail(userService.findByEmail("collector@email.com").getEmail()); // This needs proper implementation
-        
-        pickupRequest.setCollector(collector);
-        pickupRequest.setPickupStatus(PickupRequest.PickupStatus.ASSIGNED);
-        
-        return pickupRequestRepository.save(pickupRequest);
+        eventPublisher.publishEvent(PickupStatusChangedEvent.of(
+                accepted, PickupRequest.PickupStatus.PENDING, PickupRequest.PickupStatus.ASSIGNED));
+        return accepted;
     }
     
     public PickupRequest updatePickupStatus(Long pickupId, PickupRequest.PickupStatus status) {
@@ -74,4 +107,49 @@ public class PickupService {
         pickupRequest.setPickupStatus(status);
         return pickupRequestRepository.save(pickupRequest);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Pickups requested by a household or business, newest first.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public KeysetPage<PickupView> getUserFeed(Long userId, String cursor, Integer size) {
+        Pageable pageable = pageOf(size);
+        KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : null;
+        return toPage(after == null
+                ? pickupRequestRepository.findUserFeed(userId, pageable)
+                : pickupRequestRepository.findUserFeedAfter(userId, after.getCreatedAt(), after.getId(), pageable), pageable);
+    }
+    
+    public KeysetPage<PickupView> getCollectorFeed(Long collectorId, String cursor, Integer size) {
+        Pageable pageable = pageOf(size);
+        KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : null;
+        return toPage(after == null
+                ? pickupRequestRepository.findCollectorFeed(collectorId, pageable)
+                : pickupRequestRepository.findCollectorFeedAfter(collectorId, after.getCreatedAt(), after.getId(), pageable), pageable);
+    }
+    
+    public KeysetPage<PickupView> getStatusFeed(PickupRequest.PickupStatus status, String cursor, Integer size) {
+        Pageable pageable = pageOf(size);
+        KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : null;
+        return toPage(after == null
+                ? pickupRequestRepository.findStatusFeed(status, pageable)
+                : pickupRequestRepository.findStatusFeedAfter(status, after.getCreatedAt(), after.getId(), pageable), pageable);
+    }
+    
+    // One extra row is fetched to learn whether another page exists without a COUNT query
+    private Pageable pageOf(Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        return PageRequest.of(0, pageSize + 1);
+    }
+    
+    private KeysetPage<PickupView> toPage(List<PickupRequest> rows, Pageable pageable) {
+        int pageSize = pageable.getPageSize() - 1;
+        if (rows.size() <= pageSize) {
+            return new KeysetPage<>(rows.stream().map(PickupView::of).toList(), null);
+        }
+        List<PickupView> items = rows.subList(0, pageSize).stream().map(PickupView::of).toList();
+        PickupView last = items.get(pageSize - 1);
+        return new KeysetPage<>(items, new KeysetCursor(last.getCreatedAt(), last.getPickupId()).encode());
+    }
+}
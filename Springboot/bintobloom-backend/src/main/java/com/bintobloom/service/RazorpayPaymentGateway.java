@@ -0,0 +1,73 @@
+package com.bintobloom.service;
+
+import com.razorpay.RazorpayClient;
+import com.razorpay.RazorpayException;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.regex.Pattern;
+
+/**
+ * Razorpay orders through one shared client. Each RazorpayClient constructor rebuilds the SDK's static HTTP
+ * client, so building one per request threw away its connection pool every time.
+ */
+@Service
+@ConditionalOnProperty(name = "app.payment.gateway", havingValue = "razorpay", matchIfMissing = true)
+public class RazorpayPaymentGateway implements PaymentGateway {
+
+    private static final Pattern CLIENT_ERROR_STATUS = Pattern.compile("Status Code: 4\\d\\d\\b");
+
+    private final RazorpayClient razorpay;
+    private final String keyId;
+
+    public RazorpayPaymentGateway(@Value("${razorpay.key.id}") String keyId,
+                                  @Value("${razorpay.key.secret}") String keySecret) throws RazorpayException {
+        this.razorpay = new RazorpayClient(keyId, keySecret);
+        this.keyId = keyId;
+    }
+
+    @Override
+    public Order createOrder(long amountPaise, String currency, String receipt) {
+        JSONObject orderRequest = new JSONObject();
+        orderRequest.put("amount", amountPaise);
+        orderRequest.put("currency", currency);
+        orderRequest.put("receipt", receipt);
+        try {
+            com.razorpay.Order order = razorpay.orders.create(orderRequest);
+            return new Order(order.get("id"), ((Number) order.get("amount")).longValue(), order.get("currency"));
+        } catch (RazorpayException e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public OrderStatus fetchOrderStatus(String orderId) {
+        try {
+            boolean authorized = false;
+            for (com.razorpay.Payment payment : razorpay.orders.fetchPayments(orderId)) {
+                if ("captured".equals(payment.get("status"))) {
+                    return new OrderStatus(orderId, true, payment.get("id"), false);
+                }
+                authorized |= "authorized".equals(payment.get("status"));
+            }
+            return new OrderStatus(orderId, false, null, authorized);
+        } catch (RazorpayException e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public String getKeyId() {
+        return keyId;
+    }
+
+    // The SDK reports every failure as a RazorpayException with only a message: "CODE:description" when the
+    // response carried an error body, "Status Code: nnn ..." when it did not, and the I/O error's message otherwise
+    private static GatewayException failure(RazorpayException e) {
+        String message = String.valueOf(e.getMessage());
+        boolean rejected = message.startsWith("BAD_REQUEST_ERROR") || CLIENT_ERROR_STATUS.matcher(message).lookingAt();
+        return new GatewayException(e.getMessage(), e, rejected);
+    }
+}
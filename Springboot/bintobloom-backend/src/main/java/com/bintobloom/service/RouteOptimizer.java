@@ -0,0 +1,261 @@
+package com.bintobloom.service;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Open-path visiting order for one collector's stops: nearest-neighbour construction followed by 2-opt with
+ * neighbour lists and don't-look bits, stopped early at a deadline. Coordinates are projected onto a local
+ * plane around the stops' mean latitude, which is accurate to well under a percent at city scale.
+ *
+ * <p>The path starts at the depot when one is given (the depot is never moved), otherwise at the stop
+ * furthest from the centroid, and ends wherever is shortest.
+ */
+public final class RouteOptimizer {
+
+    static final int NEIGHBOURS = 10;
+
+    private static final double KM_PER_DEGREE = Math.PI * 6371.0088 / 180;
+
+    private final int n;
+    private final double[] x;
+    private final double[] y;
+    private final boolean hasDepot;
+
+    private RouteOptimizer(double[] latitudes, double[] longitudes, Double depotLatitude, Double depotLongitude) {
+        hasDepot = depotLatitude != null && depotLongitude != null;
+        n = latitudes.length + (hasDepot ? 1 : 0);
+        x = new double[n];
+        y = new double[n];
+
+        double meanLatitude = 0;
+        for (double latitude : latitudes) {
+            meanLatitude += latitude / latitudes.length;
+        }
+        double cosLat = Math.cos(Math.toRadians(meanLatitude));
+        int offset = hasDepot ? 1 : 0;
+        if (hasDepot) {
+            x[0] = depotLongitude * KM_PER_DEGREE * cosLat;
+            y[0] = depotLatitude * KM_PER_DEGREE;
+        }
+        for (int i = 0; i < latitudes.length; i++) {
+            x[i + offset] = longitudes[i] * KM_PER_DEGREE * cosLat;
+            y[i + offset] = latitudes[i] * KM_PER_DEGREE;
+        }
+    }
+
+    /**
+     * @return indexes into the stop arrays in visiting order
+     */
+    public static int[] optimise(double[] latitudes, double[] longitudes, Double depotLatitude, Double depotLongitude,
+                          long deadlineNanos) {
+        if (latitudes.length == 0) {
+            return new int[0];
+        }
+        RouteOptimizer optimizer = new RouteOptimizer(latitudes, longitudes, depotLatitude, depotLongitude);
+        int[] tour = optimizer.nearestNeighbour();
+        optimizer.twoOpt(tour, deadlineNanos);
+
+        int offset = optimizer.hasDepot ? 1 : 0;
+        int[] order = new int[latitudes.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = tour[i + offset] - offset;
+        }
+        return order;
+    }
+
+    /**
+     * @return total path length in km for the given order, starting at the depot when one is given
+     */
+    static double lengthKm(double[] latitudes, double[] longitudes, Double depotLatitude, Double depotLongitude,
+                           int[] order) {
+        if (order.length == 0) {
+            return 0;
+        }
+        RouteOptimizer optimizer = new RouteOptimizer(latitudes, longitudes, depotLatitude, depotLongitude);
+        int offset = optimizer.hasDepot ? 1 : 0;
+        double length = 0;
+        int previous = optimizer.hasDepot ? 0 : order[0] + offset;
+        for (int stop : order) {
+            length += optimizer.distance(previous, stop + offset);
+            previous = stop + offset;
+        }
+        return length;
+    }
+
+    private double distance(int a, int b) {
+        double dx = x[a] - x[b];
+        double dy = y[a] - y[b];
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private int[] nearestNeighbour() {
+        int start = hasDepot ? 0 : furthestFromCentroid();
+        int[] tour = new int[n];
+        // Unvisited nodes are kept packed at the front of this array so each step scans only those
+        int[] unvisited = new int[n];
+        for (int i = 0; i < n; i++) {
+            unvisited[i] = i;
+        }
+        int remaining = n;
+        unvisited[start] = unvisited[--remaining];
+
+        tour[0] = start;
+        for (int step = 1; step < n; step++) {
+            int current = tour[step - 1];
+            int best = 0;
+            double bestSquared = Double.MAX_VALUE;
+            for (int k = 0; k < remaining; k++) {
+                int candidate = unvisited[k];
+                double dx = x[current] - x[candidate];
+                double dy = y[current] - y[candidate];
+                double squared = dx * dx + dy * dy;
+                if (squared < bestSquared) {
+                    bestSquared = squared;
+                    best = k;
+                }
+            }
+            tour[step] = unvisited[best];
+            unvisited[best] = unvisited[--remaining];
+        }
+        return tour;
+    }
+
+    private int furthestFromCentroid() {
+        double cx = 0;
+        double cy = 0;
+        for (int i = 0; i < n; i++) {
+            cx += x[i] / n;
+            cy += y[i] / n;
+        }
+        int furthest = 0;
+        double furthestSquared = -1;
+        for (int i = 0; i < n; i++) {
+            double squared = (x[i] - cx) * (x[i] - cx) + (y[i] - cy) * (y[i] - cy);
+            if (squared > furthestSquared) {
+                furthestSquared = squared;
+                furthest = i;
+            }
+        }
+        return furthest;
+    }
+
+    // Moves that reverse tour[p + 1 .. q]; the node at position 0 never moves and the path end is open
+    private void twoOpt(int[] tour, long deadlineNanos) {
+        if (n < 4) {
+            return;
+        }
+        int[][] neighbours = nearestNeighbours(Math.min(NEIGHBOURS, n - 1));
+        int[] position = new int[n];
+        for (int i = 0; i < n; i++) {
+            position[tour[i]] = i;
+        }
+        boolean[] queued = new boolean[n];
+        ArrayDeque<Integer> active = new ArrayDeque<>(n);
+        for (int node : tour) {
+            active.add(node);
+            queued[node] = true;
+        }
+
+        int checks = 0;
+        while (!active.isEmpty()) {
+            if ((++checks & 255) == 0 && System.nanoTime() > deadlineNanos) {
+                return;
+            }
+            int a = active.poll();
+            queued[a] = false;
+            int i = position[a];
+            double longestEdge = Math.max(
+                    i > 0 ? distance(a, tour[i - 1]) : 0,
+                    i + 1 < n ? distance(a, tour[i + 1]) : 0);
+            for (int c : neighbours[a]) {
+                // Neighbours are nearest first, so no later one can shorten either of a's edges
+                if (distance(a, c) >= longestEdge) {
+                    break;
+                }
+                int j = position[c];
+                // New edge (a, c) replacing a's successor edge, then replacing its predecessor edge
+                if (tryMove(tour, position, Math.min(i, j), Math.max(i, j), active, queued)
+                        || (Math.min(i, j) > 0 && tryMove(tour, position, Math.min(i, j) - 1, Math.max(i, j) - 1, active, queued))) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private boolean tryMove(int[] tour, int[] position, int p, int q, ArrayDeque<Integer> active, boolean[] queued) {
+        if (q - p < 2) {
+            return false;
+        }
+        boolean hasNext = q + 1 < n;
+        double removed = distance(tour[p], tour[p + 1]) + (hasNext ? distance(tour[q], tour[q + 1]) : 0);
+        double added = distance(tour[p], tour[q]) + (hasNext ? distance(tour[p + 1], tour[q + 1]) : 0);
+        if (added >= removed - 1e-9) {
+            return false;
+        }
+        for (int node : hasNext ? new int[] {tour[p], tour[p + 1], tour[q], tour[q + 1]} : new int[] {tour[p], tour[p + 1], tour[q]}) {
+            if (!queued[node]) {
+                queued[node] = true;
+                active.add(node);
+            }
+        }
+        for (int left = p + 1, right = q; left < right; left++, right--) {
+            int swap = tour[left];
+            tour[left] = tour[right];
+            tour[right] = swap;
+            position[tour[left]] = left;
+            position[tour[right]] = right;
+        }
+        return true;
+    }
+
+    // k nearest nodes of every node, nearest first, by sweeping outwards in x order
+    private int[][] nearestNeighbours(int k) {
+        Integer[] boxed = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, Comparator.comparingDouble(i -> x[i]));
+        int[] byX = new int[n];
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            byX[i] = boxed[i];
+            rank[boxed[i]] = i;
+        }
+
+        int[][] neighbours = new int[n][];
+        int[] best = new int[k];
+        double[] bestSquared = new double[k];
+        for (int node = 0; node < n; node++) {
+            int found = 0;
+            int left = rank[node] - 1;
+            int right = rank[node] + 1;
+            while (left >= 0 || right < n) {
+                double leftGap = left >= 0 ? x[node] - x[byX[left]] : Double.MAX_VALUE;
+                double rightGap = right < n ? x[byX[right]] - x[node] : Double.MAX_VALUE;
+                double gap = Math.min(leftGap, rightGap);
+                if (found == k && gap * gap >= bestSquared[k - 1]) {
+                    break;
+                }
+                int candidate = leftGap <= rightGap ? byX[left--] : byX[right++];
+                double dx = x[node] - x[candidate];
+                double dy = y[node] - y[candidate];
+                double squared = dx * dx + dy * dy;
+                if (found < k || squared < bestSquared[k - 1]) {
+                    // Insertion into the sorted best-k arrays
+                    int slot = found < k ? found++ : k - 1;
+                    while (slot > 0 && bestSquared[slot - 1] > squared) {
+                        best[slot] = best[slot - 1];
+                        bestSquared[slot] = bestSquared[slot - 1];
+                        slot--;
+                    }
+                    best[slot] = candidate;
+                    bestSquared[slot] = squared;
+                }
+            }
+            neighbours[node] = Arrays.copyOf(best, found);
+        }
+        return neighbours;
+    }
+}
@@ -0,0 +1,216 @@
+package com.bintobloom.service;
+
+import com.bintobloom.dto.CollectorRoute;
+import com.bintobloom.dto.RouteStop;
+import com.bintobloom.entity.PickupRequest;
+import com.bintobloom.event.PickupStatusChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Daily visiting orders for collectors. A plan covers one date: each collector's ASSIGNED and IN_PROGRESS
+ * pickups form one route starting from the collector's last known position, and the day's PENDING pickups form
+ * one more route with no collector. Routes are optimised in parallel on a fork-join pool within
+ * {@code app.route.time-budget-ms}, and the plan is cached until a pickup scheduled on that date changes.
+ */
+@Service
+public class RoutePlannerService {
+
+    private static final class Stop {
+        final long pickupId;
+        final PickupRequest.PickupStatus status;
+        final PickupRequest.WasteType wasteType;
+        final LocalTime scheduledTime;
+        final Double latitude;
+        final Double longitude;
+
+        Stop(long pickupId, PickupRequest.PickupStatus status, PickupRequest.WasteType wasteType,
+             LocalTime scheduledTime, Double latitude, Double longitude) {
+            this.pickupId = pickupId;
+            this.status = status;
+            this.wasteType = wasteType;
+            this.scheduledTime = scheduledTime;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LocationIngestionService locationIngestionService;
+
+    @Value("${app.route.time-budget-ms:1500}")
+    private long timeBudgetMs;
+
+    private final ForkJoinPool pool;
+
+    // Keyed by date; collector id null holds the unassigned route
+    private final Map<LocalDate, CompletableFuture<Map<Long, CollectorRoute>>> plans = new ConcurrentHashMap<>();
+
+    public RoutePlannerService(@Value("${app.route.parallelism:0}") int parallelism) {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    public CollectorRoute getRoute(LocalDate date, Long collectorId) {
+        CollectorRoute route = plan(date).get(collectorId);
+        return route != null ? route : new CollectorRoute(collectorId, date, 0.0, List.of(), List.of(), LocalDateTime.now());
+    }
+
+    public Collection<CollectorRoute> getPlan(LocalDate date) {
+        return plan(date).values();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPickupStatusChanged(PickupStatusChangedEvent event) {
+        if (event.getScheduledDate() != null) {
+            plans.remove(event.getScheduledDate());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // Concurrent callers for the same date wait on one computation instead of each planning the day
+    private Map<Long, CollectorRoute> plan(LocalDate date) {
+        plans.keySet().removeIf(planned -> planned.isBefore(LocalDate.now().minusDays(1)));
+
+        CompletableFuture<Map<Long, CollectorRoute>> created = new CompletableFuture<>();
+        CompletableFuture<Map<Long, CollectorRoute>> existing = plans.putIfAbsent(date, created);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            created.complete(compute(date));
+        } catch (RuntimeException e) {
+            plans.remove(date, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+        return created.join();
+    }
+
+    private Map<Long, CollectorRoute> compute(LocalDate date) {
+        Map<Long, List<Stop>> stopsByCollector = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT pickup_id, collector_id, pickup_status, waste_type, scheduled_time, latitude, longitude " +
+                "FROM pickup_requests " +
+                "WHERE scheduled_date = ? AND pickup_status IN ('PENDING', 'ASSIGNED', 'IN_PROGRESS')",
+                rs -> {
+                    PickupRequest.PickupStatus status = PickupRequest.PickupStatus.valueOf(rs.getString(3));
+                    Long collectorId = status == PickupRequest.PickupStatus.PENDING ? null : rs.getObject(2, Long.class);
+                    Time scheduledTime = rs.getTime(5);
+                    stopsByCollector.computeIfAbsent(collectorId, id -> new ArrayList<>()).add(new Stop(
+                            rs.getLong(1), status, PickupRequest.WasteType.valueOf(rs.getString(4)),
+                            scheduledTime != null ? scheduledTime.toLocalTime() : null,
+                            rs.getObject(6) != null ? rs.getDouble(6) : null,
+                            rs.getObject(7) != null ? rs.getDouble(7) : null));
+                },
+                date);
+
+        Map<Long, double[]> depots = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT user_id, latitude, longitude FROM users " +
+                "WHERE role = 'COLLECTOR' AND latitude IS NOT NULL AND longitude IS NOT NULL",
+                rs -> {
+                    depots.put(rs.getLong(1), new double[] {rs.getDouble(2), rs.getDouble(3)});
+                });
+
+        long deadline = System.nanoTime() + timeBudgetMs * 1_000_000;
+        LocalDateTime plannedAt = LocalDateTime.now();
+        List<RecursiveTask<CollectorRoute>> tasks = new ArrayList<>();
+        stopsByCollector.forEach((collectorId, stops) -> {
+            double[] depot = depot(collectorId, depots);
+            tasks.add(new RecursiveTask<>() {
+                @Override
+                protected CollectorRoute compute() {
+                    return route(collectorId, date, stops, depot, deadline, plannedAt);
+                }
+            });
+        });
+
+        Map<Long, CollectorRoute> routes = new HashMap<>();
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                ForkJoinTask.invokeAll(tasks);
+                return null;
+            }
+        });
+        for (RecursiveTask<CollectorRoute> task : tasks) {
+            CollectorRoute route = task.join();
+            routes.put(route.getCollectorId(), route);
+        }
+        return Collections.unmodifiableMap(routes);
+    }
+
+    private double[] depot(Long collectorId, Map<Long, double[]> stored) {
+        if (collectorId == null) {
+            return null;
+        }
+        LocationIngestionService.Position latest = locationIngestionService.getLatestPosition(collectorId);
+        return latest != null ? new double[] {latest.latitude(), latest.longitude()} : stored.get(collectorId);
+    }
+
+    private static CollectorRoute route(Long collectorId, LocalDate date, List<Stop> stops, double[] depot,
+                                        long deadline, LocalDateTime plannedAt) {
+        List<Stop> located = new ArrayList<>(stops.size());
+        List<Long> unrouted = new ArrayList<>();
+        for (Stop stop : stops) {
+            if (stop.latitude != null && stop.longitude != null) {
+                located.add(stop);
+            } else {
+                unrouted.add(stop.pickupId);
+            }
+        }
+
+        double[] latitudes = new double[located.size()];
+        double[] longitudes = new double[located.size()];
+        for (int i = 0; i < located.size(); i++) {
+            latitudes[i] = located.get(i).latitude;
+            longitudes[i] = located.get(i).longitude;
+        }
+        Double depotLatitude = depot != null ? depot[0] : null;
+        Double depotLongitude = depot != null ? depot[1] : null;
+        int[] order = RouteOptimizer.optimise(latitudes, longitudes, depotLatitude, depotLongitude, deadline);
+
+        List<RouteStop> routeStops = new ArrayList<>(order.length);
+        double totalKm = 0;
+        double previousLatitude = depot != null ? depot[0] : Double.NaN;
+        double previousLongitude = depot != null ? depot[1] : Double.NaN;
+        for (int i = 0; i < order.length; i++) {
+            Stop stop = located.get(order[i]);
+            double legKm = Double.isNaN(previousLatitude) ? 0
+                    : PickupGeoIndexService.haversineKm(previousLatitude, previousLongitude, stop.latitude, stop.longitude);
+            totalKm += legKm;
+            routeStops.add(new RouteStop(i + 1, stop.pickupId, stop.status, stop.wasteType, stop.scheduledTime,
+                    stop.latitude, stop.longitude, Math.round(legKm * 1000) / 1000.0));
+            previousLatitude = stop.latitude;
+            previousLongitude = stop.longitude;
+        }
+        return new CollectorRoute(collectorId, date, Math.round(totalKm * 1000) / 1000.0, routeStops, unrouted, plannedAt);
+    }
+}
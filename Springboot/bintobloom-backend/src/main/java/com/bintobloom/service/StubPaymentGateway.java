@@ -0,0 +1,52 @@
+package com.bintobloom.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Offline stand-in for load tests and local runs: every call succeeds after {@code app.payment.stub.latency-ms}.
+ * Status lookups report {@code app.payment.stub.paid-percent} of orders as paid, chosen by order id so repeated
+ * lookups agree.
+ */
+@Service
+@ConditionalOnProperty(name = "app.payment.gateway", havingValue = "stub")
+public class StubPaymentGateway implements PaymentGateway {
+
+    @Value("${app.payment.stub.latency-ms:0}")
+    private long latencyMs;
+
+    @Value("${app.payment.stub.paid-percent:0}")
+    private int paidPercent;
+
+    @Override
+    public Order createOrder(long amountPaise, String currency, String receipt) {
+        simulateLatency();
+        return new Order("order_stub_" + UUID.randomUUID().toString().replace("-", ""), amountPaise, currency);
+    }
+
+    @Override
+    public OrderStatus fetchOrderStatus(String orderId) {
+        simulateLatency();
+        boolean paid = Math.floorMod(orderId.hashCode(), 100) < paidPercent;
+        return new OrderStatus(orderId, paid, paid ? "pay_stub_" + Integer.toHexString(orderId.hashCode()) : null, false);
+    }
+
+    @Override
+    public String getKeyId() {
+        return "rzp_stub";
+    }
+
+    private void simulateLatency() {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new GatewayException("Interrupted", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.bintobloom.service;
+
+import com.bintobloom.entity.PickupRequest;
+import com.bintobloom.entity.User;
+import com.bintobloom.event.CollectorLocationEvent;
+import com.bintobloom.event.PickupStatusChangedEvent;
+import com.bintobloom.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Server-sent tracking updates per pickup, fanned out from memory. Each pickup with subscribers has a channel
+ * holding the same snapshot GET /api/tracking/{pickupId} returns; collector pings and status changes replace
+ * it and mark every subscriber dirty. A small pool of sender threads writes the newest snapshot to each dirty
+ * subscriber, so a slow client skips intermediate positions instead of queueing them, and idle subscribers
+ * hold a servlet async request but no thread.
+ *
+ * <p>Streams end with the pickup (completed, cancelled or deleted), on timeout, or when a write fails.
+ */
+@Service
+public class TrackingStreamService {
+
+    public static final Set<PickupRequest.PickupStatus> FINAL_STATUSES = EnumSet.of(
+            PickupRequest.PickupStatus.COMPLETED, PickupRequest.PickupStatus.CANCELLED);
+
+    private static final Object HEARTBEAT = new Object();
+
+    private static final class Snapshot {
+        final Long pickupId;
+        final PickupRequest.PickupStatus status;
+        final Object pickupLat;
+        final Object pickupLng;
+        final Long collectorId;
+        final String collectorName;
+        final String collectorPhone;
+        final Object collectorLat;
+        final Object collectorLng;
+        final Long collectorLocationAt;
+
+        Snapshot(Long pickupId, PickupRequest.PickupStatus status, Object pickupLat, Object pickupLng,
+                 Long collectorId, String collectorName, String collectorPhone,
+                 Object collectorLat, Object collectorLng, Long collectorLocationAt) {
+            this.pickupId = pickupId;
+            this.status = status;
+            this.pickupLat = pickupLat;
+            this.pickupLng = pickupLng;
+            this.collectorId = collectorId;
+            this.collectorName = collectorName;
+            this.collectorPhone = collectorPhone;
+            this.collectorLat = collectorLat;
+            this.collectorLng = collectorLng;
+            this.collectorLocationAt = collectorLocationAt;
+        }
+
+        Snapshot withStatus(PickupRequest.PickupStatus newStatus) {
+            return new Snapshot(pickupId, newStatus, pickupLat, pickupLng, collectorId, collectorName, collectorPhone,
+                    collectorLat, collectorLng, collectorLocationAt);
+        }
+
+        Snapshot withCollectorLocation(double latitude, double longitude, long recordedAt) {
+            return new Snapshot(pickupId, status, pickupLat, pickupLng, collectorId, collectorName, collectorPhone,
+                    latitude, longitude, recordedAt);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> trackingInfo = new HashMap<>();
+            trackingInfo.put("pickupId", pickupId);
+            trackingInfo.put("status", status);
+            trackingInfo.put("pickupLocation", Map.of("lat", pickupLat, "lng", pickupLng));
+            if (collectorId != null) {
+                trackingInfo.put("collectorLocation", Map.of("lat", collectorLat, "lng", collectorLng));
+                if (collectorLocationAt != null) {
+                    trackingInfo.put("collectorLocationAt", collectorLocationAt);
+                }
+                trackingInfo.put("collectorName", collectorName);
+                trackingInfo.put("collectorPhone", collectorPhone);
+            }
+            return trackingInfo;
+        }
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final Long pickupId;
+        final AtomicReference<Object> pending = new AtomicReference<>();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, Long pickupId) {
+            this.emitter = emitter;
+            this.pickupId = pickupId;
+        }
+
+        // Newer snapshots replace one that has not been written yet; heartbeats never replace a snapshot
+        void offer(Object update) {
+            if (update != HEARTBEAT) {
+                pending.set(update);
+            } else if (!pending.compareAndSet(null, HEARTBEAT)) {
+                return;
+            }
+            if (!closed.get() && scheduled.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Object update = pending.getAndSet(null);
+                if (update != null && !closed.get()) {
+                    write(update);
+                }
+                scheduled.set(false);
+            } while (pending.get() != null && !closed.get() && scheduled.compareAndSet(false, true));
+        }
+
+        private void write(Object update) {
+            try {
+                if (update == HEARTBEAT) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    Snapshot snapshot = (Snapshot) update;
+                    emitter.send(SseEmitter.event().name("tracking").data(snapshot.toMap(), MediaType.APPLICATION_JSON));
+                    sent.incrementAndGet();
+                    if (snapshot.status == null || FINAL_STATUSES.contains(snapshot.status)) {
+                        emitter.complete();
+                        unsubscribe(this);
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away
+                emitter.completeWithError(e);
+                unsubscribe(this);
+            }
+        }
+    }
+
+    private final class Channel {
+        final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        volatile Snapshot snapshot;
+
+        Channel(Snapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        // Callers hold the channel's monitor so read-modify-write of the snapshot is not interleaved
+        void update(Snapshot updated) {
+            snapshot = updated;
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(updated);
+            }
+        }
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LocationIngestionService locationIngestionService;
+
+    @Value("${app.tracking.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.tracking.stream.max-subscribers:50000}")
+    private int maxSubscribers;
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> pickupsByCollector = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong sent = new AtomicLong();
+    private final ExecutorService senders;
+
+    public TrackingStreamService(@Value("${app.tracking.stream.sender-threads:4}") int senderThreads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread thread = new Thread(r, "tracking-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens a stream for a pickup the caller is allowed to track. The first event is the current snapshot.
+     *
+     * @throws IllegalStateException when the subscriber limit is reached
+     */
+    public SseEmitter subscribe(PickupRequest pickup) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("Too many tracking subscribers, try again later");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, pickup.getPickupId());
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        Channel channel;
+        try {
+            channel = channels.compute(pickup.getPickupId(), (id, existing) -> {
+                Channel target = existing != null ? existing : new Channel(snapshotOf(pickup));
+                target.subscribers.add(subscriber);
+                if (existing == null && target.snapshot.collectorId != null) {
+                    pickupsByCollector.computeIfAbsent(target.snapshot.collectorId, c -> ConcurrentHashMap.newKeySet()).add(id);
+                }
+                return target;
+            });
+        } catch (RuntimeException e) {
+            // Gives back the slot taken above; the emitter's callbacks then find the subscriber already closed
+            unsubscribe(subscriber);
+            throw e;
+        }
+        subscriber.offer(channel.snapshot);
+        return emitter;
+    }
+
+    @EventListener
+    public void onCollectorLocation(CollectorLocationEvent event) {
+        Set<Long> pickupIds = pickupsByCollector.get(event.getCollectorId());
+        if (pickupIds == null) {
+            return;
+        }
+        for (Long pickupId : pickupIds) {
+            Channel channel = channels.get(pickupId);
+            if (channel != null) {
+                synchronized (channel) {
+                    channel.update(channel.snapshot.withCollectorLocation(
+                            event.getLatitude(), event.getLongitude(), event.getRecordedAt()));
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPickupStatusChanged(PickupStatusChangedEvent event) {
+        Channel channel = channels.get(event.getPickupId());
+        if (channel == null) {
+            return;
+        }
+        // A new collector's row is read before taking the channel's monitor, so location pings for the pickup do
+        // not wait on the database
+        Long collectorId = event.getCollectorId();
+        User collector = event.getStatus() != null && collectorId != null
+                && !collectorId.equals(channel.snapshot.collectorId)
+                ? userRepository.findById(collectorId).orElse(null) : null;
+        synchronized (channel) {
+            Snapshot current = channel.snapshot;
+            Snapshot updated;
+            if (event.getStatus() != null && !Objects.equals(current.collectorId, collectorId)) {
+                Snapshot withStatus = current.withStatus(event.getStatus());
+                updated = collectorId == null ? withoutCollector(withStatus)
+                        : collector != null ? withCollector(withStatus, collector) : withStatus;
+                moveCollector(event.getPickupId(), current.collectorId, updated.collectorId);
+            } else {
+                updated = current.withStatus(event.getStatus());
+            }
+            channel.update(updated);
+        }
+    }
+
+    // Keeps idle streams open through proxies and surfaces clients that went away as failed writes
+    @Scheduled(initialDelayString = "${app.tracking.stream.heartbeat-ms:15000}",
+               fixedDelayString = "${app.tracking.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Channel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                subscriber.offer(HEARTBEAT);
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("subscribers", subscriberCount.get());
+        stats.put("maxSubscribers", maxSubscribers);
+        stats.put("channels", channels.size());
+        stats.put("eventsSent", sent.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        channels.computeIfPresent(subscriber.pickupId, (id, channel) -> {
+            channel.subscribers.remove(subscriber);
+            if (!channel.subscribers.isEmpty()) {
+                return channel;
+            }
+            moveCollector(id, channel.snapshot.collectorId, null);
+            return null;
+        });
+    }
+
+    private void moveCollector(Long pickupId, Long previousCollectorId, Long collectorId) {
+        if (previousCollectorId != null) {
+            pickupsByCollector.computeIfPresent(previousCollectorId, (id, pickups) -> {
+                pickups.remove(pickupId);
+                return pickups.isEmpty() ? null : pickups;
+            });
+        }
+        if (collectorId != null) {
+            pickupsByCollector.computeIfAbsent(collectorId, id -> ConcurrentHashMap.newKeySet()).add(pickupId);
+        }
+    }
+
+    private Snapshot snapshotOf(PickupRequest pickup) {
+        Snapshot snapshot = new Snapshot(pickup.getPickupId(), pickup.getPickupStatus(),
+                pickup.getLatitude() != null ? pickup.getLatitude() : 0,
+                pickup.getLongitude() != null ? pickup.getLongitude() : 0,
+                null, null, null, null, null, null);
+        User collector = pickup.getCollector();
+        return collector != null ? withCollector(snapshot, collector) : snapshot;
+    }
+
+    private Snapshot withoutCollector(Snapshot snapshot) {
+        return new Snapshot(snapshot.pickupId, snapshot.status, snapshot.pickupLat, snapshot.pickupLng,
+                null, null, null, null, null, null);
+    }
+
+    private Snapshot withCollector(Snapshot snapshot, User collector) {
+        LocationIngestionService.Position latest = locationIngestionService.getLatestPosition(collector.getUserId());
+        return new Snapshot(snapshot.pickupId, snapshot.status, snapshot.pickupLat, snapshot.pickupLng,
+                collector.getUserId(), collector.getName(), collector.getPhone(),
+                latest != null ? latest.latitude() : collector.getLatitude() != null ? collector.getLatitude() : 0,
+                latest != null ? latest.longitude() : collector.getLongitude() != null ? collector.getLongitude() : 0,
+                latest != null ? latest.recordedAt() : null);
+    }
+}
@@ -30,6 +30,11 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
     }
     
+    public User findById(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+    
     public List<User> findCollectorsByCity(String city) {
         return userRepository.findByRoleAndCity(User.UserRole.COLLECTOR, city);
     }
@@ -58,6 +63,7 @@ public class UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setStatus(status);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        return saved;
     }
 }
\ No newline at end of file
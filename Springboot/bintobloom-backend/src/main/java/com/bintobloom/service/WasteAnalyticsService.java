@@ -0,0 +1,196 @@
+package com.bintobloom.service;
+
+import com.bintobloom.entity.PickupRequest;
+import com.bintobloom.event.PickupStatusChangedEvent;
+import com.bintobloom.event.WasteLoggedEvent;
+import com.bintobloom.repository.PickupRequestRepository;
+import com.bintobloom.repository.UserRepository;
+import com.bintobloom.repository.WasteDailyRollupRepository;
+import com.bintobloom.repository.WasteLogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * NGO analytics served from the waste_daily_rollups table, which holds one row per (day, city, waste type).
+ * Rows are upserted as waste is logged and pickups complete, so a date-range query reads
+ * days x cities x types rows regardless of how many waste logs exist.
+ */
+@Service
+public class WasteAnalyticsService {
+
+    private static final LocalDate EARLIEST = LocalDate.of(2000, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO waste_daily_rollups (rollup_date, city, waste_type, weight_kg, waste_log_count, completed_pickups) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE weight_kg = weight_kg + VALUES(weight_kg), " +
+            "waste_log_count = waste_log_count + VALUES(waste_log_count), " +
+            "completed_pickups = completed_pickups + VALUES(completed_pickups)";
+
+    @Autowired
+    private WasteDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private WasteLogRepository wasteLogRepository;
+
+    @Autowired
+    private PickupRequestRepository pickupRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DashboardMetricsService dashboardMetricsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onWasteLogged(WasteLoggedEvent event) {
+        if (event.getWeightKg() == null || event.getWasteType() == null) {
+            return;
+        }
+        String city = pickupRequestRepository.findCityByPickupId(event.getPickupId()).orElse(null);
+        if (city == null) {
+            return;
+        }
+        LocalDate day = event.getCollectedAt() != null ? event.getCollectedAt().toLocalDate() : LocalDate.now();
+        jdbcTemplate.update(UPSERT_SQL, day, city, event.getWasteType().name(), event.getWeightKg(), 1, 0);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onPickupStatusChanged(PickupStatusChangedEvent event) {
+        if (event.getStatus() != PickupRequest.PickupStatus.COMPLETED
+                || event.getPreviousStatus() == PickupRequest.PickupStatus.COMPLETED
+                || event.getUserId() == null || event.getWasteType() == null) {
+            return;
+        }
+        String city = userRepository.findCityByUserId(event.getUserId()).orElse(null);
+        if (city == null) {
+            return;
+        }
+        // Keyed by scheduled date, the same day rebuildRollups uses, so a rebuild reproduces the live rows
+        LocalDate day = event.getScheduledDate() != null ? event.getScheduledDate() : LocalDate.now();
+        jdbcTemplate.update(UPSERT_SQL, day, city, event.getWasteType().name(), BigDecimal.ZERO, 0, 1);
+    }
+
+    public Map<String, Object> getAnalytics(LocalDate from, LocalDate to) {
+        Map<String, Object> analytics = summarize(rollupRepository.summarizeBetween(orEarliest(from), orLatest(to)));
+        // Pickup volume is not rolled up per day; this is the live total from the dashboard counters
+        analytics.put("totalPickups", dashboardMetricsService.getTotalPickupCount());
+        return analytics;
+    }
+
+    /**
+     * Folds (city, waste type, weight, log count, completed pickups) rollup rows into the analytics response.
+     */
+    public static Map<String, Object> summarize(List<Object[]> rows) {
+        BigDecimal totalWaste = BigDecimal.ZERO;
+        long completedPickups = 0;
+        Map<String, BigDecimal> wasteByType = new TreeMap<>();
+        Map<String, Long> cityWisePickups = new TreeMap<>();
+        Map<String, BigDecimal> cityWiseWaste = new TreeMap<>();
+
+        for (Object[] row : rows) {
+            String city = (String) row[0];
+            String wasteType = row[1].toString();
+            BigDecimal weight = (BigDecimal) row[2];
+            long completed = ((Number) row[4]).longValue();
+
+            totalWaste = totalWaste.add(weight);
+            completedPickups += completed;
+            wasteByType.merge(wasteType, weight, BigDecimal::add);
+            cityWiseWaste.merge(city, weight, BigDecimal::add);
+            if (completed > 0) {
+                cityWisePickups.merge(city, completed, Long::sum);
+            }
+        }
+
+        Map<String, Object> analytics = new HashMap<>();
+        analytics.put("totalWaste", totalWaste);
+        analytics.put("completedPickups", completedPickups);
+        analytics.put("wasteByType", wasteByType);
+        analytics.put("cityWisePickups", cityWisePickups);
+        analytics.put("cityWiseWaste", cityWiseWaste);
+        return analytics;
+    }
+
+    public Map<String, Object> getCityAnalytics(String city, LocalDate from, LocalDate to) {
+        List<Object[]> rows = rollupRepository.summarizeCityBetween(city, orEarliest(from), orLatest(to));
+
+        BigDecimal totalWaste = BigDecimal.ZERO;
+        long completedPickups = 0;
+        Map<String, BigDecimal> wasteByType = new TreeMap<>();
+
+        for (Object[] row : rows) {
+            BigDecimal weight = (BigDecimal) row[2];
+            totalWaste = totalWaste.add(weight);
+            completedPickups += ((Number) row[4]).longValue();
+            wasteByType.merge(row[1].toString(), weight, BigDecimal::add);
+        }
+
+        Map<String, Object> analytics = new HashMap<>();
+        analytics.put("city", city);
+        analytics.put("totalWaste", totalWaste);
+        analytics.put("totalPickups", completedPickups);
+        analytics.put("wasteByType", wasteByType);
+        return analytics;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (rollupRepository.count() == 0 && wasteLogRepository.count() > 0) {
+            System.out.println("Waste rollups are empty, rebuilding from waste_logs...");
+            rebuildRollups();
+        }
+    }
+
+    /**
+     * Recomputes every rollup row from the base tables. Pickups have no completion timestamp, so completed
+     * pickups are counted on their scheduled date, as they are live.
+     */
+    @Transactional
+    public int rebuildRollups() {
+        jdbcTemplate.update("DELETE FROM waste_daily_rollups");
+        int rows = jdbcTemplate.update(
+                "INSERT INTO waste_daily_rollups (rollup_date, city, waste_type, weight_kg, waste_log_count, completed_pickups) " +
+                "SELECT CAST(wl.collected_at AS DATE), u.city, wl.waste_type, SUM(wl.weight_kg), COUNT(*), 0 " +
+                "FROM waste_logs wl " +
+                "JOIN pickup_requests pr ON pr.pickup_id = wl.pickup_id " +
+                "JOIN users u ON u.user_id = pr.user_id " +
+                "GROUP BY CAST(wl.collected_at AS DATE), u.city, wl.waste_type");
+        rows += jdbcTemplate.update(
+                "INSERT INTO waste_daily_rollups (rollup_date, city, waste_type, weight_kg, waste_log_count, completed_pickups) " +
+                "SELECT pr.scheduled_date, u.city, pr.waste_type, 0, 0, COUNT(*) " +
+                "FROM pickup_requests pr " +
+                "JOIN users u ON u.user_id = pr.user_id " +
+                "WHERE pr.pickup_status = 'COMPLETED' " +
+                "GROUP BY pr.scheduled_date, u.city, pr.waste_type " +
+                "ON DUPLICATE KEY UPDATE completed_pickups = completed_pickups + VALUES(completed_pickups)");
+        return rows;
+    }
+
+    private LocalDate orEarliest(LocalDate date) {
+        return date != null ? date : EARLIEST;
+    }
+
+    private LocalDate orLatest(LocalDate date) {
+        return date != null ? date : LATEST;
+    }
+}
@@ -17,64 +17,30 @@ public class WasteLogService {
     private WasteLogRepository wasteLogRepository;
     
     @Autowired
-    private HouseholdDetailsRepository householdDetailsRepository;
-    
-    @Autowired
-    private BusinessDetailsRepository businessDetailsRepository;
-    
-    @Autowired
-    private EcoRewardRepository ecoRewardRepository;
-    
-    public WasteLog createWasteLog(PickupRequest pickupRequest, BigDecimal weight, String photoUrl, String notes) {
-        WasteLog wasteLog = new WasteLog();
-        wasteLog.setPickupRequest(pickupRequest);
-        wasteLog.setWasteType(pickupRequest.getWasteType());
-        wasteLog.setWeightKg(weight);
-        wasteLog.setPhotoUrl(photoUrl);
-        wasteLog.setNotes(notes);
-        
-        WasteLog savedLog = wasteLogRepository.save(wasteLog);
+    private PickupCompletionService pickupCompletionService;
+    
+    /**
+     * Logging the waste of a pickup completes it, with the same totals and eco-point rules as the collector flow.
+     *
+     * @throws IllegalArgumentException if the pickup was already billed by a different weight
+     */
+    public WasteLog createWasteLog(PickupRequest pickupRequest, Long collectorId, BigDecimal weight, String photoUrl, String notes) {
+        // Business pickups are weighed when the bill is generated; completing them keeps the billed weight, so a
+        // different one is rejected rather than dropped
+        wasteLogRepository.findByPickupRequest(pickupRequest).ifPresent(billed -> {
+            if (weight != null && weight.compareTo(billed.getWeightKg()) != 0) {
+                throw new IllegalArgumentException("Weight was fixed at " + billed.getWeightKg().stripTrailingZeros().toPlainString()
+                        + " kg when the bill was generated and cannot be changed");
+            }
+        });
+        pickupCompletionService.complete(collectorId, new PickupCompletionService.Completion(
+                pickupRequest.getPickupId(), weight != null ? weight.doubleValue() : null, notes, photoUrl));
         
-        // Update user totals and award points
-        updateUserWasteTotal(pickupRequest.getUser(), weight);
-        awardEcoPoints(pickupRequest.getUser(), weight);
-        
-        return savedLog;
-    }
-    
-    private void updateUserWasteTotal(User user, BigDecimal weight) {
-        if (user.getRole() == User.UserRole.HOUSEHOLD) {
-            householdDetailsRepository.findByUser(user).ifPresent(details -> {
-                details.setTotalWasteKg(details.getTotalWasteKg().add(weight));
-                householdDetailsRepository.save(details);
-            });
-        } else if (user.getRole() == User.UserRole.BUSINESS) {
-            businessDetailsRepository.findByUser(user).ifPresent(details -> {
-                details.setTotalWasteKg(details.getTotalWasteKg().add(weight));
-                businessDetailsRepository.save(details);
-            });
-        }
-    }
-    
-    private void awardEcoPoints(User user, BigDecimal weight) {
-        if (user.getRole() == User.UserRole.HOUSEHOLD) {
-            int points = weight.intValue() * 10; // 10 points per kg
-            
-            EcoReward reward = new EcoReward();
-            reward.setUser(user);
-            reward.setPointsEarned(points);
-            reward.setRewardType(EcoReward.RewardType.PICKUP_COMPLETED);
-            ecoRewardRepository.save(reward);
-            
-            // Update household eco points
-            householdDetailsRepository.findByUser(user).ifPresent(details -> {
-                details.setEcoPoints(details.getEcoPoints() + points);
-                householdDetailsRepository.save(details);
-            });
-        }
+        return wasteLogRepository.findByPickupRequest(pickupRequest)
+                .orElseThrow(() -> new RuntimeException("Waste log not found"));
     }
     
     public List<WasteLog> getUserWasteLogs(Long userId) {
         return wasteLogRepository.findByUserId(userId);
     }
-}
\ No newline at end of file
+}
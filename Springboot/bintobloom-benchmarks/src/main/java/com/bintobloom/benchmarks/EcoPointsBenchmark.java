@@ -0,0 +1,114 @@
+package com.bintobloom.benchmarks;
+
+import com.bintobloom.entity.EcoPointRule;
+import com.bintobloom.entity.PickupRequest;
+import com.bintobloom.service.EcoPointRules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Eco-point calculation as done for every completed pickup, with the default factors alone and with a rule set
+ * of per-city base factors and running bonus campaigns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EcoPointsBenchmark {
+
+    private static final int INPUTS = 1024;
+
+    private static final String[] CITIES = {"Pune", "Mumbai", "Nagpur", "Nashik", "Aurangabad", "Kolhapur"};
+
+    private final EcoPointRules ecoPointRules = new EcoPointRules();
+
+    private EcoPointRules campaignRules;
+    private PickupRequest.WasteType[] wasteTypes;
+    private double[] weights;
+    private String[] cities;
+    private LocalDateTime[] collectedAt;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        PickupRequest.WasteType[] values = PickupRequest.WasteType.values();
+        wasteTypes = new PickupRequest.WasteType[INPUTS];
+        weights = new double[INPUTS];
+        cities = new String[INPUTS];
+        collectedAt = new LocalDateTime[INPUTS];
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < INPUTS; i++) {
+            wasteTypes[i] = values[random.nextInt(values.length)];
+            weights[i] = 0.1 + random.nextDouble() * 50;
+            cities[i] = CITIES[random.nextInt(CITIES.length)];
+            collectedAt[i] = now.minusDays(random.nextInt(60));
+        }
+
+        List<EcoPointRule> rules = new ArrayList<>();
+        long ruleId = 1;
+        for (PickupRequest.WasteType type : values) {
+            rules.add(rule(ruleId++, EcoPointRule.RuleType.BASE, type, null, 1 + random.nextInt(20) / 10.0, null, null));
+            for (int c = 0; c < 2; c++) {
+                rules.add(rule(ruleId++, EcoPointRule.RuleType.BASE, type, CITIES[c], 1 + random.nextInt(20) / 10.0, null, null));
+            }
+        }
+        for (int i = 0; i < 20; i++) {
+            LocalDateTime from = now.minusDays(random.nextInt(60));
+            rules.add(rule(ruleId++, EcoPointRule.RuleType.BONUS, random.nextBoolean() ? values[random.nextInt(values.length)] : null,
+                    random.nextBoolean() ? CITIES[random.nextInt(CITIES.length)] : null, 1.1 + random.nextInt(10) / 10.0,
+                    from, from.plusDays(7)));
+        }
+        campaignRules = new EcoPointRules(rules);
+    }
+
+    private static EcoPointRule rule(long id, EcoPointRule.RuleType ruleType, PickupRequest.WasteType wasteType, String city,
+                                     double multiplier, LocalDateTime validFrom, LocalDateTime validUntil) {
+        EcoPointRule rule = new EcoPointRule();
+        rule.setRuleId(id);
+        rule.setRuleType(ruleType);
+        rule.setWasteType(wasteType);
+        rule.setCity(city);
+        rule.setMultiplier(BigDecimal.valueOf(multiplier));
+        rule.setValidFrom(validFrom);
+        rule.setValidUntil(validUntil);
+        return rule;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INPUTS)
+    public long pointsFor() {
+        long total = 0;
+        for (int i = 0; i < INPUTS; i++) {
+            total += ecoPointRules.pointsFor(wasteTypes[i], weights[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INPUTS)
+    public long pointsForWithCampaigns() {
+        long total = 0;
+        for (int i = 0; i < INPUTS; i++) {
+            total += campaignRules.pointsFor(wasteTypes[i], cities[i], collectedAt[i], weights[i]);
+        }
+        return total;
+    }
+}
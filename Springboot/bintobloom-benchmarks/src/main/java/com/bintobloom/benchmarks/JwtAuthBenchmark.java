@@ -0,0 +1,91 @@
+package com.bintobloom.benchmarks;
+
+import com.bintobloom.entity.User;
+import com.bintobloom.security.JwtUtils;
+import com.bintobloom.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of turning a bearer token into a principal in JwtAuthenticationFilter.
+ *
+ * <p>{@code perRequestParser} reproduces the previous filter: the key and parser were rebuilt for
+ * validateJwtToken and again for getEmailFromJwtToken, then the principal was loaded by email. The users
+ * lookup is replaced by an in-memory copy here, so the real gap is larger by one database round trip.
+ * {@code sharedParser} is the current path: one parse with the shared parser, then the principal from
+ * PrincipalCache, modelled here by a principal built once in setup (a cache hit).
+ * {@code generateToken} is the signing cost paid once per login.
+ *
+ * <p>Run with {@code java -jar target/benchmarks.jar JwtAuthBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyThatIsLongEnoughForHmacSha256SigningInBenchmarks";
+
+    private JwtUtils jwtUtils;
+    private User user;
+    private UserPrincipal cachedPrincipal;
+    private UsernamePasswordAuthenticationToken authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils(SECRET, 86400000);
+
+        user = new User();
+        user.setUserId(42L);
+        user.setName("Benchmark Household");
+        user.setEmail("household@bench.test");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5Yz6VJ5ZJxL9h3VGyG8yOe.");
+        user.setRole(User.UserRole.HOUSEHOLD);
+        user.setStatus(User.UserStatus.ACTIVE);
+
+        cachedPrincipal = UserPrincipal.create(user);
+        authentication = new UsernamePasswordAuthenticationToken(cachedPrincipal, null, cachedPrincipal.getAuthorities());
+        token = jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public UserPrincipal perRequestParser() {
+        Key validateKey = Keys.hmacShaKeyFor(SECRET.getBytes());
+        Jwts.parserBuilder().setSigningKey(validateKey).build().parseClaimsJws(token);
+
+        Key subjectKey = Keys.hmacShaKeyFor(SECRET.getBytes());
+        String email = Jwts.parserBuilder().setSigningKey(subjectKey).build()
+                .parseClaimsJws(token).getBody().getSubject();
+
+        return email.equals(user.getEmail()) ? UserPrincipal.create(user) : null;
+    }
+
+    @Benchmark
+    public UserPrincipal sharedParser() {
+        Claims claims = jwtUtils.parseClaims(token);
+        return claims.getSubject().equals(cachedPrincipal.getEmail()) ? cachedPrincipal : null;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+}
@@ -0,0 +1,85 @@
+package com.bintobloom.benchmarks;
+
+import com.bintobloom.dto.NearbyPickup;
+import com.bintobloom.entity.PickupRequest;
+import com.bintobloom.event.PickupStatusChangedEvent;
+import com.bintobloom.service.PickupGeoIndexService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nearest open pickups for a collector. {@code linearScan} measures the distance to every PENDING pickup
+ * and sorts the ones in range, which is the least any caller of the unfiltered /collector/requests list had
+ * to do; {@code gridIndex} is PickupGeoIndexService. Pickups are spread over a 30 km square around Pune and
+ * the collector asks for the nearest 50 within 5 km.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PickupGeoIndexBenchmark {
+
+    private static final double LATITUDE = 18.52;
+    private static final double LONGITUDE = 73.85;
+    private static final double RADIUS_KM = 5;
+    private static final int LIMIT = 50;
+
+    @Param({"1000", "300000"})
+    private int pendingCount;
+
+    private PickupGeoIndexService index;
+    private double[][] points;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(17);
+        PickupRequest.WasteType[] types = PickupRequest.WasteType.values();
+        index = new PickupGeoIndexService(0.01, 50, LIMIT, 100);
+        points = new double[pendingCount][];
+        for (int i = 0; i < pendingCount; i++) {
+            double latitude = LATITUDE - 0.135 + random.nextDouble() * 0.27;
+            double longitude = LONGITUDE - 0.14 + random.nextDouble() * 0.28;
+            points[i] = new double[] {i, latitude, longitude};
+            index.onPickupStatusChanged(new PickupStatusChangedEvent((long) i, (long) (i % 5000), null,
+                    types[i % types.length], LocalDate.now(), null, PickupRequest.PickupStatus.PENDING,
+                    BigDecimal.valueOf(latitude), BigDecimal.valueOf(longitude)));
+        }
+    }
+
+    @Benchmark
+    public List<double[]> linearScan() {
+        List<double[]> inRange = new ArrayList<>();
+        for (double[] point : points) {
+            double distanceKm = PickupGeoIndexService.haversineKm(LATITUDE, LONGITUDE, point[1], point[2]);
+            if (distanceKm <= RADIUS_KM) {
+                inRange.add(new double[] {point[0], distanceKm});
+            }
+        }
+        inRange.sort(Comparator.comparingDouble(hit -> hit[1]));
+        return inRange.subList(0, Math.min(LIMIT, inRange.size()));
+    }
+
+    @Benchmark
+    public List<NearbyPickup> gridIndex() {
+        return index.findNearby(LATITUDE, LONGITUDE, RADIUS_KM, LIMIT);
+    }
+}
@@ -0,0 +1,90 @@
+package com.bintobloom.benchmarks;
+
+import com.bintobloom.entity.PickupRequest;
+import com.bintobloom.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of pickup lists with their household and collector users, as returned by the
+ * household, collector and admin pickup endpoints. The mapper is configured like Spring Boot's default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PickupSerializationBenchmark {
+
+    @Param({"20", "500"})
+    private int pickupCount;
+
+    private ObjectMapper objectMapper;
+    private List<PickupRequest> pickups;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        User collector = user(1L, "Route Collector", User.UserRole.COLLECTOR);
+        pickups = new ArrayList<>(pickupCount);
+        for (int i = 0; i < pickupCount; i++) {
+            PickupRequest pickup = new PickupRequest();
+            pickup.setPickupId((long) i);
+            pickup.setUser(user(100L + i, "Household " + i, User.UserRole.HOUSEHOLD));
+            pickup.setCollector(i % 2 == 0 ? collector : null);
+            pickup.setWasteType(PickupRequest.WasteType.values()[i % PickupRequest.WasteType.values().length]);
+            pickup.setScheduledDate(LocalDate.of(2025, 6, 1).plusDays(i % 30));
+            pickup.setScheduledTime(LocalTime.of(9 + i % 8, 0));
+            pickup.setPickupStatus(PickupRequest.PickupStatus.values()[i % PickupRequest.PickupStatus.values().length]);
+            pickup.setNotes("Bags left by the gate");
+            pickup.setLatitude(new BigDecimal("18.520430"));
+            pickup.setLongitude(new BigDecimal("73.856744"));
+            pickup.setCreatedAt(LocalDateTime.of(2025, 5, 20, 10, 30).plusMinutes(i));
+            pickups.add(pickup);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePickupList() throws Exception {
+        return objectMapper.writeValueAsBytes(pickups);
+    }
+
+    private static User user(Long id, String name, User.UserRole role) {
+        User user = new User();
+        user.setUserId(id);
+        user.setName(name);
+        user.setEmail("user" + id + "@bench.test");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5Yz6VJ5ZJxL9h3VGyG8yOe.");
+        user.setPhone("9876543210");
+        user.setAddress("12 Green Street");
+        user.setCity("Pune");
+        user.setRole(role);
+        user.setStatus(User.UserStatus.ACTIVE);
+        user.setCreatedAt(LocalDateTime.of(2025, 1, 1, 0, 0));
+        return user;
+    }
+}
@@ -0,0 +1,61 @@
+package com.bintobloom.benchmarks;
+
+import com.bintobloom.service.RouteOptimizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One collector's route over stops spread across a 30 km square around Pune, starting from a depot in the
+ * middle. {@code nearestNeighbour} is the construction alone; {@code twoOpt} runs 2-opt to convergence with no
+ * deadline, which is the worst case RoutePlannerService bounds with app.route.time-budget-ms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouteOptimizerBenchmark {
+
+    private static final double DEPOT_LATITUDE = 18.52;
+    private static final double DEPOT_LONGITUDE = 73.85;
+
+    @Param({"1000", "10000"})
+    private int stopCount;
+
+    private double[] latitudes;
+    private double[] longitudes;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(23);
+        latitudes = new double[stopCount];
+        longitudes = new double[stopCount];
+        for (int i = 0; i < stopCount; i++) {
+            latitudes[i] = DEPOT_LATITUDE - 0.135 + random.nextDouble() * 0.27;
+            longitudes[i] = DEPOT_LONGITUDE - 0.14 + random.nextDouble() * 0.28;
+        }
+    }
+
+    @Benchmark
+    public int[] nearestNeighbour() {
+        return RouteOptimizer.optimise(latitudes, longitudes, DEPOT_LATITUDE, DEPOT_LONGITUDE, 0);
+    }
+
+    @Benchmark
+    public int[] twoOpt() {
+        return RouteOptimizer.optimise(latitudes, longitudes, DEPOT_LATITUDE, DEPOT_LONGITUDE, Long.MAX_VALUE);
+    }
+}
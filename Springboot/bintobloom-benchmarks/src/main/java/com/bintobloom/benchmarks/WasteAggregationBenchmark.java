@@ -0,0 +1,125 @@
+package com.bintobloom.benchmarks;
+
+import com.bintobloom.entity.PickupRequest;
+import com.bintobloom.entity.User;
+import com.bintobloom.entity.WasteLog;
+import com.bintobloom.service.WasteAnalyticsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * BigDecimal waste summing for NGO analytics. {@code wasteLogStreams} is the stream pipeline NGOController
+ * ran over every waste log before analytics moved to daily rollups; {@code rollupFold} is the current
+ * WasteAnalyticsService fold over one month of (city, waste type) rollup rows. Both exclude the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WasteAggregationBenchmark {
+
+    private static final String[] CITIES = {"Pune", "Mumbai", "Nagpur", "Nashik", "Aurangabad", "Solapur", "Kolhapur", "Thane"};
+
+    @Param({"1000", "100000"})
+    private int wasteLogCount;
+
+    private List<WasteLog> wasteLogs;
+    private List<PickupRequest> pickupRequests;
+    private List<Object[]> rollupRows;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(11);
+        PickupRequest.WasteType[] types = PickupRequest.WasteType.values();
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            User user = new User();
+            user.setUserId((long) i);
+            user.setCity(CITIES[i % CITIES.length]);
+            users.add(user);
+        }
+
+        wasteLogs = new ArrayList<>(wasteLogCount);
+        pickupRequests = new ArrayList<>(wasteLogCount);
+        for (int i = 0; i < wasteLogCount; i++) {
+            PickupRequest pickup = new PickupRequest();
+            pickup.setUser(users.get(random.nextInt(users.size())));
+            pickup.setWasteType(types[random.nextInt(types.length)]);
+            pickup.setPickupStatus(PickupRequest.PickupStatus.COMPLETED);
+            pickupRequests.add(pickup);
+
+            WasteLog log = new WasteLog();
+            log.setPickupRequest(pickup);
+            log.setWasteType(pickup.getWasteType());
+            log.setWeightKg(BigDecimal.valueOf(10 + random.nextInt(5000), 2));
+            wasteLogs.add(log);
+        }
+
+        // Rollup rows for 30 days, already grouped by (city, type) as the repository query returns them
+        Map<String, Object[]> grouped = new HashMap<>();
+        for (int day = 0; day < 30; day++) {
+            for (String city : CITIES) {
+                for (PickupRequest.WasteType type : types) {
+                    Object[] row = grouped.computeIfAbsent(city + type, k -> new Object[] {city, type, BigDecimal.ZERO, 0L, 0L});
+                    row[2] = ((BigDecimal) row[2]).add(BigDecimal.valueOf(random.nextInt(100000), 2));
+                    row[3] = (Long) row[3] + 1;
+                    row[4] = (Long) row[4] + random.nextInt(3);
+                }
+            }
+        }
+        rollupRows = new ArrayList<>(grouped.values());
+    }
+
+    @Benchmark
+    public Map<String, Object> wasteLogStreams() {
+        BigDecimal totalWaste = wasteLogs.stream()
+                .map(WasteLog::getWeightKg)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        Map<String, BigDecimal> wasteByType = wasteLogs.stream()
+                .collect(Collectors.groupingBy(
+                        log -> log.getWasteType().toString(),
+                        Collectors.reducing(BigDecimal.ZERO, WasteLog::getWeightKg, BigDecimal::add)));
+
+        Map<String, Long> cityWisePickups = pickupRequests.stream()
+                .filter(req -> req.getPickupStatus() == PickupRequest.PickupStatus.COMPLETED)
+                .collect(Collectors.groupingBy(req -> req.getUser().getCity(), Collectors.counting()));
+
+        Map<String, BigDecimal> cityWiseWaste = wasteLogs.stream()
+                .collect(Collectors.groupingBy(
+                        log -> log.getPickupRequest().getUser().getCity(),
+                        Collectors.reducing(BigDecimal.ZERO, WasteLog::getWeightKg, BigDecimal::add)));
+
+        return Map.of(
+                "totalWaste", totalWaste,
+                "wasteByType", wasteByType,
+                "cityWisePickups", cityWisePickups,
+                "cityWiseWaste", cityWiseWaste);
+    }
+
+    @Benchmark
+    public Map<String, Object> rollupFold() {
+        return WasteAnalyticsService.summarize(rollupRows);
+    }
+}
@@ -0,0 +1,91 @@
+package com.bintobloom.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Many collectors accepting the same pickup at once. Every round creates one pickup, releases all racers
+ * together on a latch and checks that exactly one accept succeeded, every other racer was told the request
+ * was taken (409), and the row ended up with the winner as its collector.
+ */
+class AcceptRaceScenario {
+
+    record Result(int rounds, int cleanRounds, List<String> violations) {
+    }
+
+    private final ApiClient api;
+    private final JdbcTemplate jdbcTemplate;
+
+    AcceptRaceScenario(ApiClient api, JdbcTemplate jdbcTemplate) {
+        this.api = api;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    Result run(PickupLifecycleScenario.SeededUser customer, List<PickupLifecycleScenario.SeededUser> collectors,
+               int rounds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(collectors.size());
+        List<String> violations = new ArrayList<>();
+        int cleanRounds = 0;
+        try {
+            for (int round = 0; round < rounds; round++) {
+                ApiClient.Response created = api.post("POST /household/pickup", "/api/household/pickup", customer.token(), Map.of(
+                        "wasteType", "PLASTIC",
+                        "scheduledDate", LocalDate.now().plusDays(1).toString(),
+                        "scheduledTime", "10:00",
+                        "latitude", 18.52,
+                        "longitude", 73.85));
+                if (!created.ok()) {
+                    violations.add("round " + round + ": could not create pickup (" + created.status() + ")");
+                    continue;
+                }
+                long pickupId = ((Number) created.body().get("pickupId")).longValue();
+
+                CountDownLatch ready = new CountDownLatch(collectors.size());
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Integer>> attempts = new ArrayList<>(collectors.size());
+                for (PickupLifecycleScenario.SeededUser collector : collectors) {
+                    attempts.add(executor.submit(() -> {
+                        ready.countDown();
+                        start.await();
+                        return api.put("PUT /collector/requests/{id}/accept (race)",
+                                "/api/collector/requests/" + pickupId + "/accept", collector.token(), null).status();
+                    }));
+                }
+                ready.await();
+                start.countDown();
+
+                int winners = 0;
+                int taken = 0;
+                Long winner = null;
+                for (int i = 0; i < attempts.size(); i++) {
+                    int status = attempts.get(i).get();
+                    if (status == 200) {
+                        winners++;
+                        winner = collectors.get(i).id();
+                    } else if (status == 409) {
+                        taken++;
+                    }
+                }
+                Long stored = jdbcTemplate.queryForObject(
+                        "SELECT collector_id FROM pickup_requests WHERE pickup_id = ?", Long.class, pickupId);
+                if (winners == 1 && taken == collectors.size() - 1 && winner.equals(stored)) {
+                    cleanRounds++;
+                } else {
+                    violations.add(String.format("round %d: %d winners, %d taken, %d other, collector %s (winner %s)",
+                            round, winners, taken, collectors.size() - winners - taken, stored, winner));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return new Result(rounds, cleanRounds, violations);
+    }
+}
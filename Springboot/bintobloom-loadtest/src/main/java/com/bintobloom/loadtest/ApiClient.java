@@ -0,0 +1,98 @@
+package com.bintobloom.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thin JSON-over-HTTP client that times every call into {@link LatencyStats} under a stable endpoint name.
+ */
+class ApiClient {
+
+    record Response(int status, Map<String, Object> body) {
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    private static final TypeReference<Map<String, Object>> MAP = new TypeReference<>() {};
+    private static final TypeReference<List<Object>> LIST = new TypeReference<>() {};
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final LatencyStats stats;
+
+    ApiClient(String baseUrl, LatencyStats stats) {
+        this.baseUrl = baseUrl;
+        this.stats = stats;
+    }
+
+    Response get(String endpoint, String path, String token) {
+        return send(endpoint, "GET", path, token, null);
+    }
+
+    Response post(String endpoint, String path, String token, Object body) {
+        return send(endpoint, "POST", path, token, body);
+    }
+
+    Response put(String endpoint, String path, String token, Object body) {
+        return send(endpoint, "PUT", path, token, body);
+    }
+
+    private Response send(String endpoint, String method, String path, String token, Object body) {
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json");
+            if (token != null) {
+                request.header("Authorization", "Bearer " + token);
+            }
+            request.method(method, body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+
+            long start = System.nanoTime();
+            HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            stats.record(endpoint, System.nanoTime() - start, response.statusCode());
+
+            Response result = new Response(response.statusCode(), parse(response.body()));
+            if (!result.ok()) {
+                Object message = result.body().get("message");
+                stats.recordFailure(endpoint, response.statusCode() + " " + (message != null
+                        ? message : new String(response.body(), StandardCharsets.UTF_8)));
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted calling " + endpoint, e);
+        } catch (IOException e) {
+            stats.record(endpoint, 0, -1);
+            stats.recordFailure(endpoint, "I/O error: " + e.getMessage());
+            return new Response(-1, Map.of("message", String.valueOf(e.getMessage())));
+        }
+    }
+
+    // Some endpoints answer with a bare string; a JSON array comes back under "items"
+    private Map<String, Object> parse(byte[] body) {
+        if (body.length == 0 || (body[0] != '{' && body[0] != '[')) {
+            return Map.of();
+        }
+        try {
+            return body[0] == '[' ? Map.of("items", objectMapper.readValue(body, LIST)) : objectMapper.readValue(body, MAP);
+        } catch (IOException e) {
+            return Map.of();
+        }
+    }
+}
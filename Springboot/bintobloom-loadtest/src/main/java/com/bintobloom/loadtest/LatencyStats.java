@@ -0,0 +1,84 @@
+package com.bintobloom.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Per-endpoint latency samples and status counts. Samples are kept in full (a run records at most a few
+ * hundred thousand calls), so percentiles are exact.
+ */
+class LatencyStats {
+
+    private static final int MAX_FAILURE_MESSAGES = 3;
+
+    static final class Endpoint {
+        private long[] samples = new long[1024];
+        private int count;
+        private final Map<Integer, Integer> statusCounts = new ConcurrentSkipListMap<>();
+        private final Set<String> failureMessages = ConcurrentHashMap.newKeySet();
+
+        synchronized void record(long nanos, int status) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+            statusCounts.merge(status, 1, Integer::sum);
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(samples, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        Map<Integer, Integer> statusCounts() {
+            return statusCounts;
+        }
+
+        void recordFailure(String message) {
+            if (failureMessages.size() < MAX_FAILURE_MESSAGES) {
+                failureMessages.add(message);
+            }
+        }
+    }
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long nanos, int status) {
+        endpoints.computeIfAbsent(endpoint, e -> new Endpoint()).record(nanos, status);
+    }
+
+    void recordFailure(String endpoint, String message) {
+        endpoints.computeIfAbsent(endpoint, e -> new Endpoint()).recordFailure(message);
+    }
+
+    String report(double elapsedSeconds) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-46s %8s %9s %9s %9s %9s  %s%n",
+                "endpoint", "calls", "req/s", "p50 ms", "p99 ms", "max ms", "status"));
+        new ConcurrentSkipListMap<>(endpoints).forEach((name, endpoint) -> {
+            long[] sorted = endpoint.sorted();
+            if (sorted.length == 0) {
+                return;
+            }
+            out.append(String.format("%-46s %8d %9.1f %9.2f %9.2f %9.2f  %s%n",
+                    name,
+                    sorted.length,
+                    sorted.length / elapsedSeconds,
+                    percentile(sorted, 50) / 1e6,
+                    percentile(sorted, 99) / 1e6,
+                    sorted[sorted.length - 1] / 1e6,
+                    endpoint.statusCounts()));
+            endpoint.failureMessages.forEach(message -> out.append("    failure: ").append(message).append('\n'));
+        });
+        return out.toString();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
@@ -0,0 +1,262 @@
+package com.bintobloom.loadtest;
+
+import com.bintobloom.BintobloomBackendApplication;
+import com.bintobloom.entity.User;
+import com.bintobloom.repository.UserRepository;
+import com.bintobloom.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Boots the backend on the embedded "loadtest" profile, seeds users of every role, logs them in and runs
+ * concurrent virtual users through the pickup lifecycle, then prints per-endpoint latency and throughput.
+ *
+ * <p>Options ({@code --name=value}): users-per-role (20), virtual-users (16), iterations (500),
+ * duration-seconds (0 = until iterations are done), business-share (0.5), race-rounds (20),
+ * racing-collectors (100), query-budget (4; 0 skips the check).
+ *
+ * <p>After the lifecycle run, {@link AcceptRaceScenario} has racing-collectors collectors accept the same
+ * pickup in each of race-rounds rounds; the run fails unless every round had exactly one winner. Then
+ * {@link QueryCountScenario} fails the run if any list endpoint needs more than query-budget statements.
+ *
+ * <p>Virtual users are platform threads, one per user, since the backend targets Java 17.
+ */
+public class LoadTestRunner {
+
+    static final String PASSWORD = "LoadTest@123";
+
+    private static final String[] CITIES = {"Pune", "Mumbai", "Nagpur", "Nashik"};
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int usersPerRole = Integer.parseInt(options.getOrDefault("users-per-role", "20"));
+        int virtualUsers = Integer.parseInt(options.getOrDefault("virtual-users", "16"));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "500"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration-seconds", "0"));
+        double businessShare = Double.parseDouble(options.getOrDefault("business-share", "0.5"));
+        int raceRounds = Integer.parseInt(options.getOrDefault("race-rounds", "20"));
+        int racingCollectors = Integer.parseInt(options.getOrDefault("racing-collectors", "100"));
+        int queryBudget = Integer.parseInt(options.getOrDefault("query-budget", "4"));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BintobloomBackendApplication.class)
+                .profiles("loadtest")
+                .run();
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            LatencyStats stats = new LatencyStats();
+            ApiClient api = new ApiClient(baseUrl, stats);
+
+            // Logins are timed separately so their burst does not skew the lifecycle throughput figures
+            Map<User.UserRole, List<PickupLifecycleScenario.SeededUser>> users =
+                    login(new ApiClient(baseUrl, new LatencyStats()), seed(context, usersPerRole,
+                            raceRounds > 0 ? Math.max(usersPerRole, racingCollectors) : usersPerRole));
+            PickupLifecycleScenario scenario = new PickupLifecycleScenario(api);
+
+            System.out.printf("Running %d virtual users over %s%n", virtualUsers,
+                    durationSeconds > 0 ? durationSeconds + "s" : iterations + " lifecycles");
+            LatencyStats lifecycleStats = new LatencyStats();
+            AtomicInteger remaining = new AtomicInteger(durationSeconds > 0 ? Integer.MAX_VALUE : iterations);
+            long deadline = durationSeconds > 0 ? System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds) : Long.MAX_VALUE;
+
+            long start = System.nanoTime();
+            ExecutorService executor = Executors.newFixedThreadPool(virtualUsers);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < virtualUsers; i++) {
+                futures.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (remaining.getAndDecrement() > 0 && System.nanoTime() < deadline) {
+                        User.UserRole customerRole = random.nextDouble() < businessShare ? User.UserRole.BUSINESS : User.UserRole.HOUSEHOLD;
+                        PickupLifecycleScenario.SeededUser customer = pick(users.get(customerRole), random);
+                        PickupLifecycleScenario.SeededUser collector = pick(users.get(User.UserRole.COLLECTOR), random);
+
+                        long lifecycleStart = System.nanoTime();
+                        boolean completed = scenario.run(customer, collector);
+                        lifecycleStats.record("lifecycle " + customerRole.name().toLowerCase(Locale.ROOT),
+                                System.nanoTime() - lifecycleStart, completed ? 200 : 0);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%nCompleted in %.1fs%n%n", elapsedSeconds);
+            System.out.println(stats.report(elapsedSeconds));
+            System.out.println(lifecycleStats.report(elapsedSeconds));
+
+            if (raceRounds > 0) {
+                race(baseUrl, context, users, raceRounds, racingCollectors);
+            }
+            if (queryBudget > 0) {
+                queryCounts(baseUrl, context, users, queryBudget);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void race(String baseUrl, ConfigurableApplicationContext context,
+                             Map<User.UserRole, List<PickupLifecycleScenario.SeededUser>> users,
+                             int rounds, int racingCollectors) throws Exception {
+        List<PickupLifecycleScenario.SeededUser> collectors = users.get(User.UserRole.COLLECTOR);
+        collectors = collectors.subList(0, Math.min(racingCollectors, collectors.size()));
+        System.out.printf("Racing %d collectors for the same pickup over %d rounds%n", collectors.size(), rounds);
+
+        LatencyStats raceStats = new LatencyStats();
+        AcceptRaceScenario scenario = new AcceptRaceScenario(new ApiClient(baseUrl, raceStats), context.getBean(JdbcTemplate.class));
+        long start = System.nanoTime();
+        AcceptRaceScenario.Result result = scenario.run(users.get(User.UserRole.HOUSEHOLD).get(0), collectors, rounds);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%n%d of %d rounds had exactly one winner%n%n", result.cleanRounds(), result.rounds());
+        System.out.println(raceStats.report(elapsedSeconds));
+        if (!result.violations().isEmpty()) {
+            result.violations().forEach(violation -> System.out.println("violation: " + violation));
+            throw new IllegalStateException("Accept race produced " + result.violations().size() + " bad rounds");
+        }
+    }
+
+    private static void queryCounts(String baseUrl, ConfigurableApplicationContext context,
+                                    Map<User.UserRole, List<PickupLifecycleScenario.SeededUser>> users, int budget) {
+        QueryCountScenario scenario = new QueryCountScenario(new ApiClient(baseUrl, new LatencyStats()),
+                context.getBean(EntityManagerFactory.class), budget);
+        String household = users.get(User.UserRole.HOUSEHOLD).get(0).token();
+        String business = users.get(User.UserRole.BUSINESS).get(0).token();
+        String collector = users.get(User.UserRole.COLLECTOR).get(0).token();
+        String admin = users.get(User.UserRole.ADMIN).get(0).token();
+
+        scenario.feed("GET /household/pickups", "/api/household/pickups", household);
+        scenario.feed("GET /business/pickups", "/api/business/pickups", business);
+        scenario.feed("GET /collector/requests", "/api/collector/requests", collector);
+        scenario.feed("GET /collector/my-requests", "/api/collector/my-requests", collector);
+        scenario.list("GET /household/eco-points", "/api/household/eco-points", household);
+        scenario.list("GET /business/eco-points", "/api/business/eco-points", business);
+        scenario.list("GET /business/schedules", "/api/business/schedules", business);
+        scenario.feed("GET /payment/history", "/api/payment/history", business);
+        scenario.list("GET /payment/summary", "/api/payment/summary", business);
+        scenario.list("GET /admin/pickups", "/api/admin/pickups", admin);
+        scenario.list("GET /admin/users", "/api/admin/users", admin);
+        scenario.list("GET /leaderboard/household", "/api/leaderboard/household", household);
+        scenario.list("GET /leaderboard/household/city/{city}", "/api/leaderboard/household/city/" + CITIES[0], household);
+        scenario.list("GET /leaderboard/business", "/api/leaderboard/business", business);
+        scenario.list("GET /leaderboard/business/city/{city}", "/api/leaderboard/business/city/" + CITIES[0], business);
+
+        System.out.printf("%nStatements per list call (budget %d)%n%s%n", budget, scenario.report());
+        long failed = scenario.checks().stream().filter(check -> !check.ok()).count();
+        if (failed > 0) {
+            throw new IllegalStateException(failed + " list endpoints exceeded the query budget");
+        }
+    }
+
+    private static Map<User.UserRole, List<User>> seed(ConfigurableApplicationContext context, int usersPerRole,
+                                                       int collectors) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        UserService userService = context.getBean(UserService.class);
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+
+        Map<User.UserRole, List<User>> seeded = new EnumMap<>(User.UserRole.class);
+        int n = 0;
+        for (User.UserRole role : User.UserRole.values()) {
+            String prefix = role.name().toLowerCase(Locale.ROOT);
+            int count = role == User.UserRole.COLLECTOR ? collectors : usersPerRole;
+            List<User> batch = new ArrayList<>(count);
+            for (int i = 0; i < count; i++, n++) {
+                User user = new User();
+                user.setName(Character.toUpperCase(prefix.charAt(0)) + prefix.substring(1) + " " + letters(i));
+                user.setEmail(prefix + i + "@loadtest.dev");
+                user.setPassword(passwordHash);
+                user.setRole(role);
+                user.setPhone(String.format("9%09d", n));
+                user.setAddress(i + " Load Test Road");
+                user.setCity(CITIES[i % CITIES.length]);
+                user.setStatus(User.UserStatus.ACTIVE);
+                batch.add(user);
+            }
+            List<User> saved = userRepository.saveAll(batch);
+            for (User user : saved) {
+                if (role == User.UserRole.HOUSEHOLD) {
+                    userService.createHouseholdDetails(user, 1 + user.getUserId().intValue() % 5);
+                } else if (role == User.UserRole.BUSINESS) {
+                    userService.createBusinessDetails(user, "Retail", "LIC" + user.getUserId());
+                }
+            }
+            seeded.put(role, saved);
+        }
+        System.out.printf("Seeded %d users per role, %d collectors (%d total)%n", usersPerRole, collectors, n);
+        return seeded;
+    }
+
+    private static Map<User.UserRole, List<PickupLifecycleScenario.SeededUser>> login(
+            ApiClient api, Map<User.UserRole, List<User>> seeded) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        Map<User.UserRole, List<Future<PickupLifecycleScenario.SeededUser>>> pending = new EnumMap<>(User.UserRole.class);
+        seeded.forEach((role, list) -> {
+            List<Future<PickupLifecycleScenario.SeededUser>> futures = new ArrayList<>();
+            for (User user : list) {
+                futures.add(executor.submit(() -> {
+                    ApiClient.Response response = api.post("POST /auth/login", "/api/auth/login", null,
+                            Map.of("email", user.getEmail(), "password", PASSWORD));
+                    if (!response.ok()) {
+                        throw new IllegalStateException("Login failed for " + user.getEmail() + ": " + response.body());
+                    }
+                    return new PickupLifecycleScenario.SeededUser(
+                            user.getUserId(), user.getEmail(), role, (String) response.body().get("token"));
+                }));
+            }
+            pending.put(role, futures);
+        });
+
+        Map<User.UserRole, List<PickupLifecycleScenario.SeededUser>> users = new EnumMap<>(User.UserRole.class);
+        for (Map.Entry<User.UserRole, List<Future<PickupLifecycleScenario.SeededUser>>> entry : pending.entrySet()) {
+            List<PickupLifecycleScenario.SeededUser> loggedIn = new ArrayList<>();
+            for (Future<PickupLifecycleScenario.SeededUser> future : entry.getValue()) {
+                loggedIn.add(future.get());
+            }
+            users.put(entry.getKey(), loggedIn);
+        }
+        executor.shutdown();
+        return users;
+    }
+
+    private static PickupLifecycleScenario.SeededUser pick(List<PickupLifecycleScenario.SeededUser> users, ThreadLocalRandom random) {
+        return users.get(random.nextInt(users.size()));
+    }
+
+    // Names may only contain letters and spaces, so seeded indexes are spelled as A, B, ..., Z, BA, BB, ...
+    private static String letters(int index) {
+        StringBuilder name = new StringBuilder();
+        do {
+            name.insert(0, (char) ('A' + index % 26));
+            index /= 26;
+        } while (index > 0);
+        return name.toString();
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+}
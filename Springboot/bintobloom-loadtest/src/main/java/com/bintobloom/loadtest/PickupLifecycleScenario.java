@@ -0,0 +1,117 @@
+package com.bintobloom.loadtest;
+
+import com.bintobloom.entity.PickupRequest;
+import com.bintobloom.entity.User;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One pass of the pickup lifecycle for a customer and a collector, following the client's calls:
+ * households go create, accept, complete; businesses go create, accept, generate bill, pay bill, verify payment,
+ * wait for the payment to be applied, complete. Each step stops the pass on a non-2xx answer, which is recorded in the stats.
+ */
+class PickupLifecycleScenario {
+
+    record SeededUser(long id, String email, User.UserRole role, String token) {
+    }
+
+    private static final PickupRequest.WasteType[] WASTE_TYPES = PickupRequest.WasteType.values();
+    private static final long FULFILMENT_TIMEOUT_MS = 10_000;
+
+    private final ApiClient api;
+
+    PickupLifecycleScenario(ApiClient api) {
+        this.api = api;
+    }
+
+    /**
+     * @return true if every step of the lifecycle succeeded
+     */
+    boolean run(SeededUser customer, SeededUser collector) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        Map<String, Object> pickup = new HashMap<>();
+        pickup.put("wasteType", WASTE_TYPES[random.nextInt(WASTE_TYPES.length)].name());
+        pickup.put("scheduledDate", LocalDate.now().plusDays(random.nextInt(1, 8)).toString());
+        pickup.put("scheduledTime", String.format("%02d:00", random.nextInt(8, 18)));
+        pickup.put("notes", "load test");
+        pickup.put("latitude", 18.45 + random.nextDouble() * 0.15);
+        pickup.put("longitude", 73.78 + random.nextDouble() * 0.15);
+        ApiClient.Response created = api.post("POST /household/pickup", "/api/household/pickup", customer.token(), pickup);
+        if (!created.ok()) {
+            return false;
+        }
+        long pickupId = ((Number) created.body().get("pickupId")).longValue();
+
+        if (!api.put("PUT /collector/requests/{id}/accept",
+                "/api/collector/requests/" + pickupId + "/accept", collector.token(), null).ok()) {
+            return false;
+        }
+
+        double weight = Math.round(random.nextDouble(1, 40) * 100) / 100.0;
+        if (customer.role() == User.UserRole.BUSINESS && !payForPickup(customer, collector, pickupId, weight)) {
+            return false;
+        }
+
+        return api.put("PUT /collector/requests/{id}/complete",
+                "/api/collector/requests/" + pickupId + "/complete", collector.token(),
+                Map.of("weight", weight, "notes", "collected")).ok();
+    }
+
+    private boolean payForPickup(SeededUser customer, SeededUser collector, long pickupId, double weight) {
+        ApiClient.Response bill = api.post("POST /collector/requests/{id}/generate-bill",
+                "/api/collector/requests/" + pickupId + "/generate-bill", collector.token(),
+                Map.of("amount", Math.max(1, Math.round(weight * 12)), "weight", weight, "notes", "billed"));
+        if (!bill.ok()) {
+            return false;
+        }
+        long paymentId = ((Number) bill.body().get("paymentId")).longValue();
+
+        // The loadtest profile runs the stub gateway, so this exercises the pooled client without Razorpay
+        ApiClient.Response order = api.post("POST /payment/pay-bill/{id}",
+                "/api/payment/pay-bill/" + pickupId, customer.token(), null);
+        if (!order.ok()) {
+            return false;
+        }
+        String orderId = (String) order.body().get("orderId");
+
+        Map<String, Object> verification = Map.of(
+                "razorpay_order_id", orderId,
+                "razorpay_payment_id", "pay_loadtest_" + paymentId,
+                "razorpay_signature", "loadtest");
+        if (!api.post("POST /payment/verify", "/api/payment/verify", customer.token(), verification).ok()) {
+            return false;
+        }
+        // Every tenth customer retries, as a client does after a dropped answer; the retry must be a no-op
+        if (paymentId % 10 == 0
+                && !api.post("POST /payment/verify", "/api/payment/verify", customer.token(), verification).ok()) {
+            return false;
+        }
+        return awaitFulfilment(customer, orderId);
+    }
+
+    // Verification is applied by the fulfilment workers; the collector can only complete once the pickup is PAID
+    private boolean awaitFulfilment(SeededUser customer, String orderId) {
+        long deadline = System.currentTimeMillis() + FULFILMENT_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            ApiClient.Response status = api.get("GET /payment/verify/{orderId}", "/api/payment/verify/" + orderId,
+                    customer.token());
+            if (!status.ok() || "FAILED".equals(status.body().get("status"))) {
+                return false;
+            }
+            if ("DONE".equals(status.body().get("status"))) {
+                return true;
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return false;
+    }
+}
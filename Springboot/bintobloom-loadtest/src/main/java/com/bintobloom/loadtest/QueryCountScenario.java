@@ -0,0 +1,84 @@
+package com.bintobloom.loadtest;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts the SQL statements Hibernate prepares for one call of each list endpoint, after the lifecycle run has
+ * filled the tables. A list that lazy-loads per row costs one statement per row or more, so every endpoint
+ * must stay within a fixed budget; paged feeds are also called at two page sizes and must cost the same.
+ *
+ * <p>Statistics are global, so each endpoint is called a few times and the cheapest call counts, which keeps
+ * background jobs from inflating a measurement.
+ */
+class QueryCountScenario {
+
+    private static final int ATTEMPTS = 3;
+
+    record Check(String endpoint, int rows, long statements, boolean ok, String note) {
+    }
+
+    private final ApiClient api;
+    private final Statistics statistics;
+    private final int budget;
+    private final List<Check> checks = new ArrayList<>();
+
+    QueryCountScenario(ApiClient api, EntityManagerFactory entityManagerFactory, int budget) {
+        this.api = api;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.budget = budget;
+        statistics.setStatisticsEnabled(true);
+    }
+
+    void list(String endpoint, String path, String token) {
+        long[] measured = measure(path, token);
+        boolean ok = measured[0] <= budget;
+        checks.add(new Check(endpoint, (int) measured[1], measured[0], ok, ok ? "" : "over budget of " + budget));
+    }
+
+    void feed(String endpoint, String path, String token) {
+        long[] small = measure(path + "?size=1", token);
+        long[] large = measure(path + "?size=100", token);
+        boolean ok = large[0] <= budget && small[0] == large[0];
+        String note = ok ? "" : large[0] > budget ? "over budget of " + budget
+                : "size=1 cost " + small[0] + ", size=100 cost " + large[0];
+        checks.add(new Check(endpoint, (int) large[1], large[0], ok, note));
+    }
+
+    List<Check> checks() {
+        return checks;
+    }
+
+    String report() {
+        StringBuilder report = new StringBuilder(String.format("%-40s %6s %11s%n", "endpoint", "rows", "statements"));
+        for (Check check : checks) {
+            report.append(String.format("%-40s %6d %11d  %s%n", check.endpoint(), check.rows(), check.statements(),
+                    check.ok() ? "ok" : check.note()));
+        }
+        return report.toString();
+    }
+
+    // Returns {statements, rows} for the cheapest of a few calls
+    private long[] measure(String path, String token) {
+        long best = Long.MAX_VALUE;
+        int rows = 0;
+        for (int i = 0; i < ATTEMPTS; i++) {
+            long before = statistics.getPrepareStatementCount();
+            ApiClient.Response response = api.get("GET " + path, path, token);
+            long statements = statistics.getPrepareStatementCount() - before;
+            if (!response.ok()) {
+                throw new IllegalStateException("GET " + path + " answered " + response.status() + ": " + response.body());
+            }
+            best = Math.min(best, statements);
+            rows = response.body().values().stream()
+                    .filter(value -> value instanceof List<?>)
+                    .mapToInt(value -> ((List<?>) value).size())
+                    .findFirst().orElse(0);
+        }
+        return new long[] {best, rows};
+    }
+}
@@ -5,7 +5,7 @@ import '../styles/datetime-inputs.css';
 import DashboardNavbar from '../components/DashboardNavbar';
 import PaymentModal from '../components/PaymentModal';
 import { useAuth } from '../contexts/AuthContext';
-import { businessAPI, trackingAPI, paymentAPI } from '../utils/api';
+import { businessAPI, trackingAPI, paymentAPI, fetchPage, mergeNewestPage } from '../utils/api';
 import api from '../utils/api';
 import MapContainer from '../components/MapContainer';
 
@@ -13,7 +13,9 @@ const BusinessDashboard = () => {
   const { user } = useAuth();
   const [activeTab, setActiveTab] = useState('overview');
   const [pickups, setPickups] = useState([]);
+  const [pickupsCursor, setPickupsCursor] = useState(null);
   const [payments, setPayments] = useState([]);
+  const [paymentsCursor, setPaymentsCursor] = useState(null);
   const [showScheduleForm, setShowScheduleForm] = useState(false);
   const [showProfileForm, setShowProfileForm] = useState(false);
   const [showPaymentModal, setShowPaymentModal] = useState(false);
@@ -126,25 +128,80 @@ const BusinessDashboard = () => {
     }
   };
 
+  // Shows the newest page of pickups; the completed count comes with the eco points
   const fetchPickups = async () => {
     try {
-      const response = await businessAPI.getPickups();
-      setPickups(response.data || []);
-      const completed = (response.data || []).filter(p => p.pickupStatus === 'COMPLETED').length;
-      setStats(prev => ({ ...prev, completedPickups: completed }));
+      const page = await fetchPage(businessAPI.getPickups);
+      setPickups(page.items);
+      setPickupsCursor(page.nextCursor);
     } catch (error) {
       setPickups([]);
+      setPickupsCursor(null);
     }
   };
 
-  const fetchPayments = async () => {
+  // Polls the newest page without dropping pages loaded with "load more"
+  const refreshPickups = async () => {
+    try {
+      const page = await fetchPage(businessAPI.getPickups);
+      setPickups(prev => mergeNewestPage(prev, page.items, p => p.pickupId));
+    } catch (error) {
+      // Keep what is shown; the next poll retries
+    }
+  };
+
+  const loadMorePickups = async () => {
+    try {
+      const page = await fetchPage(businessAPI.getPickups, pickupsCursor);
+      setPickups(prev => [...prev, ...page.items]);
+      setPickupsCursor(page.nextCursor);
+    } catch (error) {
+      toast.error('Failed to load more pickups');
+    }
+  };
+
+  // Totals come from the cached summary rather than being summed over the history rows
+  const fetchPaymentSummary = async () => {
     try {
-      const response = await api.get('/payment/history');
-      setPayments(response.data || []);
-      const totalSpend = (response.data || []).reduce((sum, p) => sum + (parseFloat(p.amount) || 0), 0);
+      const summary = await paymentAPI.getSummary();
+      const totalSpend = (summary.data?.totalPaid || 0) + (summary.data?.totalPending || 0);
       setStats(prev => ({ ...prev, monthlySpend: totalSpend }));
+    } catch (error) {
+      // Keep the last totals
+    }
+  };
+
+  // Shows the newest page of payment history; older pages are loaded on demand
+  const fetchPayments = async () => {
+    fetchPaymentSummary();
+    try {
+      const page = await fetchPage(paymentAPI.getHistory);
+      setPayments(page.items);
+      setPaymentsCursor(page.nextCursor);
     } catch (error) {
       setPayments([]);
+      setPaymentsCursor(null);
+    }
+  };
+
+  // Polls the newest page without dropping pages loaded with "load more"
+  const refreshPayments = async () => {
+    fetchPaymentSummary();
+    try {
+      const page = await fetchPage(paymentAPI.getHistory);
+      setPayments(prev => mergeNewestPage(prev, page.items, p => p.paymentId));
+    } catch (error) {
+      // Keep what is shown; the next poll retries
+    }
+  };
+
+  const loadMorePayments = async () => {
+    try {
+      const page = await fetchPage(paymentAPI.getHistory, paymentsCursor);
+      setPayments(prev => [...prev, ...page.items]);
+      setPaymentsCursor(page.nextCursor);
+    } catch (error) {
+      toast.error('Failed to load more payments');
     }
   };
 
@@ -154,7 +211,8 @@ const BusinessDashboard = () => {
       setStats(prev => ({
         ...prev,
         ecoPoints: response.data.totalPoints,
-        totalWaste: response.data.totalWaste || 0
+        totalWaste: response.data.totalWaste || 0,
+        completedPickups: response.data.completedPickups || 0
       }));
       setRecentRewards(response.data.recentRewards);
     } catch (error) {
@@ -212,23 +270,21 @@ const BusinessDashboard = () => {
       // Set up interval to refresh data every 3 seconds
       const interval = setInterval(() => {
         fetchEcoPoints();
-        fetchPayments();
-        fetchPickups(); // Also refresh pickups for completed status
+        refreshPayments();
+        refreshPickups(); // Also refresh pickups for completed status
       }, 3000);
 
-      // Tracking update interval
-      const trackingInterval = setInterval(() => {
-        if (activeTrackingId) {
-          fetchTrackingInfo(activeTrackingId);
-        }
-      }, 5000);
-
       return () => {
         clearInterval(interval);
-        clearInterval(trackingInterval);
       };
     }
-  }, [user, activeTrackingId]);
+  }, [user]);
+
+  // Live collector position and status for the pickup being tracked
+  useEffect(() => {
+    if (!activeTrackingId) return undefined;
+    return trackingAPI.streamTracking(activeTrackingId, setTrackingInfo);
+  }, [activeTrackingId]);
 
   // Check if pickup can be modified (pending status and more than 2 hours before scheduled time)
   const canModifyPickup = (pickup) => {
@@ -385,7 +441,7 @@ const BusinessDashboard = () => {
     try {
       const payload = {
         wasteType: scheduleForm.wasteType,
-        scheduledDate: scheduleForm.scheduledDate,
+        startDate: scheduleForm.scheduledDate,
         scheduledTime: scheduleForm.scheduledTime,
         pickupFrequency: scheduleForm.pickupFrequency,
         notes: scheduleForm.notes || '',
@@ -393,8 +449,8 @@ const BusinessDashboard = () => {
         longitude: scheduleForm.longitude
       };
 
-      await businessAPI.createPickup(payload);
-      toast.success('Bulk pickup scheduled successfully! 🌿');
+      await businessAPI.createSchedule(payload);
+      toast.success('Recurring pickup scheduled successfully! 🌿');
       setScheduleForm({
         wasteType: 'ORGANIC_WASTE',
         pickupFrequency: 'WEEKLY',
@@ -604,6 +660,11 @@ Generated: ${new Date().toLocaleDateString()}`;
           ))
         )}
       </div>
+      {pickupsCursor && (
+        <div style={{ textAlign: 'center', marginTop: '1rem' }}>
+          <button className="btn btn-secondary" onClick={loadMorePickups}>Load more</button>
+        </div>
+      )}
     </div>
   );
 
@@ -666,6 +727,11 @@ Generated: ${new Date().toLocaleDateString()}`;
               ))
             )}
           </div>
+          {paymentsCursor && (
+            <div style={{ textAlign: 'center', marginTop: '1rem' }}>
+              <button className="btn btn-secondary" onClick={loadMorePayments}>Load more</button>
+            </div>
+          )}
         </div>
       </div>
     </div>
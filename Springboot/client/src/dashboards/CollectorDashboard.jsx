@@ -3,7 +3,7 @@ import { Truck, MapPin, CheckCircle, XCircle, Clock, User, Edit, Package, Scale,
 import toast from 'react-hot-toast';
 import DashboardNavbar from '../components/DashboardNavbar';
 import { useAuth } from '../contexts/AuthContext';
-import { collectorAPI, trackingAPI } from '../utils/api';
+import { collectorAPI, trackingAPI, fetchPage } from '../utils/api';
 import MapContainer from '../components/MapContainer';
 import '../styles/collector-dashboard.css';
 
@@ -12,6 +12,8 @@ const CollectorDashboard = () => {
   const [activeTab, setActiveTab] = useState('requests');
   const [allRequests, setAllRequests] = useState([]);
   const [myRequests, setMyRequests] = useState([]);
+  const [allRequestsCursor, setAllRequestsCursor] = useState(null);
+  const [myRequestsCursor, setMyRequestsCursor] = useState(null);
   const [showProfileForm, setShowProfileForm] = useState(false);
   const [showCompleteForm, setShowCompleteForm] = useState(false);
   const [selectedRequest, setSelectedRequest] = useState(null);
@@ -110,23 +112,48 @@ const CollectorDashboard = () => {
     { id: 'profile', label: 'Profile', icon: <User size={16} /> }
   ];
 
+  // Feeds show their newest page; older pages are appended on demand with the cursor from the last one
   const fetchAllRequests = async () => {
     try {
-      const response = await collectorAPI.getAllRequests();
-      setAllRequests(response.data || []);
+      const page = await fetchPage(collectorAPI.getAllRequests);
+      setAllRequests(page.items);
+      setAllRequestsCursor(page.nextCursor);
     } catch (error) {
 
       setAllRequests([]);
+      setAllRequestsCursor(null);
+    }
+  };
+
+  const loadMoreAllRequests = async () => {
+    try {
+      const page = await fetchPage(collectorAPI.getAllRequests, allRequestsCursor);
+      setAllRequests(prev => [...prev, ...page.items]);
+      setAllRequestsCursor(page.nextCursor);
+    } catch (error) {
+      toast.error('Failed to load more requests');
     }
   };
 
   const fetchMyRequests = async () => {
     try {
-      const response = await collectorAPI.getMyRequests();
-      setMyRequests(response.data || []);
+      const page = await fetchPage(collectorAPI.getMyRequests);
+      setMyRequests(page.items);
+      setMyRequestsCursor(page.nextCursor);
     } catch (error) {
 
       setMyRequests([]);
+      setMyRequestsCursor(null);
+    }
+  };
+
+  const loadMoreMyRequests = async () => {
+    try {
+      const page = await fetchPage(collectorAPI.getMyRequests, myRequestsCursor);
+      setMyRequests(prev => [...prev, ...page.items]);
+      setMyRequestsCursor(page.nextCursor);
+    } catch (error) {
+      toast.error('Failed to load more pickups');
     }
   };
 
@@ -202,7 +229,11 @@ const CollectorDashboard = () => {
       toast.success('Request accepted successfully! 🚛');
       await Promise.all([fetchAllRequests(), fetchMyRequests()]);
     } catch (error) {
-
+      if (error.response?.status === 409) {
+        toast.error('Another collector already took this request');
+        await fetchAllRequests();
+        return;
+      }
       toast.error('Failed to accept request');
     }
   };
@@ -372,6 +403,11 @@ const CollectorDashboard = () => {
           ))
         )}
       </div>
+      {allRequestsCursor && (
+        <div style={{ textAlign: 'center', marginTop: '1rem' }}>
+          <button className="btn btn-secondary" onClick={loadMoreAllRequests}>Load more</button>
+        </div>
+      )}
     </div>
   );
 
@@ -475,6 +511,11 @@ const CollectorDashboard = () => {
           ))
         )}
       </div>
+      {myRequestsCursor && (
+        <div style={{ textAlign: 'center', marginTop: '1rem' }}>
+          <button className="btn btn-secondary" onClick={loadMoreMyRequests}>Load more</button>
+        </div>
+      )}
     </div>
   );
 
@@ -4,13 +4,14 @@ import toast from 'react-hot-toast';
 import '../styles/datetime-inputs.css';
 import DashboardNavbar from '../components/DashboardNavbar';
 import { useAuth } from '../contexts/AuthContext';
-import { pickupAPI, leaderboardAPI, userAPI, householdAPI, trackingAPI, paymentAPI } from '../utils/api';
+import { pickupAPI, leaderboardAPI, userAPI, householdAPI, trackingAPI, paymentAPI, fetchPage } from '../utils/api';
 import MapContainer from '../components/MapContainer';
 
 const HouseholdDashboard = () => {
   const { user } = useAuth();
   const [activeTab, setActiveTab] = useState('overview');
   const [pickupRequests, setPickupRequests] = useState([]);
+  const [pickupsCursor, setPickupsCursor] = useState(null);
   const [leaderboard, setLeaderboard] = useState([]);
   const [showScheduleForm, setShowScheduleForm] = useState(false);
   const [showProfileForm, setShowProfileForm] = useState(false);
@@ -109,7 +110,8 @@ const HouseholdDashboard = () => {
       setStats(prev => ({
         ...prev,
         ecoPoints: response.data.totalPoints,
-        totalWaste: response.data.totalWaste || 0
+        totalWaste: response.data.totalWaste || 0,
+        completedPickups: response.data.completedPickups || 0
       }));
       setRecentRewards(response.data.recentRewards);
     } catch (error) {
@@ -150,17 +152,27 @@ const HouseholdDashboard = () => {
     }
   };
 
-  // Fetch pickup requests
+  // Fetch the newest page of pickup requests; the completed count comes with the eco points
   const fetchPickups = async () => {
     try {
-      const response = await householdAPI.getMyPickups();
-      setPickupRequests(response.data || []);
-      const completed = (response.data || []).filter(p => p.pickupStatus === 'COMPLETED').length;
-      setStats(prev => ({ ...prev, completedPickups: completed }));
+      const page = await fetchPage(householdAPI.getMyPickups);
+      setPickupRequests(page.items);
+      setPickupsCursor(page.nextCursor);
     } catch (error) {
 
       // Don't show error toast to avoid redirect issues
       setPickupRequests([]);
+      setPickupsCursor(null);
+    }
+  };
+
+  const loadMorePickups = async () => {
+    try {
+      const page = await fetchPage(householdAPI.getMyPickups, pickupsCursor);
+      setPickupRequests(prev => [...prev, ...page.items]);
+      setPickupsCursor(page.nextCursor);
+    } catch (error) {
+      toast.error('Failed to load more pickups');
     }
   };
 
@@ -201,19 +213,17 @@ const HouseholdDashboard = () => {
         fetchEcoPoints();
       }, 3000);
 
-      // Tracking update interval
-      const trackingInterval = setInterval(() => {
-        if (activeTrackingId) {
-          fetchTrackingInfo(activeTrackingId);
-        }
-      }, 5000);
-
       return () => {
         clearInterval(interval);
-        clearInterval(trackingInterval);
       };
     }
-  }, [user, activeTrackingId]);
+  }, [user]);
+
+  // Live collector position and status for the pickup being tracked
+  useEffect(() => {
+    if (!activeTrackingId) return undefined;
+    return trackingAPI.streamTracking(activeTrackingId, setTrackingInfo);
+  }, [activeTrackingId]);
 
   // Calculate rank when leaderboard or user changes
   useEffect(() => {
@@ -601,6 +611,11 @@ const HouseholdDashboard = () => {
           ))
         )}
       </div>
+      {pickupsCursor && (
+        <div style={{ textAlign: 'center', marginTop: '1rem' }}>
+          <button className="btn btn-secondary" onClick={loadMorePickups}>Load more</button>
+        </div>
+      )}
     </div>
   );
 
@@ -56,6 +56,20 @@ api.interceptors.response.use(
   }
 );
 
+// Keyset-paged feeds return one page per call, with the cursor for the next page in the X-Next-Cursor header
+// (absent on the last page). Resolves to the page's items and that cursor; pass it back to load the next page.
+export const fetchPage = async (request, cursor, params = {}) => {
+  const response = await request({ ...params, ...(cursor ? { cursor } : {}) });
+  return { items: response.data || [], nextCursor: response.headers['x-next-cursor'] || null };
+};
+
+// For polling a feed the user may have paged through: the fresh newest page replaces its rows, and rows already
+// loaded beyond it are kept, so the cursor from the last "load more" still continues the list.
+export const mergeNewestPage = (loaded, items, idOf) => {
+  const fresh = new Set(items.map(idOf));
+  return [...items, ...loaded.filter(item => !fresh.has(idOf(item)))];
+};
+
 // Auth API calls
 export const authAPI = {
   login: (credentials) => api.post('/auth/login', credentials),
@@ -82,7 +96,7 @@ export const householdAPI = {
   createPickup: (requestData) => api.post('/household/pickup', requestData),
   updatePickup: (pickupId, data) => api.put(`/household/pickup/${pickupId}`, data),
   deletePickup: (pickupId) => api.delete(`/household/pickup/${pickupId}`),
-  getMyPickups: () => api.get('/household/pickups'),
+  getMyPickups: (params) => api.get('/household/pickups', { params }),
   getEcoPoints: () => api.get('/household/eco-points'),
   getProfile: () => api.get('/household/profile'),
   updateProfile: (profileData) => api.put('/household/profile', profileData),
@@ -91,9 +105,13 @@ export const householdAPI = {
 export const businessAPI = {
   getProfile: () => api.get('/business/profile'),
   updateProfile: (profileData) => api.put('/business/profile', profileData),
-  getPickups: () => api.get('/business/pickups'),
+  getPickups: (params) => api.get('/business/pickups', { params }),
   getEcoPoints: () => api.get('/business/eco-points'),
   createPickup: (requestData) => api.post('/business/pickup', requestData),
+  createPickups: (pickups) => api.post('/business/pickups/bulk', { pickups }),
+  getSchedules: () => api.get('/business/schedules'),
+  createSchedule: (scheduleData) => api.post('/business/schedules', scheduleData),
+  cancelSchedule: (scheduleId) => api.delete(`/business/schedules/${scheduleId}`),
   updatePickup: (pickupId, data) => api.put(`/business/pickup/${pickupId}`, data),
   deletePickup: (pickupId) => api.delete(`/business/pickup/${pickupId}`),
   getPayments: () => api.get('/business/payments'),
@@ -104,8 +122,10 @@ export const businessAPI = {
 export const collectorAPI = {
   getProfile: () => api.get('/collector/profile'),
   updateProfile: (profileData) => api.put('/collector/profile', profileData),
-  getAllRequests: () => api.get('/collector/requests'),
-  getMyRequests: () => api.get('/collector/my-requests'),
+  getAllRequests: (params) => api.get('/collector/requests', { params }),
+  getMyRequests: (params) => api.get('/collector/my-requests', { params }),
+  getNearbyRequests: (params) => api.get('/collector/requests/nearby', { params }),
+  getRoute: (params) => api.get('/collector/route', { params }),
   acceptRequest: (requestId) => api.put(`/collector/requests/${requestId}/accept`),
   rejectRequest: (requestId) => api.put(`/collector/requests/${requestId}/reject`),
   completeRequest: (requestId, completionData) => api.put(`/collector/requests/${requestId}/complete`, completionData),
@@ -115,6 +135,68 @@ export const collectorAPI = {
 
 export const trackingAPI = {
   getTracking: (pickupId) => api.get(`/tracking/${pickupId}`),
+  // Server-sent tracking updates. EventSource cannot send the Authorization header, so the stream is read with
+  // fetch. The server ends streams on timeout or restart, so a stream that ends before the pickup does is reopened
+  // with backoff; its first event is the current snapshot, so nothing is missed. Returns a function that closes it.
+  streamTracking: (pickupId, onUpdate) => {
+    const controller = new AbortController();
+    let retryDelay = 1000;
+    let retryTimer;
+    let finished = false;
+
+    const connect = () => {
+      const token = localStorage.getItem('token') || JSON.parse(localStorage.getItem('user') || '{}').token;
+      fetch(`${API_BASE_URL}/tracking/${pickupId}/stream`, {
+        headers: { Authorization: `Bearer ${token}`, Accept: 'text/event-stream' },
+        signal: controller.signal,
+      })
+        .then(async (response) => {
+          if ([401, 403, 404].includes(response.status)) {
+            // Not trackable by this user any more; retrying cannot help
+            finished = true;
+          }
+          if (!response.ok || !response.body) {
+            throw new Error(`Tracking stream failed with status ${response.status}`);
+          }
+          const reader = response.body.getReader();
+          const decoder = new TextDecoder();
+          let buffer = '';
+          for (;;) {
+            const { done, value } = await reader.read();
+            if (done) break;
+            buffer = (buffer + decoder.decode(value, { stream: true })).replace(/\r\n/g, '\n');
+            let boundary;
+            while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+              const data = buffer.slice(0, boundary).split('\n')
+                .filter((line) => line.startsWith('data:'))
+                .map((line) => line.slice(5))
+                .join('\n');
+              buffer = buffer.slice(boundary + 2);
+              if (data) {
+                const update = JSON.parse(data);
+                retryDelay = 1000;
+                finished = ['COMPLETED', 'CANCELLED'].includes(update.status);
+                onUpdate(update);
+              }
+            }
+          }
+        })
+        .catch((error) => {
+          if (error.name !== 'AbortError') console.error('Tracking stream closed:', error.message);
+        })
+        .finally(() => {
+          if (finished || controller.signal.aborted) return;
+          retryTimer = setTimeout(connect, retryDelay);
+          retryDelay = Math.min(retryDelay * 2, 30000);
+        });
+    };
+
+    connect();
+    return () => {
+      controller.abort();
+      clearTimeout(retryTimer);
+    };
+  },
 };
 
 export const ngoAPI = {
@@ -152,7 +234,8 @@ export const adminAPI = {
 export const paymentAPI = {
   createOrder: (amount) => api.post('/payment/create-order', { amount }),
   verifyPayment: (data) => api.post('/payment/verify', data),
-  getHistory: () => api.get('/payment/history'),
+  getHistory: (params) => api.get('/payment/history', { params }),
+  getSummary: () => api.get('/payment/summary'),
   payBill: (pickupId) => api.post(`/payment/pay-bill/${pickupId}`),
 };
 